@@ -14,6 +14,7 @@ import com.github.adisann.pokemon.battle.animation.BattleAnimationAccessor;
 import com.github.adisann.pokemon.battle.animation.BattleSprite;
 import com.github.adisann.pokemon.battle.animation.BattleSpriteAccessor;
 import com.github.adisann.pokemon.battle.moves.MoveDatabase;
+import com.github.adisann.pokemon.data.NPCDatabase;
 import com.github.adisann.pokemon.model.world.World;
 import com.github.adisann.pokemon.screen.AbstractScreen;
 import com.github.adisann.pokemon.screen.TransitionScreen;
@@ -22,14 +23,17 @@ import com.github.adisann.pokemon.screen.transition.BattleBlinkTransitionAccesso
 import com.github.adisann.pokemon.screen.transition.Transition;
 import com.github.adisann.pokemon.util.Action;
 import com.github.adisann.pokemon.util.SkinGenerator;
+import com.github.adisann.pokemon.util.SpriteRegistry;
 import com.github.adisann.pokemon.worldloader.DialogueDb;
 import com.github.adisann.pokemon.worldloader.DialogueLoader;
 import com.github.adisann.pokemon.worldloader.LTerrainDb;
 import com.github.adisann.pokemon.worldloader.LTerrainLoader;
 import com.github.adisann.pokemon.worldloader.LWorldObjectDb;
 import com.github.adisann.pokemon.worldloader.LWorldObjectLoader;
+import com.github.adisann.pokemon.worldloader.NPCDatabaseLoader;
 import com.github.adisann.pokemon.worldloader.WorldLoader;
 import com.github.czyzby.autumn.annotation.Component;
+import com.github.czyzby.autumn.annotation.Destroy;
 import com.github.czyzby.autumn.annotation.Initiate;
 import com.github.czyzby.autumn.annotation.Inject;
 
@@ -52,6 +56,8 @@ public class PokemonGame {
 
 	private String version;
 	private Skin skin;
+	/* pages of the NPC sprites the worlds load, see WorldLoader */
+	private SpriteRegistry spriteRegistry;
 
 	@Initiate(priority = com.github.czyzby.autumn.mvc.config.AutumnActionPriority.LOW_PRIORITY)
 	public void init() {
@@ -67,7 +73,9 @@ public class PokemonGame {
 		assetManager.setLoader(LWorldObjectDb.class, new LWorldObjectLoader(new InternalFileHandleResolver()));
 		assetManager.setLoader(LTerrainDb.class, new LTerrainLoader(new InternalFileHandleResolver()));
 		assetManager.setLoader(DialogueDb.class, new DialogueLoader(new InternalFileHandleResolver()));
-		assetManager.setLoader(World.class, new WorldLoader(new InternalFileHandleResolver()));
+		assetManager.setLoader(NPCDatabase.class, new NPCDatabaseLoader(new InternalFileHandleResolver()));
+		spriteRegistry = new SpriteRegistry();
+		assetManager.setLoader(World.class, new WorldLoader(new InternalFileHandleResolver(), spriteRegistry));
 
 		assetManager.load("LTerrain.xml", LTerrainDb.class);
 		assetManager.load("LWorldObjects.xml", LWorldObjectDb.class);
@@ -110,6 +118,11 @@ public class PokemonGame {
 		System.out.println("Skin generated successfully");
 	}
 
+	@Destroy
+	public void dispose() {
+		spriteRegistry.dispose();
+	}
+
 	public void startTransition(AbstractScreen from, AbstractScreen to, Transition out, Transition in, Action action) {
 		transitionScreen.startTransition(from, to, out, in, action);
 	}
@@ -8,6 +8,7 @@ import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.github.adisann.pokemon.battle.animation.AnimatedBattleSprite;
@@ -16,6 +17,7 @@ import com.github.adisann.pokemon.battle.animation.BattleAnimationAccessor;
 import com.github.adisann.pokemon.battle.animation.BattleSprite;
 import com.github.adisann.pokemon.battle.animation.BattleSpriteAccessor;
 import com.github.adisann.pokemon.battle.moves.MoveDatabase;
+import com.github.adisann.pokemon.data.NPCDatabase;
 import com.github.adisann.pokemon.model.world.World;
 import com.github.adisann.pokemon.screen.AbstractScreen;
 import com.github.adisann.pokemon.screen.GameScreen;
@@ -23,15 +25,19 @@ import com.github.adisann.pokemon.screen.transition.BattleBlinkTransition;
 import com.github.adisann.pokemon.screen.transition.BattleBlinkTransitionAccessor;
 import com.github.adisann.pokemon.screen.transition.Transition;
 import com.github.adisann.pokemon.util.Action;
+import com.github.adisann.pokemon.util.RandomStream;
 import com.github.adisann.pokemon.util.SkinGenerator;
+import com.github.adisann.pokemon.util.SpriteRegistry;
 import com.github.adisann.pokemon.worldloader.DialogueDb;
 import com.github.adisann.pokemon.worldloader.DialogueLoader;
 import com.github.adisann.pokemon.worldloader.LTerrainDb;
 import com.github.adisann.pokemon.worldloader.LTerrainLoader;
 import com.github.adisann.pokemon.worldloader.LWorldObjectDb;
 import com.github.adisann.pokemon.worldloader.LWorldObjectLoader;
+import com.github.adisann.pokemon.worldloader.NPCDatabaseLoader;
 import com.github.adisann.pokemon.save.SaveManager;
 import com.github.adisann.pokemon.worldloader.WorldLoader;
+import com.github.adisann.pokemon.worldloader.WorldStreamer;
 import com.github.adisann.pokemon.audio.SoundManager;
 
 import aurelienribon.tweenengine.Tween;
@@ -53,6 +59,13 @@ public class PokemonGameMain extends Game {
     private Skin skin;
     private String version;
     private SoundManager soundManager;
+    private WorldStreamer worldStreamer;
+    private SpriteRegistry spriteRegistry;
+    private RandomStream random;
+
+    private GLProfiler profiler;
+    private float profilerTimer;
+    private int profilerFrames;
 
     private GameScreen gameScreen;
 
@@ -63,12 +76,25 @@ public class PokemonGameMain extends Game {
         tweenManager = new TweenManager();
         moveDatabase = new MoveDatabase();
         saveManager = new SaveManager();
+        spriteRegistry = new SpriteRegistry();
 
         // Read version
         version = Gdx.files.internal("version.txt").readString().trim();
         System.out.println("Pokémon - Kelompok 5, version " + version);
+
+        // Seed before any world is made, worlds take their stream from it
+        if (Settings.RANDOM_SEED == 0) {
+            Settings.RANDOM_SEED = System.nanoTime();
+        }
+        System.out.println("Random seed " + Settings.RANDOM_SEED);
+        random = new RandomStream(Settings.RANDOM_SEED);
         Gdx.graphics.setTitle("Pokémon - Kelompok 5, version " + version);
 
+        if (Settings.GL_PROFILER) {
+            profiler = new GLProfiler(Gdx.graphics);
+            profiler.enable();
+        }
+
         // Initialize shaders
         initShaders();
 
@@ -82,7 +108,9 @@ public class PokemonGameMain extends Game {
         assetManager.setLoader(LWorldObjectDb.class, new LWorldObjectLoader(new InternalFileHandleResolver()));
         assetManager.setLoader(LTerrainDb.class, new LTerrainLoader(new InternalFileHandleResolver()));
         assetManager.setLoader(DialogueDb.class, new DialogueLoader(new InternalFileHandleResolver()));
-        assetManager.setLoader(World.class, new WorldLoader(new InternalFileHandleResolver()));
+        assetManager.setLoader(NPCDatabase.class, new NPCDatabaseLoader(new InternalFileHandleResolver()));
+        assetManager.setLoader(World.class, new WorldLoader(new InternalFileHandleResolver(), spriteRegistry));
+        worldStreamer = new WorldStreamer(assetManager, Settings.WORLD_BUDGET);
 
         // Load assets
         loadAssets();
@@ -157,10 +185,12 @@ public class PokemonGameMain extends Game {
         String assetFile = Gdx.files.internal("assets.txt").readString();
         String[] assetFiles = assetFile.split("\\r?\\n");
         for (String file : assetFiles) {
-            if (file.startsWith("worlds/") || file.startsWith("worlds\\")) {
-                System.out.println("Loading world " + file);
+            // compiled .wld files are picked up by WorldLoader next to their .txt
+            if ((file.startsWith("worlds/") || file.startsWith("worlds\\"))
+                    && (file.endsWith(".txt") || file.endsWith(".tmx"))) {
+                // worlds are loaded when the player gets near them
                 String normalizedPath = file.replace("\\", "/");
-                assetManager.load(normalizedPath, World.class);
+                worldStreamer.register(normalizedPath);
             }
         }
     }
@@ -169,12 +199,43 @@ public class PokemonGameMain extends Game {
     public void render() {
         super.render();
         tweenManager.update(Gdx.graphics.getDeltaTime());
+        if (profiler != null) {
+            logProfiler();
+        }
+    }
+
+    /* prints GL calls per frame about once a second, averaged over the frames since the last print */
+    private void logProfiler() {
+        profilerTimer += Gdx.graphics.getDeltaTime();
+        profilerFrames++;
+        if (profilerTimer < 1f) {
+            return;
+        }
+        System.out.println("GL per frame: " + profiler.getDrawCalls() / profilerFrames + " draw calls, "
+                + profiler.getTextureBindings() / profilerFrames + " texture binds, "
+                + spriteRegistry.getPageCount() + " NPC sprite pages");
+        profilerTimer = 0f;
+        profilerFrames = 0;
+        profiler.reset();
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (profiler != null) {
+            profiler.disable();
+        }
+        spriteRegistry.dispose();
     }
 
     public AssetManager getAssetManager() {
         return assetManager;
     }
 
+    public WorldStreamer getWorldStreamer() {
+        return worldStreamer;
+    }
+
     public TweenManager getTweenManager() {
         return tweenManager;
     }
@@ -195,6 +256,13 @@ public class PokemonGameMain extends Game {
         return moveDatabase;
     }
 
+    /**
+     * @return Root stream of the game's randomness, split it for anything that draws on its own
+     */
+    public RandomStream getRandom() {
+        return random;
+    }
+
     public String getVersion() {
         return version;
     }
@@ -8,6 +8,51 @@ public class Settings {
 	public static float SCALED_TILE_SIZE = TILE_SIZE * SCALE;
 	
 	public static float SCALE_UI = 2f;
+	
+	/** Bake terrain chunks into offscreen buffers instead of drawing every tile each frame */
+	public static boolean STATIC_TERRAIN_LAYER = true;
+	
+	/** Store world tiles as packed arrays instead of one Tile object each, see CompactTileChunk */
+	public static boolean COMPACT_TILE_MAP = false;
+	
+	/** Max amount of worlds kept loaded at once, see WorldStreamer */
+	public static int WORLD_BUDGET = 4;
+	
+	/** Update actors and objects far from the view less often, see ActivityScheduler */
+	public static boolean SIMULATION_LOD = true;
+	
+	/** Tiles around the view in which things are still updated, every few frames */
+	public static float SIMULATION_MARGIN = 8f;
+	
+	/** Logic steps between updates in the margin around the view */
+	public static int SIMULATION_COARSE_INTERVAL = 4;
+	
+	/** Seconds of world logic per step, the world is simulated at a fixed rate, see FixedTimestep */
+	public static float SIMULATION_STEP = 1f / 60f;
+	
+	/** Most logic steps run for one rendered frame, also when fast-forwarding. Longer frames drop the extra time */
+	public static int SIMULATION_MAX_STEPS = 8;
+	
+	/** Speed of the world logic compared to real time, above 1 fast-forwards */
+	public static float SIMULATION_SPEED = 1f;
+	
+	/** Plan actor behaviors on the fork-join pool once this many actors are updated together, see BehaviorStep */
+	public static int PARALLEL_BEHAVIOR_MIN_ACTORS = 256;
+	
+	/** Run the world logic on its own thread while the frame before is drawn, see SimulationThread */
+	public static boolean SIMULATION_THREAD = false;
+	
+	/** Seed of the game logic's randomness, see RandomStream. 0 picks one at launch, set it to replay a session */
+	public static long RANDOM_SEED = 0;
+	
+	/** Rounds the opponent looks ahead when choosing a move, see Brain */
+	public static int AI_SEARCH_DEPTH = 3;
+	
+	/** Most positions the opponent looks at per turn, counted so the seed alone decides its moves. 0 for no limit */
+	public static long AI_MAX_NODES = 1000000;
+	
+	/** Print draw calls and texture binds per frame once a second, see GLProfiler */
+	public static boolean GL_PROFILER = false;
 
 }
 
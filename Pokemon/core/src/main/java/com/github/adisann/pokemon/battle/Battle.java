@@ -1,8 +1,10 @@
 package com.github.adisann.pokemon.battle;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import com.github.adisann.pokemon.Settings;
+import com.github.adisann.pokemon.battle.ai.Brain;
+import com.github.adisann.pokemon.battle.animation.DamageFlashAnimation;
 import com.github.adisann.pokemon.battle.animation.FaintingAnimation;
 import com.github.adisann.pokemon.battle.animation.PokeballAnimation;
 import com.github.adisann.pokemon.battle.animation.OpponentPokeballAnimation;
@@ -22,9 +24,12 @@ import com.github.adisann.pokemon.battle.event.TextEvent;
 import com.github.adisann.pokemon.battle.moves.Move;
 import com.github.adisann.pokemon.battle.moves.MoveDatabase;
 import com.github.adisann.pokemon.model.Pokemon;
+import com.github.adisann.pokemon.util.RandomStream;
 
 /**
  * A 100% real Pokemon fight! Right in your livingroom.
+ *
+ * The turns are played by the BattleRules, this shows what they did as BattleEvents.
  */
 public class Battle implements BattleEventQueuer {
 
@@ -38,27 +43,33 @@ public class Battle implements BattleEventQueuer {
 		;
 	}
 
-	private STATE state;
+	private BattleState state;
 
-	private BattleMechanics mechanics;
+	private BattleRules rules;
 
-	private Pokemon player;
-	private Pokemon opponent;
+	/* chooses the opponent's moves */
+	private Brain brain;
 
-	private Trainer playerTrainer;
-	private Trainer opponentTrainer;
+	/* reused for the records of every turn */
+	private BattleOutcome outcome = new BattleOutcome();
 
 	private BattleEventPlayer eventPlayer;
 
 	private MoveDatabase moveDatabase;
 
-	public Battle(Trainer player, Pokemon opponent, MoveDatabase moveDatabase) {
-		this.playerTrainer = player;
-		this.player = player.getPokemon(0);
-		this.opponent = opponent;
+	private RandomStream random;
+
+	/**
+	 * Constructor for wild battles.
+	 *
+	 * @param random	Stream all chances of this battle are drawn from
+	 */
+	public Battle(Trainer player, Pokemon opponent, MoveDatabase moveDatabase, RandomStream random) {
+		this.state = new BattleState(player, player.getPokemon(0), null, opponent);
 		this.moveDatabase = moveDatabase;
-		mechanics = new BattleMechanics();
-		this.state = STATE.READY_TO_PROGRESS;
+		this.random = random;
+		rules = new BattleRules(new BattleMechanics(random));
+		brain = new Brain(rules.getMechanics(), Settings.AI_SEARCH_DEPTH, Settings.AI_MAX_NODES);
 	}
 
 	/**
@@ -67,15 +78,14 @@ public class Battle implements BattleEventQueuer {
 	 * @param player       Player's trainer
 	 * @param opponent     Opponent trainer (NPC)
 	 * @param moveDatabase Move database for move lookups
+	 * @param random       Stream all chances of this battle are drawn from
 	 */
-	public Battle(Trainer player, Trainer opponent, MoveDatabase moveDatabase) {
-		this.playerTrainer = player;
-		this.opponentTrainer = opponent;
-		this.player = player.getPokemon(0);
-		this.opponent = opponent.getPokemon(0);
+	public Battle(Trainer player, Trainer opponent, MoveDatabase moveDatabase, RandomStream random) {
+		this.state = new BattleState(player, player.getPokemon(0), opponent, opponent.getPokemon(0));
 		this.moveDatabase = moveDatabase;
-		mechanics = new BattleMechanics();
-		this.state = STATE.READY_TO_PROGRESS;
+		this.random = random;
+		rules = new BattleRules(new BattleMechanics(random));
+		brain = new Brain(rules.getMechanics(), Settings.AI_SEARCH_DEPTH, Settings.AI_MAX_NODES);
 	}
 
 	/**
@@ -85,7 +95,7 @@ public class Battle implements BattleEventQueuer {
 	 * @return true if this is a trainer battle
 	 */
 	public boolean isTrainerBattle() {
-		return opponentTrainer != null;
+		return state.getOpponentTrainer() != null;
 	}
 
 	/**
@@ -94,10 +104,12 @@ public class Battle implements BattleEventQueuer {
 	 * appears
 	 */
 	public void beginBattle() {
+		Pokemon player = state.getPlayer();
+		Pokemon opponent = state.getOpponent();
 		if (isTrainerBattle()) {
 			// TRAINER BATTLE INTRO
 			// 1. Show Trainer Sprite
-			String trainerSprite = opponentTrainer.getSpriteName();
+			String trainerSprite = state.getOpponentTrainer().getSpriteName();
 			if (trainerSprite == null) {
 				// Fallback if no sprite set
 				trainerSprite = opponent.getSpriteName();
@@ -148,31 +160,22 @@ public class Battle implements BattleEventQueuer {
 		queueEvent(new AnimationBattleEvent(BATTLE_PARTY.PLAYER, new PokeballAnimation()));
 	}
 
+	/**
+	 * Lets the opponent think about its next move while the player chooses theirs.
+	 */
+	public void planOpponentMove() {
+		brain.plan(state);
+	}
+
 	/**
 	 * Progress the battle one turn.
 	 * 
 	 * @param input Index of the move used by the player
 	 */
 	public void progress(int input) {
-		if (state != STATE.READY_TO_PROGRESS) {
-			return;
-		}
-		if (mechanics.goesFirst(player, opponent)) {
-			playTurn(BATTLE_PARTY.PLAYER, input);
-			if (opponent.isFainted() || state != STATE.READY_TO_PROGRESS) {
-				return;
-			}
-			playTurn(BATTLE_PARTY.OPPONENT, 0);
-		} else {
-			playTurn(BATTLE_PARTY.OPPONENT, 0);
-			if (player.isFainted() || state != STATE.READY_TO_PROGRESS) {
-				return;
-			}
-			playTurn(BATTLE_PARTY.PLAYER, input);
-		}
-		/*
-		 * XXX: Status effects go here.
-		 */
+		outcome.clear();
+		rules.playRound(state, input, brain.getMove(state), outcome);
+		present(outcome);
 	}
 
 	/**
@@ -182,7 +185,7 @@ public class Battle implements BattleEventQueuer {
 	 * @param pokemon Pokemon the trainer is sending in
 	 */
 	public void chooseNewPokemon(Pokemon pokemon) {
-		this.player = pokemon;
+		state.setPlayer(pokemon);
 		queueEvent(new HPAnimationEvent(
 				BATTLE_PARTY.PLAYER,
 				pokemon.getCurrentHitpoints(),
@@ -193,15 +196,16 @@ public class Battle implements BattleEventQueuer {
 		queueEvent(new NameChangeEvent(pokemon.getName(), BATTLE_PARTY.PLAYER));
 		queueEvent(new TextEvent("Go get 'em, " + pokemon.getName() + "!"));
 		queueEvent(new AnimationBattleEvent(BATTLE_PARTY.PLAYER, new PokeballAnimation()));
-		this.state = STATE.READY_TO_PROGRESS;
+		state.setState(STATE.READY_TO_PROGRESS);
 	}
 
 	/**
 	 * Attempts to run away
 	 */
 	public void attemptRun() {
+		brain.cancel();
 		queueEvent(new TextEvent("Got away safely!", 3f)); // Auto-dismiss after 3 seconds
-		this.state = STATE.RAN;
+		state.setState(STATE.RAN);
 	}
 
 	/**
@@ -210,13 +214,7 @@ public class Battle implements BattleEventQueuer {
 	 */
 	public void useItemTurn() {
 		// Opponent gets a turn after player uses an item
-		playTurn(BATTLE_PARTY.OPPONENT, 0);
-
-		// Reset to player's turn if battle continues
-		if (this.state != STATE.WIN && this.state != STATE.LOSE &&
-				this.state != STATE.SELECT_NEW_POKEMON && this.state != STATE.CAUGHT) {
-			this.state = STATE.READY_TO_PROGRESS;
-		}
+		opponentTurn();
 	}
 
 	/**
@@ -226,6 +224,8 @@ public class Battle implements BattleEventQueuer {
 	 * @return true if catch was successful
 	 */
 	public boolean attemptCatch(float catchRate) {
+		Pokemon opponent = state.getOpponent();
+
 		// Calculate catch rate based on HP
 		float hpRatio = (float) opponent.getCurrentHitpoints() /
 				opponent.getStat(STAT.HITPOINTS);
@@ -240,7 +240,7 @@ public class Battle implements BattleEventQueuer {
 		boolean caught = true;
 
 		for (int i = 0; i < 3; i++) {
-			float roll = (float) Math.random();
+			float roll = random.nextFloat();
 			if (roll < finalCatchRate) {
 				shakeCount++;
 			} else {
@@ -256,7 +256,8 @@ public class Battle implements BattleEventQueuer {
 
 		if (caught) {
 			queueEvent(new TextEvent("Gotcha! " + opponent.getName() + " was caught!", 3f));
-			this.state = STATE.CAUGHT;
+			state.setState(STATE.CAUGHT);
+			brain.cancel();
 		} else {
 			// Wiggle-based failure messages
 			String failMessage;
@@ -276,13 +277,7 @@ public class Battle implements BattleEventQueuer {
 			}
 			queueEvent(new TextEvent(failMessage, 1.5f));
 			// Opponent gets a turn after failed catch
-			playTurn(BATTLE_PARTY.OPPONENT, 0);
-
-			// Ensure state is READY_TO_PROGRESS if battle continues
-			if (this.state != STATE.WIN && this.state != STATE.LOSE &&
-					this.state != STATE.SELECT_NEW_POKEMON && this.state != STATE.CAUGHT) {
-				this.state = STATE.READY_TO_PROGRESS;
-			}
+			opponentTurn();
 		}
 
 		return caught;
@@ -292,117 +287,162 @@ public class Battle implements BattleEventQueuer {
 	 * Get the caught Pokemon (only valid if state is CAUGHT)
 	 */
 	public Pokemon getCaughtPokemon() {
-		if (state == STATE.CAUGHT) {
-			return opponent;
+		if (state.getState() == STATE.CAUGHT) {
+			return state.getOpponent();
 		}
 		return null;
 	}
 
-	private void playTurn(BATTLE_PARTY user, int input) {
-		BATTLE_PARTY target = BATTLE_PARTY.getOpposite(user);
-
-		Pokemon pokeUser = null;
-		Pokemon pokeTarget = null;
-		if (user == BATTLE_PARTY.PLAYER) {
-			pokeUser = player;
-			pokeTarget = opponent;
-		} else if (user == BATTLE_PARTY.OPPONENT) {
-			pokeUser = opponent;
-			pokeTarget = player;
+	/* the opponent acts alone, then it is the player's turn again if the battle goes on */
+	private void opponentTurn() {
+		outcome.clear();
+		rules.playTurn(state, BATTLE_PARTY.OPPONENT, brain.getMove(state), outcome);
+		present(outcome);
+		if (state.getState() != STATE.WIN && state.getState() != STATE.LOSE &&
+				state.getState() != STATE.SELECT_NEW_POKEMON && state.getState() != STATE.CAUGHT) {
+			state.setState(STATE.READY_TO_PROGRESS);
+		}
+	}
+
+	/**
+	 * Queues the events that show what the rules did.
+	 */
+	private void present(BattleOutcome outcome) {
+		Move move = null;
+		for (int i = 0; i < outcome.size(); i++) {
+			BATTLE_PARTY party = outcome.getParty(i);
+			Pokemon pokemon = state.getPokemon(party);
+			switch (outcome.getKind(i)) {
+				case BattleOutcome.MOVE:
+					move = pokemon.getMove(outcome.getA(i));
+					/* Broadcast the text graphics */
+					queueEvent(new TextEvent(pokemon.getName() + " used\n" + move.getName().toUpperCase() + "!", 0.5f));
+					break;
+				case BattleOutcome.MISS:
+					/* Broadcast the text graphics */
+					queueEvent(new TextEvent(pokemon.getName() + "'s\nattack missed!", 0.5f));
+					break;
+				case BattleOutcome.DAMAGE:
+					presentDamage(outcome, i, move, party, pokemon);
+					break;
+				case BattleOutcome.FAINT:
+					if (party == BATTLE_PARTY.PLAYER) {
+						presentPlayerFainted(pokemon);
+					} else {
+						presentOpponentFainted(pokemon);
+					}
+					break;
+			}
 		}
+	}
 
-		Move move = pokeUser.getMove(input);
+	private void presentDamage(BattleOutcome outcome, int i, Move move, BATTLE_PARTY target, Pokemon pokeTarget) {
+		BATTLE_PARTY user = BATTLE_PARTY.getOpposite(target);
 
-		/* Broadcast the text graphics */
-		queueEvent(new TextEvent(pokeUser.getName() + " used\n" + move.getName().toUpperCase() + "!", 0.5f));
+		/* Broadcast animations */
+		queueEvent(new AnimationBattleEvent(user, move.animation()));
 
-		if (mechanics.attemptHit(move, pokeUser, pokeTarget)) {
-			move.useMove(mechanics, pokeUser, pokeTarget, user, this);
-		} else { // miss
-			/* Broadcast the text graphics */
-			queueEvent(new TextEvent(pokeUser.getName() + "'s\nattack missed!", 0.5f));
+		/* Broadcast damage flash on target */
+		queueEvent(new AnimationBattleEvent(target, new DamageFlashAnimation()));
+
+		/* Broadcast HP change */
+		queueEvent(new HPAnimationEvent(target, outcome.getA(i), outcome.getB(i), pokeTarget.getStat(STAT.HITPOINTS),
+				0.5f));
+
+		int flags = outcome.getC(i);
+		String message = "";
+		if ((flags & BattleOutcome.DAMAGE_CRITICAL) != 0) {
+			message = "A critical hit!";
+		}
+		String effect = null;
+		if ((flags & BattleOutcome.DAMAGE_SUPER_EFFECTIVE) != 0) {
+			effect = "It's super effective!";
+		} else if ((flags & BattleOutcome.DAMAGE_NOT_VERY_EFFECTIVE) != 0) {
+			effect = "It's not very effective...";
+		} else if ((flags & BattleOutcome.DAMAGE_NO_EFFECT) != 0) {
+			effect = "It doesn't affect " + pokeTarget.getName() + "...";
 		}
+		if (effect != null) {
+			message = message.isEmpty() ? effect : message + " " + effect;
+		}
+		if (!message.isEmpty()) {
+			queueEvent(new TextEvent(message, 0.5f));
+		}
+	}
 
-		if (player.isFainted()) {
-			queueEvent(new AnimationBattleEvent(BATTLE_PARTY.PLAYER, new FaintingAnimation()));
-			boolean anyoneAlive = false;
-			for (int i = 0; i < getPlayerTrainer().getTeamSize(); i++) {
-				if (!getPlayerTrainer().getPokemon(i).isFainted()) {
-					anyoneAlive = true;
-					break;
-				}
-			}
-			if (anyoneAlive) {
-				queueEvent(new TextEvent(player.getName() + " fainted!", true));
-				this.state = STATE.SELECT_NEW_POKEMON;
-			} else {
-				queueEvent(new TextEvent("You blacked out!", 3f)); // Auto-dismiss after 3 seconds
-				this.state = STATE.LOSE;
-			}
-		} else if (opponent.isFainted()) {
-			queueEvent(new AnimationBattleEvent(BATTLE_PARTY.OPPONENT, new FaintingAnimation()));
-
-			// Grant EXP to player Pokemon
-			int oldLevel = player.getLevel();
-			int expBefore = player.getCurrentExp();
-			int expGain = Pokemon.calculateExpGain(opponent);
-			boolean leveledUp = player.gainExp(expGain);
-			int newLevel = player.getLevel();
-			int expAfter = player.getCurrentExp();
-			int expToNext = player.getExpToNextLevel();
-
-			queueEvent(new TextEvent(player.getName() + " gained " + expGain + " EXP!", 1.5f));
-			// Animate EXP bar fill
-			queueEvent(new EXPAnimationEvent(expBefore, expAfter, expToNext, player.getLevel(), 0.5f));
-
-			if (leveledUp) {
-				queueEvent(new TextEvent(player.getName() + " grew to Lv" + player.getLevel() + "!", 1.5f));
-
-				// Check for learnable moves at each level gained
-				for (int lvl = oldLevel + 1; lvl <= newLevel; lvl++) {
-					List<String> learnableMoves = player.getLearnableMovesAtLevel(lvl);
-					for (String moveName : learnableMoves) {
-						queueEvent(new TextEvent(player.getName() + " wants to learn " + moveName + "!", 2f));
-
-						if (player.hasEmptyMoveSlot()) {
-							// Learn immediately if there's an empty slot
-							Move newMove = moveDatabase.getMove(moveName);
-							if (newMove != null) {
-								player.learnMove(newMove);
-							}
-							queueEvent(new TextEvent(player.getName() + " learned " + moveName + "!", 2f));
-						} else {
-							// All 4 slots full - show move replacement UI
-							queueEvent(new TextEvent("But " + player.getName() + " already knows 4 moves!", 2f));
-							queueEvent(new LearnMoveEvent(player, moveName, moveDatabase));
+	private void presentPlayerFainted(Pokemon player) {
+		queueEvent(new AnimationBattleEvent(BATTLE_PARTY.PLAYER, new FaintingAnimation()));
+		if (state.getState() == STATE.SELECT_NEW_POKEMON) {
+			queueEvent(new TextEvent(player.getName() + " fainted!", true));
+		} else {
+			queueEvent(new TextEvent("You blacked out!", 3f)); // Auto-dismiss after 3 seconds
+		}
+	}
+
+	/* also grants the EXP, the rules leave that to the game */
+	private void presentOpponentFainted(Pokemon opponent) {
+		Pokemon player = state.getPlayer();
+		queueEvent(new AnimationBattleEvent(BATTLE_PARTY.OPPONENT, new FaintingAnimation()));
+
+		// Grant EXP to player Pokemon
+		int oldLevel = player.getLevel();
+		int expBefore = player.getCurrentExp();
+		int expGain = Pokemon.calculateExpGain(opponent);
+		boolean leveledUp = player.gainExp(expGain);
+		int newLevel = player.getLevel();
+		int expAfter = player.getCurrentExp();
+		int expToNext = player.getExpToNextLevel();
+
+		queueEvent(new TextEvent(player.getName() + " gained " + expGain + " EXP!", 1.5f));
+		// Animate EXP bar fill
+		queueEvent(new EXPAnimationEvent(expBefore, expAfter, expToNext, player.getLevel(), 0.5f));
+
+		if (leveledUp) {
+			queueEvent(new TextEvent(player.getName() + " grew to Lv" + player.getLevel() + "!", 1.5f));
+
+			// Check for learnable moves at each level gained
+			for (int lvl = oldLevel + 1; lvl <= newLevel; lvl++) {
+				List<String> learnableMoves = player.getLearnableMovesAtLevel(lvl);
+				for (String moveName : learnableMoves) {
+					queueEvent(new TextEvent(player.getName() + " wants to learn " + moveName + "!", 2f));
+
+					if (player.hasEmptyMoveSlot()) {
+						// Learn immediately if there's an empty slot
+						Move newMove = moveDatabase.getMove(moveName);
+						if (newMove != null) {
+							player.learnMove(newMove);
 						}
+						queueEvent(new TextEvent(player.getName() + " learned " + moveName + "!", 2f));
+					} else {
+						// All 4 slots full - show move replacement UI
+						queueEvent(new TextEvent("But " + player.getName() + " already knows 4 moves!", 2f));
+						queueEvent(new LearnMoveEvent(player, moveName, moveDatabase));
 					}
 				}
 			}
-
-			queueEvent(new TextEvent("Congratulations! You Win!", 3f)); // Auto-dismiss after 3 seconds
-			this.state = STATE.WIN;
 		}
+
+		queueEvent(new TextEvent("Congratulations! You Win!", 3f)); // Auto-dismiss after 3 seconds
 	}
 
 	public Pokemon getPlayerPokemon() {
-		return player;
+		return state.getPlayer();
 	}
 
 	public Pokemon getOpponentPokemon() {
-		return opponent;
+		return state.getOpponent();
 	}
 
 	public Trainer getPlayerTrainer() {
-		return playerTrainer;
+		return state.getPlayerTrainer();
 	}
 
 	public Trainer getOpponentTrainer() {
-		return opponentTrainer;
+		return state.getOpponentTrainer();
 	}
 
 	public STATE getState() {
-		return state;
+		return state.getState();
 	}
 
 	public void setEventPlayer(BattleEventPlayer player) {
@@ -1,23 +1,41 @@
 package com.github.adisann.pokemon.battle;
 
-import com.badlogic.gdx.math.MathUtils;
 import com.github.adisann.pokemon.battle.moves.MOVE_CATEGORY;
-import com.github.adisann.pokemon.battle.moves.Move;
+import com.github.adisann.pokemon.battle.moves.MoveSpecification;
 import com.github.adisann.pokemon.model.Pokemon;
 import com.github.adisann.pokemon.model.Type;
+import com.github.adisann.pokemon.util.RandomStream;
 
 /**
  * Contains methods useful for calculations during battle.
- * 
+ *
  * Some say this is a ShoddyBattle tactic, and they're probably right.
+ *
+ * Draws its chances from the RandomStream it is made with, so the same stream and the same
+ * moves give the same battle. Give every battle a stream of its own.
  */
 public class BattleMechanics {
 
-	private String message = "";
+	/** Chance of any move to be a critical hit */
+	public static final float CRITICAL_CHANCE = 1f / 16f;
 
-	private boolean criticalHit(Move move, Pokemon user, Pokemon target) {
-		float probability = 1f / 16f;
-		if (probability >= MathUtils.random(1.0f)) {
+	/** Lowest and highest random factor of the damage */
+	public static final float MIN_DAMAGE_ROLL = 0.85f;
+	public static final float MAX_DAMAGE_ROLL = 1.00f;
+
+	private RandomStream random;
+
+	/* how the last damage came about, for the messages */
+	private boolean critical;
+	private float effectiveness = 1f;
+
+	public BattleMechanics(RandomStream random) {
+		this.random = random;
+	}
+
+	private boolean criticalHit(MoveSpecification move, Pokemon user, Pokemon target) {
+		float probability = CRITICAL_CHANCE;
+		if (probability >= random.nextFloat()) {
 			return true;
 		} else {
 			return false;
@@ -33,77 +51,70 @@ public class BattleMechanics {
 		} else if (opponent.getStat(STAT.SPEED) > player.getStat(STAT.SPEED)) {
 			return false;
 		} else {
-			return MathUtils.randomBoolean();
+			return random.nextBoolean();
 		}
 	}
 
-	public boolean attemptHit(Move move, Pokemon user, Pokemon target) {
-		float random = MathUtils.random(1.0f);
-		if (move.getAccuracy() >= random) {
+	public boolean attemptHit(MoveSpecification move, Pokemon user, Pokemon target) {
+		if (move.accuracy() >= random.nextFloat()) {
 			return true;
 		} else {
 			return false;
 		}
 	}
 
+	/**
+	 * Rolls for a critical hit and the random factor, then calculates the damage.
+	 * See #wasCritical() and #getEffectiveness() for how it came about.
+	 */
+	public int calculateDamage(MoveSpecification move, Pokemon user, Pokemon target, boolean isPlayer) {
+		boolean isCritical = criticalHit(move, user, target);
+		float roll = random.nextFloat(MIN_DAMAGE_ROLL, MAX_DAMAGE_ROLL);
+		return calculateDamage(move, user, target, isPlayer, isCritical, roll);
+	}
+
 	/**
 	 * Formula found here
 	 * {@link http://bulbapedia.bulbagarden.net/wiki/Damage#Damage_formula}
+	 *
+	 * Leaves nothing to chance, the outcome of the rolls is given.
+	 *
+	 * @param roll	Random factor, between MIN_DAMAGE_ROLL and MAX_DAMAGE_ROLL
 	 */
-	public int calculateDamage(Move move, Pokemon user, Pokemon target, boolean isPlayer) {
-		message = "";
+	public int calculateDamage(MoveSpecification move, Pokemon user, Pokemon target, boolean isPlayer,
+			boolean isCritical, float roll) {
+		critical = isCritical;
 
 		float attack = 0f;
-		if (move.getCategory() == MOVE_CATEGORY.PHYSICAL) {
+		if (move.category() == MOVE_CATEGORY.PHYSICAL) {
 			attack = user.getStat(STAT.ATTACK);
 		} else {
 			attack = user.getStat(STAT.SPECIAL_ATTACK);
 		}
 
 		float defence = 0f;
-		if (move.getCategory() == MOVE_CATEGORY.PHYSICAL) {
+		if (move.category() == MOVE_CATEGORY.PHYSICAL) {
 			defence = target.getStat(STAT.DEFENCE);
 		} else {
 			defence = target.getStat(STAT.SPECIAL_DEFENCE);
 		}
 
-		boolean isCritical = criticalHit(move, user, target);
-
 		int level = user.getLevel();
-		float base = move.getPower();
-		float modifier = MathUtils.random(0.85f, 1.00f);
+		float base = move.power();
+		float modifier = roll;
 
 		// Apply critical hit
 		if (isCritical) {
 			modifier = modifier * 2f;
-			message = "A critical hit!";
 		}
 
 		// Apply type effectiveness
-		float typeMultiplier = 1f;
-		if (move.getType() != null && target.getTypes() != null) {
-			for (Type targetType : target.getTypes()) {
-				typeMultiplier *= Type.getEffectiveness(move.getType(), targetType);
-			}
-		}
-
-		// Add effectiveness message
-		if (typeMultiplier >= 2f) {
-			if (!message.isEmpty())
-				message += " ";
-			message += "It's super effective!";
-		} else if (typeMultiplier > 0f && typeMultiplier < 1f) {
-			if (!message.isEmpty())
-				message += " ";
-			message += "It's not very effective...";
-		} else if (typeMultiplier == 0f) {
-			if (!message.isEmpty())
-				message += " ";
-			message += "It doesn't affect " + target.getName() + "...";
+		effectiveness = getEffectiveness(move.type(), target);
+		if (effectiveness == 0f) {
 			return 0;
 		}
 
-		modifier *= typeMultiplier;
+		modifier *= effectiveness;
 
 		int damage = (int) (((2f * level + 10f) / 250f * (float) attack / defence * base + 2) * modifier);
 
@@ -114,11 +125,30 @@ public class BattleMechanics {
 		return damage;
 	}
 
-	public boolean hasMessage() {
-		return !message.isEmpty();
+	/**
+	 * @return	How well a move of the type works against the target, 0 if it has no effect
+	 */
+	public static float getEffectiveness(Type moveType, Pokemon target) {
+		float typeMultiplier = 1f;
+		if (moveType != null && target.getTypes() != null) {
+			for (int i = 0; i < target.getTypes().size(); i++) {
+				typeMultiplier *= Type.getEffectiveness(moveType, target.getTypes().get(i));
+			}
+		}
+		return typeMultiplier;
 	}
 
-	public String getMessage() {
-		return message;
+	/**
+	 * @return	If the last calculated damage was a critical hit
+	 */
+	public boolean wasCritical() {
+		return critical;
+	}
+
+	/**
+	 * @return	Type effectiveness of the last calculated damage
+	 */
+	public float getEffectiveness() {
+		return effectiveness;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package com.github.adisann.pokemon.battle;
+
+import java.util.Arrays;
+
+/**
+ * What happened in a battle, as compact records the BattleRules append to.
+ *
+ * A record is a kind, the party it happened to, and up to three numbers whose meaning
+ * depends on the kind. Records are kept in reused arrays, so once they have grown, playing
+ * turns allocates nothing. Battle turns them into BattleEvents to be shown.
+ * */
+public class BattleOutcome {
+
+	/** The party used a move, a is the index of the move */
+	public static final int MOVE = 0;
+	/** The move of the party missed */
+	public static final int MISS = 1;
+	/** The party took damage, a is the HP before, b the HP after, c the DAMAGE_ flags */
+	public static final int DAMAGE = 2;
+	/** The active Pokemon of the party fainted */
+	public static final int FAINT = 3;
+
+	public static final int DAMAGE_CRITICAL = 1;
+	public static final int DAMAGE_SUPER_EFFECTIVE = 2;
+	public static final int DAMAGE_NOT_VERY_EFFECTIVE = 4;
+	public static final int DAMAGE_NO_EFFECT = 8;
+
+	private int size = 0;
+	private int[] kinds = new int[16];
+	private BATTLE_PARTY[] parties = new BATTLE_PARTY[16];
+	private int[] a = new int[16], b = new int[16], c = new int[16];
+
+	public void add(int kind, BATTLE_PARTY party) {
+		add(kind, party, 0, 0, 0);
+	}
+
+	public void add(int kind, BATTLE_PARTY party, int a, int b, int c) {
+		if (size == kinds.length) {
+			int capacity = size * 2;
+			kinds = Arrays.copyOf(kinds, capacity);
+			parties = Arrays.copyOf(parties, capacity);
+			this.a = Arrays.copyOf(this.a, capacity);
+			this.b = Arrays.copyOf(this.b, capacity);
+			this.c = Arrays.copyOf(this.c, capacity);
+		}
+		kinds[size] = kind;
+		parties[size] = party;
+		this.a[size] = a;
+		this.b[size] = b;
+		this.c[size] = c;
+		size++;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getKind(int i) {
+		return kinds[i];
+	}
+
+	public BATTLE_PARTY getParty(int i) {
+		return parties[i];
+	}
+
+	public int getA(int i) {
+		return a[i];
+	}
+
+	public int getB(int i) {
+		return b[i];
+	}
+
+	public int getC(int i) {
+		return c[i];
+	}
+}
@@ -0,0 +1,113 @@
+package com.github.adisann.pokemon.battle;
+
+import com.github.adisann.pokemon.battle.Battle.STATE;
+import com.github.adisann.pokemon.battle.moves.MoveSpecification;
+import com.github.adisann.pokemon.model.Pokemon;
+
+/**
+ * The rules of a battle, without anything to show it.
+ *
+ * Plays turns on a BattleState and writes what happened to a BattleOutcome, so battles can
+ * run without a screen, for AI, balancing or tests. Nothing is allocated while playing.
+ * Battle shows the outcome in a BattleScreen.
+ * */
+public class BattleRules {
+
+	private BattleMechanics mechanics;
+	private boolean playerBonus;
+
+	/**
+	 * Rules as in the game, the player's Pokemon deal double damage.
+	 */
+	public BattleRules(BattleMechanics mechanics) {
+		this(mechanics, true);
+	}
+
+	/**
+	 * @param playerBonus	If the player's Pokemon deal double damage as in the game, false to
+	 * 						treat both sides the same
+	 */
+	public BattleRules(BattleMechanics mechanics, boolean playerBonus) {
+		this.mechanics = mechanics;
+		this.playerBonus = playerBonus;
+	}
+
+	/**
+	 * Both Pokemon use a move, the faster one first. Does nothing unless the battle is
+	 * ready to progress.
+	 *
+	 * @param playerMove	Index of the move used by the player
+	 * @param opponentMove	Index of the move used by the opponent
+	 * @param out			Records of what happened are added here
+	 */
+	public void playRound(BattleState state, int playerMove, int opponentMove, BattleOutcome out) {
+		if (state.getState() != STATE.READY_TO_PROGRESS) {
+			return;
+		}
+		if (mechanics.goesFirst(state.getPlayer(), state.getOpponent())) {
+			playTurn(state, BATTLE_PARTY.PLAYER, playerMove, out);
+			if (state.getOpponent().isFainted() || state.getState() != STATE.READY_TO_PROGRESS) {
+				return;
+			}
+			playTurn(state, BATTLE_PARTY.OPPONENT, opponentMove, out);
+		} else {
+			playTurn(state, BATTLE_PARTY.OPPONENT, opponentMove, out);
+			if (state.getPlayer().isFainted() || state.getState() != STATE.READY_TO_PROGRESS) {
+				return;
+			}
+			playTurn(state, BATTLE_PARTY.PLAYER, playerMove, out);
+		}
+		/*
+		 * XXX: Status effects go here.
+		 */
+	}
+
+	/**
+	 * One party uses a move, and the battle ends or waits for a new Pokemon if one faints.
+	 */
+	public void playTurn(BattleState state, BATTLE_PARTY user, int move, BattleOutcome out) {
+		BATTLE_PARTY target = BATTLE_PARTY.getOpposite(user);
+		Pokemon pokeUser = state.getPokemon(user);
+		Pokemon pokeTarget = state.getPokemon(target);
+		MoveSpecification spec = pokeUser.getMoveSpecification(move);
+
+		out.add(BattleOutcome.MOVE, user, move, 0, 0);
+
+		if (mechanics.attemptHit(spec, pokeUser, pokeTarget)) {
+			int hpBefore = pokeTarget.getCurrentHitpoints();
+			int damage = mechanics.calculateDamage(spec, pokeUser, pokeTarget, playerBonus && user == BATTLE_PARTY.PLAYER);
+			pokeTarget.applyDamage(damage);
+			out.add(BattleOutcome.DAMAGE, target, hpBefore, pokeTarget.getCurrentHitpoints(), damageFlags());
+		} else { // miss
+			out.add(BattleOutcome.MISS, user);
+		}
+
+		if (state.getPlayer().isFainted()) {
+			out.add(BattleOutcome.FAINT, BATTLE_PARTY.PLAYER);
+			state.setState(state.playerCanContinue() ? STATE.SELECT_NEW_POKEMON : STATE.LOSE);
+		} else if (state.getOpponent().isFainted()) {
+			out.add(BattleOutcome.FAINT, BATTLE_PARTY.OPPONENT);
+			state.setState(STATE.WIN);
+		}
+	}
+
+	private int damageFlags() {
+		int flags = 0;
+		if (mechanics.wasCritical()) {
+			flags |= BattleOutcome.DAMAGE_CRITICAL;
+		}
+		float effectiveness = mechanics.getEffectiveness();
+		if (effectiveness >= 2f) {
+			flags |= BattleOutcome.DAMAGE_SUPER_EFFECTIVE;
+		} else if (effectiveness > 0f && effectiveness < 1f) {
+			flags |= BattleOutcome.DAMAGE_NOT_VERY_EFFECTIVE;
+		} else if (effectiveness == 0f) {
+			flags |= BattleOutcome.DAMAGE_NO_EFFECT;
+		}
+		return flags;
+	}
+
+	public BattleMechanics getMechanics() {
+		return mechanics;
+	}
+}
@@ -0,0 +1,80 @@
+package com.github.adisann.pokemon.battle;
+
+import com.github.adisann.pokemon.battle.Battle.STATE;
+import com.github.adisann.pokemon.model.Pokemon;
+
+/**
+ * Everything the BattleRules read and change about one battle: the trainers, the Pokemon
+ * that are out, and how the battle stands.
+ * */
+public class BattleState {
+
+	private Trainer playerTrainer;
+	private Trainer opponentTrainer; // null in wild battles
+
+	private Pokemon player;
+	private Pokemon opponent;
+
+	private STATE state = STATE.READY_TO_PROGRESS;
+
+	/**
+	 * @param opponentTrainer	Null for a wild Pokemon
+	 */
+	public BattleState(Trainer playerTrainer, Pokemon player, Trainer opponentTrainer, Pokemon opponent) {
+		this.playerTrainer = playerTrainer;
+		this.player = player;
+		this.opponentTrainer = opponentTrainer;
+		this.opponent = opponent;
+	}
+
+	public Pokemon getPokemon(BATTLE_PARTY party) {
+		return party == BATTLE_PARTY.PLAYER ? player : opponent;
+	}
+
+	/**
+	 * @return	If the player has a Pokemon left that did not faint
+	 */
+	public boolean playerCanContinue() {
+		for (int i = 0; i < playerTrainer.getTeamSize(); i++) {
+			if (!playerTrainer.getPokemon(i).isFainted()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public Pokemon getPlayer() {
+		return player;
+	}
+
+	public void setPlayer(Pokemon player) {
+		this.player = player;
+	}
+
+	public Pokemon getOpponent() {
+		return opponent;
+	}
+
+	public Trainer getPlayerTrainer() {
+		return playerTrainer;
+	}
+
+	public Trainer getOpponentTrainer() {
+		return opponentTrainer;
+	}
+
+	public STATE getState() {
+		return state;
+	}
+
+	public void setState(STATE state) {
+		this.state = state;
+	}
+
+	/**
+	 * @return	If the battle ended
+	 */
+	public boolean isOver() {
+		return state == STATE.WIN || state == STATE.LOSE || state == STATE.RAN || state == STATE.CAUGHT;
+	}
+}
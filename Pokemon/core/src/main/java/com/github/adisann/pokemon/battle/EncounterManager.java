@@ -1,10 +1,10 @@
 package com.github.adisann.pokemon.battle;
 
-import com.badlogic.gdx.math.MathUtils;
 import com.github.adisann.pokemon.battle.moves.MoveDatabase;
 import com.github.adisann.pokemon.model.Pokemon;
 import com.github.adisann.pokemon.model.Tile;
 import com.github.adisann.pokemon.model.world.World;
+import com.github.adisann.pokemon.util.RandomStream;
 
 public class EncounterManager {
 
@@ -38,9 +38,10 @@ public class EncounterManager {
             return null;
         }
 
-        // 10% chance
-        if (MathUtils.randomBoolean(0.1f)) {
-            int roll = MathUtils.random(4); // 0-4 for 5 Pokemon
+        // 10% chance, drawn from the world so every world plays out the same for the same seed
+        RandomStream random = world.getRandom();
+        if (random.nextBoolean(0.1f)) {
+            int roll = random.nextInt(5); // 0-4 for 5 Pokemon
             switch (roll) {
                 case 0:
                     return Pokemon.generatePokemon("Bulbasaur", "graphics/pokemon/bulbasaur.png", moveDatabase);
@@ -1,20 +1,106 @@
 package com.github.adisann.pokemon.battle.ai;
 
-import com.github.adisann.pokemon.model.Pokemon;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import com.github.adisann.pokemon.battle.BattleMechanics;
+import com.github.adisann.pokemon.battle.BattleState;
 
 /**
- * AI for a trainer. This should have access to more than just the two Pokemon in the battle.
+ * AI for the opponent in a battle, picks its moves with a MoveSearch.
+ *
+ * Thinks on a thread of its own while the player chooses: plan() takes what it needs from
+ * the battle and starts searching, getMove() waits for the search to reach its depth or its
+ * budget of positions, and takes the best move of the rounds it finished. The search is
+ * usually done before the player is. A plan made before the battle changed, like the player
+ * healing, is dropped and one round is searched for the battle as it is instead.
+ *
+ * How long the player takes never changes the move, the search is only cut short by its
+ * budget, which counts positions. A plan that is dropped is stopped midway, so the
+ * transposition table is cleared after it, and the moves stay the same for the same seed.
+ *
+ * Only the two Pokemon out are looked at, not switching or the rest of the teams.
  * */
 public class Brain {
-	
+
+	/** The transposition table of a battle holds 2^TABLE_BITS states */
+	public static final int TABLE_BITS = 16;
+
+	/* shared by all brains, only one battle is thought about at a time */
+	private static final AsyncExecutor executor = new AsyncExecutor(1, "brain");
+
+	private BattleMechanics mechanics;
+	private int depth;
+	private long budget;
+
+	/* only used by one search at a time */
+	private TranspositionTable table = new TranspositionTable(TABLE_BITS);
+
+	private MoveSearch search;
+	private AsyncResult<Integer> running;
+
+	/**
+	 * @param mechanics	Mechanics of the battle, to work out the damage of moves
+	 * @param depth		Rounds to look ahead, the difficulty
+	 * @param budget		Most positions to look at per turn, 0 for no limit but the depth
+	 */
+	public Brain(BattleMechanics mechanics, int depth, long budget) {
+		this.mechanics = mechanics;
+		this.depth = Math.max(1, depth);
+		this.budget = budget;
+	}
+
+	/**
+	 * Starts choosing the opponent's move for the next turn, in the background.
+	 * Call on the thread of the battle, before the player's move is played.
+	 */
+	public void plan(BattleState state) {
+		cancel();
+		final MoveSearch search = new MoveSearch(mechanics, state, table);
+		this.search = search;
+		running = executor.submit(new AsyncTask<Integer>() {
+			@Override
+			public Integer call() throws Exception {
+				return search.run(depth, budget);
+			}
+		});
+	}
+
+	/**
+	 * Takes the planned move, waiting for the search to finish. Without a plan, or with one
+	 * made before the state changed, it looks one round ahead on the calling thread.
+	 *
+	 * @return	Index of the move for the opponent to use
+	 */
+	public int getMove(BattleState state) {
+		if (running != null && !search.isFor(state)) {
+			cancel();
+		}
+		if (running == null) {
+			return new MoveSearch(mechanics, state, table).run(1, 0);
+		}
+		try {
+			return running.get();
+		} finally {
+			running = null;
+			search = null;
+		}
+	}
+
 	/**
-	 * The owner of this brain.
+	 * Drops the plan, if any.
 	 */
-	private Pokemon pokemon;
-	
-	public Brain(Pokemon owner) {
-		// no way
-		// this should be trainer
-		// or an encapsulation of both trainer and pokemon
+	public void cancel() {
+		if (running == null) {
+			return;
+		}
+		search.stop();
+		try {
+			running.get();
+		} finally {
+			running = null;
+			search = null;
+			table.clear(); // what the search stored depends on when it stopped
+		}
 	}
-}
\ No newline at end of file
+}
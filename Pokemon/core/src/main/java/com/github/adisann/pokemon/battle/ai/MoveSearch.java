@@ -0,0 +1,267 @@
+package com.github.adisann.pokemon.battle.ai;
+
+import com.github.adisann.pokemon.battle.BattleMechanics;
+import com.github.adisann.pokemon.battle.BattleState;
+import com.github.adisann.pokemon.battle.STAT;
+import com.github.adisann.pokemon.battle.Trainer;
+import com.github.adisann.pokemon.battle.moves.MoveSpecification;
+import com.github.adisann.pokemon.model.Pokemon;
+
+/**
+ * Expectimax over the rounds of a battle between the two Pokemon out, for the Brain.
+ *
+ * The opponent takes the move with the best value against the player's best answer, and
+ * every move's damage is averaged over hitting or missing, critical hits and the damage roll.
+ * All damage is worked out when the search is made, on the thread of the battle, so the
+ * search itself only works on PackedBattleStates and can run on any thread. Nothing is
+ * allocated while searching. Values of states are kept in a TranspositionTable by their
+ * Zobrist hash, as the same HP are reached by many orders of moves.
+ * */
+class MoveSearch {
+
+	/** Random damage factors tried, spread evenly from the lowest to the highest */
+	static final int DAMAGE_ROLLS = 4;
+
+	private static final int PLAYER = 0;
+	private static final int OPPONENT = 1;
+
+	/* nodes between looks at stop() and the budget */
+	private static final int CHECK_INTERVAL = 1024;
+
+	/* slot in the Pokemon's moves, by side and move */
+	private int[][] slots = new int[2][];
+	/* distinct damage a move can do, and the chance of each, by side, move and outcome */
+	private int[][][] damage = new int[2][][];
+	private float[][][] chance = new float[2][][];
+
+	private int[] maxHp = new int[2];
+	private long player, opponent;
+
+	private TranspositionTable table;
+
+	/* chance the player moves first */
+	private float playerFirst;
+
+	private long maxNodes;
+	private volatile boolean stopped;
+	private boolean aborted;
+	private long nodes;
+
+	private int rootDepth;
+	private int choice;
+
+	/**
+	 * Takes what the search needs from the two Pokemon out. Call on the thread of the battle.
+	 *
+	 * @param table	Kept between the searches of a battle, states of the same two Pokemon
+	 * 				keep their values
+	 */
+	MoveSearch(BattleMechanics mechanics, BattleState state, TranspositionTable table) {
+		Pokemon player = state.getPlayer();
+		Pokemon opponent = state.getOpponent();
+		this.table = table;
+		prepare(PLAYER, mechanics, player, opponent);
+		prepare(OPPONENT, mechanics, opponent, player);
+		maxHp[PLAYER] = player.getStat(STAT.HITPOINTS);
+		maxHp[OPPONENT] = opponent.getStat(STAT.HITPOINTS);
+		this.player = PackedBattleState.pack(player, slot(state.getPlayerTrainer(), player));
+		this.opponent = PackedBattleState.pack(opponent, slot(state.getOpponentTrainer(), opponent));
+
+		int playerSpeed = player.getStat(STAT.SPEED);
+		int opponentSpeed = opponent.getStat(STAT.SPEED);
+		playerFirst = playerSpeed > opponentSpeed ? 1f : playerSpeed < opponentSpeed ? 0f : 0.5f;
+	}
+
+	/* wild Pokemon have no trainer, and are in slot 0 */
+	private static int slot(Trainer trainer, Pokemon pokemon) {
+		return trainer == null ? 0 : Math.max(0, trainer.getTeam().indexOf(pokemon));
+	}
+
+	private void prepare(int side, BattleMechanics mechanics, Pokemon user, Pokemon target) {
+		int count = 0;
+		for (int i = 0; i < 4; i++) {
+			if (user.getMoveSpecification(i) != null) {
+				count++;
+			}
+		}
+		slots[side] = new int[count];
+		damage[side] = new int[count][];
+		chance[side] = new float[count][];
+
+		int[] values = new int[1 + 2 * DAMAGE_ROLLS];
+		float[] chances = new float[values.length];
+		int move = 0;
+		for (int i = 0; i < 4; i++) {
+			MoveSpecification spec = user.getMoveSpecification(i);
+			if (spec == null) {
+				continue;
+			}
+			float hit = Math.max(0f, Math.min(1f, spec.accuracy()));
+			int outcomes = add(values, chances, 0, 0, 1f - hit);
+			for (int crit = 0; crit < 2; crit++) {
+				float critChance = crit == 1 ? BattleMechanics.CRITICAL_CHANCE : 1f - BattleMechanics.CRITICAL_CHANCE;
+				for (int r = 0; r < DAMAGE_ROLLS; r++) {
+					float roll = BattleMechanics.MIN_DAMAGE_ROLL
+							+ (BattleMechanics.MAX_DAMAGE_ROLL - BattleMechanics.MIN_DAMAGE_ROLL) * r / (DAMAGE_ROLLS - 1);
+					int dealt = mechanics.calculateDamage(spec, user, target, side == PLAYER, crit == 1, roll);
+					outcomes = add(values, chances, outcomes, dealt, hit * critChance / DAMAGE_ROLLS);
+				}
+			}
+			slots[side][move] = i;
+			damage[side][move] = new int[outcomes];
+			chance[side][move] = new float[outcomes];
+			System.arraycopy(values, 0, damage[side][move], 0, outcomes);
+			System.arraycopy(chances, 0, chance[side][move], 0, outcomes);
+			move++;
+		}
+	}
+
+	/* merges outcomes with the same damage, so there are fewer to search */
+	private static int add(int[] values, float[] chances, int outcomes, int value, float p) {
+		if (p <= 0f) {
+			return outcomes;
+		}
+		for (int i = 0; i < outcomes; i++) {
+			if (values[i] == value) {
+				chances[i] += p;
+				return outcomes;
+			}
+		}
+		values[outcomes] = value;
+		chances[outcomes] = p;
+		return outcomes + 1;
+	}
+
+	/**
+	 * Searches one, then more rounds ahead until the depth, the budget or stop().
+	 * One round is always searched in full. The budget counts positions, not time, so
+	 * without stop() the move only depends on the battle and what the table holds.
+	 *
+	 * @param budget	Most positions to look at, 0 for no limit
+	 * @return			Slot of the best move found, in the opponent's moves
+	 */
+	int run(int depth, long budget) {
+		if (slots[OPPONENT].length == 0) {
+			return 0;
+		}
+		maxNodes = budget > 0 ? budget : Long.MAX_VALUE;
+		int best = search(1, false);
+		for (int d = 2; d <= depth; d++) {
+			int move = search(d, true);
+			if (aborted) {
+				break;
+			}
+			best = move;
+		}
+		return slots[OPPONENT][best];
+	}
+
+	/**
+	 * @return	If the search started from the battle as it is now. Call on the thread of
+	 * 			the battle.
+	 */
+	boolean isFor(BattleState state) {
+		return player == PackedBattleState.pack(state.getPlayer(), slot(state.getPlayerTrainer(), state.getPlayer()))
+				&& opponent == PackedBattleState.pack(state.getOpponent(),
+						slot(state.getOpponentTrainer(), state.getOpponent()));
+	}
+
+	/**
+	 * Ends the search after the rounds it finished, from any thread.
+	 */
+	void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * @return	Positions looked at so far
+	 */
+	long getNodes() {
+		return nodes;
+	}
+
+	private int search(int depth, boolean abortable) {
+		rootDepth = depth;
+		aborted = false;
+		choice = 0;
+		value(player, opponent, Zobrist.hash(player, opponent), depth, abortable);
+		return choice;
+	}
+
+	/* best the opponent can get from here, with depth rounds left */
+	private float value(long player, long opponent, long hash, int depth, boolean abortable) {
+		nodes++;
+		if (abortable && nodes % CHECK_INTERVAL == 0 && (stopped || nodes > maxNodes)) {
+			aborted = true;
+		}
+		if (aborted) {
+			return 0f;
+		}
+		long key = hash ^ Zobrist.depth(depth);
+		if (depth != rootDepth && table.probe(key)) { // the root has to pick a move
+			return table.getValue(key);
+		}
+		float best = Float.NEGATIVE_INFINITY;
+		for (int o = 0; o < slots[OPPONENT].length; o++) {
+			float worst = Float.POSITIVE_INFINITY;
+			for (int p = 0; p < slots[PLAYER].length && worst > best; p++) {
+				float v = 0f;
+				if (playerFirst > 0f) {
+					v += playerFirst * strike(PLAYER, p, o, player, opponent, hash, depth, true, abortable);
+				}
+				if (playerFirst < 1f) {
+					v += (1f - playerFirst) * strike(OPPONENT, o, p, player, opponent, hash, depth, true, abortable);
+				}
+				worst = Math.min(worst, v);
+			}
+			if (worst > best) {
+				best = worst;
+				if (depth == rootDepth) {
+					choice = o;
+				}
+			}
+		}
+		if (!aborted) {
+			table.store(key, best);
+		}
+		return best;
+	}
+
+	/* side uses move, then the other side its answer if first */
+	private float strike(int side, int move, int answer, long player, long opponent, long hash, int depth,
+			boolean first, boolean abortable) {
+		int target = 1 - side;
+		int hp = PackedBattleState.getHp(target == PLAYER ? player : opponent);
+		int[] values = damage[side][move];
+		float[] chances = chance[side][move];
+		float v = 0f;
+		for (int k = 0; k < values.length; k++) {
+			int left = Math.max(0, hp - values[k]);
+			long p = player, o = opponent;
+			if (target == PLAYER) {
+				p = PackedBattleState.withHp(p, left);
+			} else {
+				o = PackedBattleState.withHp(o, left);
+			}
+			long h = hash ^ Zobrist.hp(target, hp) ^ Zobrist.hp(target, left);
+			float outcome;
+			if (left == 0) {
+				outcome = target == PLAYER ? 1f + depth : -1f - depth; // sooner is better
+			} else if (first) {
+				outcome = strike(target, answer, move, p, o, h, depth, false, abortable);
+			} else if (depth > 1) {
+				outcome = value(p, o, h, depth - 1, abortable);
+			} else {
+				outcome = evaluate(p, o);
+			}
+			v += chances[k] * outcome;
+		}
+		return v;
+	}
+
+	/* between -1 and 1, how much better the opponent stands */
+	private float evaluate(long player, long opponent) {
+		return (float) PackedBattleState.getHp(opponent) / maxHp[OPPONENT]
+				- (float) PackedBattleState.getHp(player) / maxHp[PLAYER];
+	}
+}
@@ -0,0 +1,103 @@
+package com.github.adisann.pokemon.battle.ai;
+
+import com.github.adisann.pokemon.battle.STAT;
+import com.github.adisann.pokemon.battle.moves.MoveSpecification;
+import com.github.adisann.pokemon.model.Pokemon;
+import com.github.adisann.pokemon.model.StatusCondition;
+
+/**
+ * One side of a battle packed in a long, so a search node is two longs instead of copies of
+ * Pokemon with their stat maps and moves.
+ *
+ * From the low bits: HP (12), the stages of the five stats besides HP (4 each, stored plus 6),
+ * the PP of the four moves (6 each), the status (3) and the slot in the team of the Pokemon
+ * out (3). What does not change during a battle, like the stats themselves, is not packed.
+ * */
+public final class PackedBattleState {
+
+	public static final int MAX_HP = (1 << 12) - 1;
+	public static final int MAX_PP = (1 << 6) - 1;
+
+	/** Lowest and highest stat stage */
+	public static final int MIN_STAGE = -6;
+	public static final int MAX_STAGE = 6;
+
+	static final int HP_SHIFT = 0;
+	static final int STAGE_SHIFT = 12;
+	static final int PP_SHIFT = STAGE_SHIFT + 5 * 4;
+	static final int STATUS_SHIFT = PP_SHIFT + 4 * 6;
+	static final int SLOT_SHIFT = STATUS_SHIFT + 3;
+
+	private static final StatusCondition[] STATUSES = StatusCondition.values();
+
+	private PackedBattleState() {
+	}
+
+	/**
+	 * Packs a Pokemon as it is now, stats at stage 0 and moves at full PP.
+	 *
+	 * @param slot	Where the Pokemon is in its team
+	 */
+	public static long pack(Pokemon pokemon, int slot) {
+		long side = withHp(0L, pokemon.getCurrentHitpoints());
+		for (int i = 0; i < 4; i++) {
+			MoveSpecification spec = pokemon.getMoveSpecification(i);
+			if (spec != null) {
+				side = withPp(side, i, spec.pp());
+			}
+		}
+		for (STAT stat : STAT.values()) {
+			if (stat != STAT.HITPOINTS) {
+				side = withStage(side, stat, 0);
+			}
+		}
+		side = withStatus(side, pokemon.getStatus() == null ? StatusCondition.NONE : pokemon.getStatus());
+		return side | (long) (slot & 7) << SLOT_SHIFT;
+	}
+
+	public static int getHp(long side) {
+		return (int) (side >>> HP_SHIFT) & MAX_HP;
+	}
+
+	public static long withHp(long side, int hp) {
+		return side & ~((long) MAX_HP << HP_SHIFT) | (long) Math.max(0, Math.min(hp, MAX_HP)) << HP_SHIFT;
+	}
+
+	/**
+	 * @param stat	Any but HITPOINTS, which has no stage
+	 */
+	public static int getStage(long side, STAT stat) {
+		return ((int) (side >>> stageShift(stat)) & 15) + MIN_STAGE;
+	}
+
+	public static long withStage(long side, STAT stat, int stage) {
+		int shift = stageShift(stat);
+		stage = Math.max(MIN_STAGE, Math.min(stage, MAX_STAGE)) - MIN_STAGE;
+		return side & ~(15L << shift) | (long) stage << shift;
+	}
+
+	public static int getPp(long side, int move) {
+		return (int) (side >>> (PP_SHIFT + move * 6)) & MAX_PP;
+	}
+
+	public static long withPp(long side, int move, int pp) {
+		int shift = PP_SHIFT + move * 6;
+		return side & ~((long) MAX_PP << shift) | (long) Math.max(0, Math.min(pp, MAX_PP)) << shift;
+	}
+
+	public static StatusCondition getStatus(long side) {
+		return STATUSES[(int) (side >>> STATUS_SHIFT) & 7];
+	}
+
+	public static long withStatus(long side, StatusCondition status) {
+		return side & ~(7L << STATUS_SHIFT) | (long) status.ordinal() << STATUS_SHIFT;
+	}
+
+	public static int getSlot(long side) {
+		return (int) (side >>> SLOT_SHIFT) & 7;
+	}
+
+	static int stageShift(STAT stat) {
+		return STAGE_SHIFT + (stat.ordinal() - STAT.ATTACK.ordinal()) * 4;
+	}
+}
@@ -0,0 +1,81 @@
+package com.github.adisann.pokemon.battle.ai;
+
+import java.util.Arrays;
+
+/**
+ * Values of searched states by their Zobrist hash, so a state reached again by other moves,
+ * or searched again in a later turn, is not searched twice.
+ *
+ * A fixed amount of entries in flat arrays, allocated once. A hash has one entry it can go
+ * in, and a new value takes the place of the old one. The full hash is kept to tell states
+ * apart, states that share a 64 bit hash are taken to be the same.
+ * */
+public class TranspositionTable {
+
+	private long[] hashes;
+	private float[] values;
+	private boolean[] used;
+	private int mask;
+
+	private long hits, misses;
+
+	/**
+	 * @param bits	The table holds 2^bits entries
+	 */
+	public TranspositionTable(int bits) {
+		int size = 1 << bits;
+		hashes = new long[size];
+		values = new float[size];
+		used = new boolean[size];
+		mask = size - 1;
+	}
+
+	/**
+	 * @return	If a value for the hash is stored, see #getValue()
+	 */
+	public boolean probe(long hash) {
+		int i = index(hash);
+		if (used[i] && hashes[i] == hash) {
+			hits++;
+			return true;
+		}
+		misses++;
+		return false;
+	}
+
+	/**
+	 * @return	The value stored for the hash, only valid after a successful probe()
+	 */
+	public float getValue(long hash) {
+		return values[index(hash)];
+	}
+
+	public void store(long hash, float value) {
+		int i = index(hash);
+		hashes[i] = hash;
+		values[i] = value;
+		used[i] = true;
+	}
+
+	public void clear() {
+		Arrays.fill(used, false);
+		hits = 0;
+		misses = 0;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public int getSize() {
+		return hashes.length;
+	}
+
+	private int index(long hash) {
+		return (int) (hash ^ hash >>> 32) & mask;
+	}
+}
@@ -0,0 +1,91 @@
+package com.github.adisann.pokemon.battle.ai;
+
+import com.github.adisann.pokemon.battle.STAT;
+import com.github.adisann.pokemon.util.RandomStream;
+
+/**
+ * Zobrist hashing of PackedBattleStates: every value of every field of either side has a
+ * random key, and a state hashes to the keys of its values XORed together. A change to one
+ * field is then two XORs, the old value's key out and the new one's in.
+ *
+ * Keys are made from a fixed seed, so hashes are the same on every run.
+ * */
+public final class Zobrist {
+
+	/** Rounds left in a search that have a key of their own */
+	public static final int MAX_DEPTH = 64;
+
+	private static final long SEED = 0x5A0B1257L;
+
+	/* by side, then field value */
+	private static final long[][] HP = new long[2][PackedBattleState.MAX_HP + 1];
+	private static final long[][][] STAGE = new long[2][5][16];
+	private static final long[][][] PP = new long[2][4][PackedBattleState.MAX_PP + 1];
+	private static final long[][] STATUS = new long[2][8];
+	private static final long[][] SLOT = new long[2][8];
+	private static final long[] DEPTH = new long[MAX_DEPTH];
+
+	static {
+		RandomStream random = new RandomStream(SEED);
+		for (int side = 0; side < 2; side++) {
+			fill(HP[side], random);
+			for (int i = 0; i < 5; i++) {
+				fill(STAGE[side][i], random);
+			}
+			for (int i = 0; i < 4; i++) {
+				fill(PP[side][i], random);
+			}
+			fill(STATUS[side], random);
+			fill(SLOT[side], random);
+		}
+		fill(DEPTH, random);
+	}
+
+	private Zobrist() {
+	}
+
+	private static void fill(long[] keys, RandomStream random) {
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = random.nextLong();
+		}
+	}
+
+	/**
+	 * @param player	Packed side of the player
+	 * @param opponent	Packed side of the opponent
+	 */
+	public static long hash(long player, long opponent) {
+		return hash(0, player) ^ hash(1, opponent);
+	}
+
+	private static long hash(int side, long packed) {
+		long h = HP[side][PackedBattleState.getHp(packed)];
+		for (STAT stat : STAT.values()) {
+			if (stat != STAT.HITPOINTS) {
+				int i = stat.ordinal() - STAT.ATTACK.ordinal();
+				h ^= STAGE[side][i][(int) (packed >>> PackedBattleState.stageShift(stat)) & 15];
+			}
+		}
+		for (int move = 0; move < 4; move++) {
+			h ^= PP[side][move][PackedBattleState.getPp(packed, move)];
+		}
+		h ^= STATUS[side][(int) (packed >>> PackedBattleState.STATUS_SHIFT) & 7];
+		h ^= SLOT[side][PackedBattleState.getSlot(packed)];
+		return h;
+	}
+
+	/**
+	 * @param side	0 for the player, 1 for the opponent
+	 * @return		What to XOR a hash with to take the HP of the side out, or put it in
+	 */
+	public static long hp(int side, int hp) {
+		return HP[side][hp];
+	}
+
+	/**
+	 * @return	What to XOR a hash with to tell apart the same state with other rounds left
+	 */
+	public static long depth(int depth) {
+		return DEPTH[Math.min(depth, MAX_DEPTH - 1)];
+	}
+}
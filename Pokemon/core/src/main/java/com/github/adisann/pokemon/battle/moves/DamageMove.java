@@ -3,16 +3,7 @@ package com.github.adisann.pokemon.battle.moves;
 import java.lang.reflect.InvocationTargetException;
 
 import com.badlogic.gdx.Gdx;
-import com.github.adisann.pokemon.battle.BATTLE_PARTY;
-import com.github.adisann.pokemon.battle.BattleMechanics;
-import com.github.adisann.pokemon.battle.STAT;
 import com.github.adisann.pokemon.battle.animation.BattleAnimation;
-import com.github.adisann.pokemon.battle.animation.DamageFlashAnimation;
-import com.github.adisann.pokemon.battle.event.AnimationBattleEvent;
-import com.github.adisann.pokemon.battle.event.BattleEventQueuer;
-import com.github.adisann.pokemon.battle.event.HPAnimationEvent;
-import com.github.adisann.pokemon.battle.event.TextEvent;
-import com.github.adisann.pokemon.model.Pokemon;
 
 /**
  * We're going to do some real important shit around here Morty.
@@ -44,34 +35,6 @@ public class DamageMove extends Move {
 	public boolean isDamaging() {
 		return true;
 	}
-	
-	@Override
-	public int useMove(BattleMechanics mechanics, Pokemon user, Pokemon target, BATTLE_PARTY party, BattleEventQueuer broadcaster) {
-		int hpBefore = target.getCurrentHitpoints();
-		int damage = super.useMove(mechanics, user, target, party, broadcaster);
-		
-		/* Broadcast animations */
-		broadcaster.queueEvent(new AnimationBattleEvent(party, animation()));
-		
-		/* Broadcast damage flash on target */
-		broadcaster.queueEvent(new AnimationBattleEvent(BATTLE_PARTY.getOpposite(party), new DamageFlashAnimation()));
-		
-		//float hpPercentage = ((float)target.getCurrentHitpoints())/(float)target.getStat(STAT.HITPOINTS);
-		
-		/* Broadcast HP change */
-		broadcaster.queueEvent(
-				new HPAnimationEvent(
-						BATTLE_PARTY.getOpposite(party), 
-						hpBefore,
-						target.getCurrentHitpoints(), 
-						target.getStat(STAT.HITPOINTS), 
-						0.5f));
-		
-		if (mechanics.hasMessage()) {
-			broadcaster.queueEvent(new TextEvent(mechanics.getMessage(), 0.5f));
-		}
-		return damage;
-	}
 
 	@Override
 	public Move clone() {
@@ -1,13 +1,10 @@
 package com.github.adisann.pokemon.battle.moves;
 
-import com.github.adisann.pokemon.battle.BATTLE_PARTY;
-import com.github.adisann.pokemon.battle.BattleMechanics;
 import com.github.adisann.pokemon.battle.animation.BattleAnimation;
-import com.github.adisann.pokemon.battle.event.BattleEventQueuer;
-import com.github.adisann.pokemon.model.Pokemon;
 
 /**
  * Represents a move a pokemon can do in battle.
+ * What it does is up to the BattleRules, this is how it looks.
  * 
  * Do not make new instances of these!
  * Instead, use {@link #clone()}.
@@ -22,13 +19,6 @@ public abstract class Move {
 		this.animationClass = animationClass;
 	}
 
-	public int useMove(BattleMechanics mechanics, Pokemon user, Pokemon target, BATTLE_PARTY party,
-			BattleEventQueuer broadcaster) {
-		int damage = mechanics.calculateDamage(this, user, target, party == BATTLE_PARTY.PLAYER);
-		target.applyDamage(damage);
-		return damage;
-	}
-
 	public abstract BattleAnimation animation();
 
 	public abstract String message();
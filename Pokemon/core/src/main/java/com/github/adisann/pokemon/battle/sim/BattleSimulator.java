@@ -0,0 +1,228 @@
+package com.github.adisann.pokemon.battle.sim;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.github.adisann.pokemon.battle.BATTLE_PARTY;
+import com.github.adisann.pokemon.battle.Battle.STATE;
+import com.github.adisann.pokemon.battle.BattleMechanics;
+import com.github.adisann.pokemon.battle.BattleOutcome;
+import com.github.adisann.pokemon.battle.BattleRules;
+import com.github.adisann.pokemon.battle.BattleState;
+import com.github.adisann.pokemon.battle.STAT;
+import com.github.adisann.pokemon.battle.Trainer;
+import com.github.adisann.pokemon.battle.moves.MoveDatabase;
+import com.github.adisann.pokemon.model.Pokemon;
+import com.github.adisann.pokemon.util.RandomStream;
+
+/**
+ * Plays many battles between two trainers with the BattleRules, without a screen, and
+ * counts the results. Meant for balancing.
+ *
+ * Battles are split in batches over the common fork-join pool. Each batch plays with copies
+ * of the trainers' Pokemon and a RandomStream of its own. Streams are split from the run's
+ * seed along with the batches, so a run gives the same result for the same seed on any amount
+ * of cores.
+ *
+ * Both sides deal damage the same way, so swapping the teams mirrors the result. The game
+ * doubles the damage of the player's Pokemon; pass --player-bonus to simulate that.
+ *
+ * Both sides pick one of their moves at random each round. When the player's Pokemon faints
+ * the next one that can fight is sent out. As in the game, the battle is won when the
+ * opponent's first Pokemon faints.
+ *
+ * Usage: BattleSimulator [--player-bonus] &lt;battles&gt; &lt;player team&gt; &lt;opponent team&gt; [seed]
+ * where a team is a comma separated list of species with an optional level, like
+ * Charmander:5,Squirtle:7
+ * */
+public class BattleSimulator {
+
+	/** Rounds after which a battle is called a draw */
+	public static final int MAX_TURNS = 1000;
+
+	private static final int BATTLES_PER_TASK = 4096;
+
+	/* only copied from, the batches play with copies */
+	private Trainer player;
+	private Trainer opponent;
+	private long seed;
+	private boolean playerBonus;
+
+	/**
+	 * Simulates both sides the same way.
+	 */
+	public BattleSimulator(Trainer player, Trainer opponent, long seed) {
+		this(player, opponent, seed, false);
+	}
+
+	/**
+	 * @param playerBonus	If the player's Pokemon deal double damage, as in the game
+	 */
+	public BattleSimulator(Trainer player, Trainer opponent, long seed, boolean playerBonus) {
+		this.player = player;
+		this.opponent = opponent;
+		this.seed = seed;
+		this.playerBonus = playerBonus;
+	}
+
+	public static void main(String[] args) {
+		boolean playerBonus = args.length > 0 && args[0].equals("--player-bonus");
+		if (playerBonus) {
+			args = Arrays.copyOfRange(args, 1, args.length);
+		}
+		if (args.length < 3) {
+			System.err.println("Usage: BattleSimulator [--player-bonus] <battles> <player team> <opponent team> [seed]");
+			System.exit(1);
+		}
+		long battles = Long.parseLong(args[0]);
+		MoveDatabase moveDatabase = new MoveDatabase();
+		Trainer player = parseTeam(args[1], moveDatabase);
+		Trainer opponent = parseTeam(args[2], moveDatabase);
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+		System.out.println(args[1] + " vs " + args[2] + ", seed " + seed + ", "
+				+ ForkJoinPool.commonPool().getParallelism() + " workers" + (playerBonus ? ", player bonus" : ""));
+		long start = System.nanoTime();
+		SimulationResult result = new BattleSimulator(player, opponent, seed, playerBonus).run(battles);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.print(result);
+		System.out.println(String.format("%.2f s, %.0f battles per minute", seconds, battles / seconds * 60));
+	}
+
+	/**
+	 * Plays battles, spread over all cores.
+	 */
+	public SimulationResult run(long battles) {
+		return ForkJoinPool.commonPool().invoke(new Batch(0, battles, new RandomStream(seed)));
+	}
+
+	/* plays the battles from..to on the calling thread */
+	private SimulationResult play(long from, long to, RandomStream random) {
+		BattleRules rules = new BattleRules(new BattleMechanics(random), playerBonus);
+		BattleOutcome outcome = new BattleOutcome();
+		SimulationResult result = new SimulationResult();
+
+		Trainer playerTeam = copy(player);
+		Trainer opponentTeam = copy(opponent);
+		BattleState state = new BattleState(playerTeam, playerTeam.getPokemon(0), opponentTeam,
+				opponentTeam.getPokemon(0));
+
+		for (long i = from; i < to; i++) {
+			heal(playerTeam);
+			heal(opponentTeam);
+			state.setPlayer(playerTeam.getPokemon(0));
+			state.setState(STATE.READY_TO_PROGRESS);
+
+			int turns = 0;
+			while (!state.isOver() && turns < MAX_TURNS) {
+				if (state.getState() == STATE.SELECT_NEW_POKEMON) {
+					state.setPlayer(firstStanding(playerTeam));
+					state.setState(STATE.READY_TO_PROGRESS);
+				}
+				outcome.clear();
+				rules.playRound(state, pickMove(random, state.getPlayer()), pickMove(random, state.getOpponent()),
+						outcome);
+				for (int r = 0; r < outcome.size(); r++) {
+					if (outcome.getKind(r) == BattleOutcome.DAMAGE) {
+						result.addHit(BATTLE_PARTY.getOpposite(outcome.getParty(r)), outcome.getA(r) - outcome.getB(r));
+					}
+				}
+				turns++;
+			}
+			result.addBattle(state.getState(), turns);
+		}
+		return result;
+	}
+
+	private static int pickMove(RandomStream random, Pokemon pokemon) {
+		int moves = 0;
+		while (moves < 4 && pokemon.getMoveSpecification(moves) != null) {
+			moves++;
+		}
+		return random.nextInt(moves);
+	}
+
+	private static Pokemon firstStanding(Trainer trainer) {
+		for (int i = 0; i < trainer.getTeamSize(); i++) {
+			if (!trainer.getPokemon(i).isFainted()) {
+				return trainer.getPokemon(i);
+			}
+		}
+		return null;
+	}
+
+	private static void heal(Trainer trainer) {
+		for (int i = 0; i < trainer.getTeamSize(); i++) {
+			Pokemon pokemon = trainer.getPokemon(i);
+			pokemon.setCurrentHitpoints(pokemon.getStat(STAT.HITPOINTS));
+		}
+	}
+
+	private static Trainer copy(Trainer trainer) {
+		Trainer copy = null;
+		for (int i = 0; i < trainer.getTeamSize(); i++) {
+			Pokemon original = trainer.getPokemon(i);
+			Pokemon pokemon = new Pokemon(original.getSpecies(), original.getLevel());
+			for (int m = 0; m < 4; m++) {
+				pokemon.setMove(m, original.getMove(m));
+			}
+			if (copy == null) {
+				copy = new Trainer(pokemon);
+			} else {
+				copy.addPokemon(pokemon);
+			}
+		}
+		return copy;
+	}
+
+	/* Charmander:5,Squirtle:7 */
+	private static Trainer parseTeam(String team, MoveDatabase moveDatabase) {
+		Trainer trainer = null;
+		for (String member : team.split(",")) {
+			String[] parts = member.split(":");
+			String name = parts[0];
+			int level = parts.length > 1 ? Integer.parseInt(parts[1]) : 5;
+			Pokemon generated = Pokemon.generatePokemon(name,
+					"graphics/pokemon/" + name.toLowerCase() + ".png", moveDatabase);
+			Pokemon pokemon = new Pokemon(generated.getSpecies(), level);
+			for (int m = 0; m < 4; m++) {
+				pokemon.setMove(m, generated.getMove(m));
+			}
+			if (trainer == null) {
+				trainer = new Trainer(pokemon);
+			} else {
+				trainer.addPokemon(pokemon);
+			}
+		}
+		return trainer;
+	}
+
+	private class Batch extends RecursiveTask<SimulationResult> {
+
+		private static final long serialVersionUID = 1L;
+
+		private long from, to;
+		private RandomStream random;
+
+		private Batch(long from, long to, RandomStream random) {
+			this.from = from;
+			this.to = to;
+			this.random = random;
+		}
+
+		@Override
+		protected SimulationResult compute() {
+			if (to - from <= BATTLES_PER_TASK) {
+				return play(from, to, random);
+			}
+			long middle = (from + to) >>> 1;
+			// split before forking, so which half runs where doesn't change the streams
+			Batch second = new Batch(middle, to, random.split());
+			second.fork();
+			SimulationResult result = new Batch(from, middle, random).compute();
+			result.merge(second.join());
+			return result;
+		}
+	}
+}
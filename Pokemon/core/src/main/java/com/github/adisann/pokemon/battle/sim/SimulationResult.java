@@ -0,0 +1,132 @@
+package com.github.adisann.pokemon.battle.sim;
+
+import com.github.adisann.pokemon.battle.BATTLE_PARTY;
+import com.github.adisann.pokemon.battle.Battle.STATE;
+
+/**
+ * Counts from a run of simulated battles: who won, how long it took, and how hard each
+ * side hit. Results of parts of a run can be merged.
+ * */
+public class SimulationResult {
+
+	/** Hits that took more HP than this are counted as taking this much */
+	public static final int MAX_DAMAGE = 255;
+
+	private long battles, playerWins, opponentWins, draws;
+	private long turns;
+
+	/* hits per HP taken, by the party that attacked */
+	private long[][] damage = new long[BATTLE_PARTY.values().length][MAX_DAMAGE + 1];
+
+	void addBattle(STATE end, int turns) {
+		battles++;
+		this.turns += turns;
+		if (end == STATE.WIN) {
+			playerWins++;
+		} else if (end == STATE.LOSE) {
+			opponentWins++;
+		} else {
+			draws++;
+		}
+	}
+
+	void addHit(BATTLE_PARTY attacker, int hp) {
+		damage[attacker.ordinal()][Math.min(hp, MAX_DAMAGE)]++;
+	}
+
+	void merge(SimulationResult other) {
+		battles += other.battles;
+		playerWins += other.playerWins;
+		opponentWins += other.opponentWins;
+		draws += other.draws;
+		turns += other.turns;
+		for (int party = 0; party < damage.length; party++) {
+			for (int hp = 0; hp <= MAX_DAMAGE; hp++) {
+				damage[party][hp] += other.damage[party][hp];
+			}
+		}
+	}
+
+	public long getBattles() {
+		return battles;
+	}
+
+	public double getPlayerWinRate() {
+		return battles == 0 ? 0 : (double) playerWins / battles;
+	}
+
+	public double getOpponentWinRate() {
+		return battles == 0 ? 0 : (double) opponentWins / battles;
+	}
+
+	/**
+	 * @return	Share of battles that hit BattleSimulator#MAX_TURNS
+	 */
+	public double getDrawRate() {
+		return battles == 0 ? 0 : (double) draws / battles;
+	}
+
+	/**
+	 * @return	Rounds per battle, a round being both sides moving
+	 */
+	public double getAverageTurns() {
+		return battles == 0 ? 0 : (double) turns / battles;
+	}
+
+	/**
+	 * @return	Amount of hits by the party that took the given HP, missed moves not counted
+	 */
+	public long getHits(BATTLE_PARTY attacker, int hp) {
+		return damage[attacker.ordinal()][hp];
+	}
+
+	public long getHits(BATTLE_PARTY attacker) {
+		long hits = 0;
+		for (int hp = 0; hp <= MAX_DAMAGE; hp++) {
+			hits += damage[attacker.ordinal()][hp];
+		}
+		return hits;
+	}
+
+	public double getAverageDamage(BATTLE_PARTY attacker) {
+		long hits = 0, total = 0;
+		for (int hp = 0; hp <= MAX_DAMAGE; hp++) {
+			hits += damage[attacker.ordinal()][hp];
+			total += damage[attacker.ordinal()][hp] * hp;
+		}
+		return hits == 0 ? 0 : (double) total / hits;
+	}
+
+	/**
+	 * @param fraction	Between 0 and 1, 0.5 for the median
+	 * @return			Least HP that at least this share of the hits of the party took at most
+	 */
+	public int getDamagePercentile(BATTLE_PARTY attacker, double fraction) {
+		long hits = getHits(attacker);
+		long seen = 0;
+		for (int hp = 0; hp <= MAX_DAMAGE; hp++) {
+			seen += damage[attacker.ordinal()][hp];
+			if (seen > 0 && seen >= fraction * hits) {
+				return hp;
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%d battles%n", battles));
+		sb.append(String.format("  player wins   %6.2f%%%n", getPlayerWinRate() * 100));
+		sb.append(String.format("  opponent wins %6.2f%%%n", getOpponentWinRate() * 100));
+		sb.append(String.format("  draws         %6.2f%%%n", getDrawRate() * 100));
+		sb.append(String.format("  average rounds %.2f%n", getAverageTurns()));
+		for (BATTLE_PARTY party : BATTLE_PARTY.values()) {
+			sb.append(String.format("  %-8s damage per hit: mean %.1f, p10 %d, median %d, p90 %d, max %d (%d hits)%n",
+					party.name().toLowerCase(), getAverageDamage(party), getDamagePercentile(party, 0.1),
+					getDamagePercentile(party, 0.5), getDamagePercentile(party, 0.9), getDamagePercentile(party, 1),
+					getHits(party)));
+		}
+		return sb.toString();
+	}
+}
@@ -320,6 +320,7 @@ public class BattleScreenController extends InputAdapter {
      */
     public void restartTurn() {
         this.state = STATE.SELECT_ACTION;
+        battle.planOpponentMove();
         refreshMoves();
 
         // Show "What will [name] do?" and action menu
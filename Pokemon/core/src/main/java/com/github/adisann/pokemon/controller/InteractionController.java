@@ -1,11 +1,13 @@
 package com.github.adisann.pokemon.controller;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.badlogic.gdx.Input.Keys;
 import com.badlogic.gdx.InputAdapter;
 import com.github.adisann.pokemon.dialogue.Dialogue;
 import com.github.adisann.pokemon.dialogue.LinearDialogueNode;
 import com.github.adisann.pokemon.model.DIRECTION;
-import com.github.adisann.pokemon.model.Tile;
 import com.github.adisann.pokemon.model.actor.Actor;
 import com.github.adisann.pokemon.model.actor.NPCActor;
 import com.github.adisann.pokemon.screen.GameScreen;
@@ -20,6 +22,8 @@ public class InteractionController extends InputAdapter {
 	private DialogueController dialogueController;
 	private GameScreen gameScreen; // For trainer battles
 
+	private List<Actor> nearby = new ArrayList<Actor>();
+
 	public InteractionController(Actor a, DialogueController dialogueController) {
 		this.a = a;
 		this.dialogueController = dialogueController;
@@ -40,10 +44,8 @@ public class InteractionController extends InputAdapter {
 		}
 
 		if (keycode == Keys.X) {
-			Tile target = a.getWorld().getMap().getTile(a.getX() + a.getFacing().getDX(),
-					a.getY() + a.getFacing().getDY());
-			if (target.getActor() != null) {
-				Actor targetActor = target.getActor();
+			Actor targetActor = actorAt(a.getX() + a.getFacing().getDX(), a.getY() + a.getFacing().getDY());
+			if (targetActor != null) {
 
 				// Special handling for NPC actors (trainers, etc.)
 				if (targetActor instanceof NPCActor) {
@@ -140,4 +142,16 @@ public class InteractionController extends InputAdapter {
 		return false;
 	}
 
-}
\ No newline at end of file
+	/* the actor on a tile, or walking onto it, found with the world's SpatialIndex */
+	private Actor actorAt(int x, int y) {
+		nearby.clear();
+		a.getWorld().getActorIndex().queryRange(x, y, x + 1, y + 1, nearby);
+		for (int i = 0; i < nearby.size(); i++) {
+			Actor other = nearby.get(i);
+			if (other != a && other.getX() == x && other.getY() == y) {
+				return other;
+			}
+		}
+		return null;
+	}
+}
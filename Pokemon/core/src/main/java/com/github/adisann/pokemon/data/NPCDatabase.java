@@ -6,6 +6,7 @@ import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,27 +14,24 @@ import java.util.Map;
 /**
  * Database for NPC data loaded from JSON.
  * NPCs include trainers, healers, and other interactable characters.
+ *
+ * Loaded once through the AssetManager, see NPCDatabaseLoader. Worlds depend on it
+ * and look up the NPCs they place by id.
  * 
  * @author Antigravity
  */
 public class NPCDatabase {
 
-    private static final String NPC_FILE = "data/trainers/npcs.json";
-    private static Map<String, NPCData> npcs = new HashMap<>();
-    private static List<String> loadErrors = new ArrayList<>();
-    private static boolean loaded = false;
+    public static final String NPC_FILE = "data/trainers/npcs.json";
+    private Map<String, NPCData> npcs = new HashMap<>();
+    private List<String> loadErrors = new ArrayList<>();
 
     /**
-     * Load all NPCs from JSON file.
+     * Load all NPCs from a JSON file.
      */
-    public static void load() {
-        if (loaded)
-            return;
-
-        FileHandle file = Gdx.files.internal(NPC_FILE);
+    public void load(FileHandle file) {
         if (!file.exists()) {
-            Gdx.app.error("NPCDatabase", "NPC file not found: " + NPC_FILE);
-            loaded = true;
+            Gdx.app.error("NPCDatabase", "NPC file not found: " + file.path());
             return;
         }
 
@@ -51,37 +49,45 @@ public class NPCDatabase {
                 }
             }
 
-            loaded = true;
             Gdx.app.log("NPCDatabase", "Loaded " + npcs.size() + " NPCs from JSON");
 
         } catch (Exception e) {
             Gdx.app.error("NPCDatabase", "Failed to parse npcs.json", e);
-            loaded = true;
         }
     }
 
     /**
-     * Get NPC data by ID.
+     * Get NPC data by ID, or null if there is no such NPC.
      */
-    public static NPCData getNPC(String id) {
-        if (!loaded)
-            load();
+    public NPCData getNPC(String id) {
         return npcs.get(id);
     }
 
+    /**
+     * Get every NPC, in no particular order.
+     */
+    public Collection<NPCData> getNPCs() {
+        return npcs.values();
+    }
+
     /**
      * Check if an NPC exists.
      */
-    public static boolean hasNPC(String id) {
-        if (!loaded)
-            load();
+    public boolean hasNPC(String id) {
         return npcs.containsKey(id);
     }
 
+    /**
+     * Get all load errors for debugging.
+     */
+    public List<String> getLoadErrors() {
+        return new ArrayList<>(loadErrors);
+    }
+
     /**
      * Parse a single NPC from JSON.
      */
-    private static NPCData parseNPC(JsonValue entry) {
+    private NPCData parseNPC(JsonValue entry) {
         NPCData npc = new NPCData();
         npc.id = entry.getString("id");
         npc.displayName = entry.getString("displayName", npc.id);
@@ -0,0 +1,193 @@
+package com.github.adisann.pokemon.model;
+
+import com.badlogic.gdx.utils.IntMap;
+import com.github.adisann.pokemon.model.actor.Actor;
+import com.github.adisann.pokemon.model.world.WorldObject;
+import com.github.adisann.pokemon.worldloader.LTerrain;
+
+/**
+ * TileChunk storing plain Tiles as a short terrain id and a byte of flags per cell.
+ * Actors and objects are kept in sparse maps, since few cells have them.
+ * 
+ * Tiles with their own behaviour (subclasses of Tile, like TeleportTile) are kept as they are.
+ * For plain cells, getTile returns a new view writing through to the arrays. Views are not
+ * kept, that would take more memory than the Tiles this replaces, so callers in a hot loop
+ * should use getTerrain, isWalkable, getActor and getObject instead.
+ * */
+public class CompactTileChunk extends TileChunk {
+	
+	private static final byte PRESENT = 1;
+	private static final byte UNWALKABLE = 2;
+	private static final byte SPECIAL = 4;
+	
+	private TerrainPalette palette;
+	
+	private short[] terrain;
+	private byte[] flags;
+	
+	private IntMap<Tile> special = new IntMap<Tile>(0);
+	private IntMap<Actor> actors = new IntMap<Actor>(0);
+	private IntMap<WorldObject> objects = new IntMap<WorldObject>(0);
+	
+	CompactTileChunk(TileMap map, int originX, int originY, int width, int height, TerrainPalette palette) {
+		super(map, originX, originY, width, height);
+		this.palette = palette;
+		terrain = new short[TileMap.CHUNK_SIZE * TileMap.CHUNK_SIZE];
+		flags = new byte[TileMap.CHUNK_SIZE * TileMap.CHUNK_SIZE];
+	}
+	
+	@Override
+	public Tile getTile(int localX, int localY) {
+		int i = index(localX, localY);
+		if ((flags[i] & PRESENT) == 0) {
+			return null;
+		}
+		if ((flags[i] & SPECIAL) != 0) {
+			return special.get(i);
+		}
+		return new View(i);
+	}
+	
+	@Override
+	public void setTile(Tile tile, int localX, int localY) {
+		int i = index(localX, localY);
+		if (tile != null && (tile.getClass() == Tile.class || tile instanceof View)) {
+			// read everything first, the tile may be a view of this very cell
+			short terrainId = palette.idOf(tile.getTerrain());
+			boolean walkable = tile.walkable();
+			Actor actor = tile.getActor();
+			WorldObject object = tile.getObject();
+			clear(i);
+			flags[i] = walkable ? PRESENT : PRESENT | UNWALKABLE;
+			terrain[i] = terrainId;
+			if (actor != null) {
+				actors.put(i, actor);
+			}
+			if (object != null) {
+				objects.put(i, object);
+			}
+		} else {
+			clear(i);
+			if (tile != null) {
+				flags[i] = PRESENT | SPECIAL;
+				special.put(i, tile);
+				tile.setChunk(this, i);
+			}
+		}
+		terrainChanged();
+		passabilityChanged(i);
+	}
+	
+	private void clear(int i) {
+		special.remove(i);
+		actors.remove(i);
+		objects.remove(i);
+		terrain[i] = 0;
+		flags[i] = 0;
+	}
+	
+	@Override
+	public LTerrain getTerrain(int localX, int localY) {
+		int i = index(localX, localY);
+		if ((flags[i] & SPECIAL) != 0) {
+			return special.get(i).getTerrain();
+		}
+		return palette.get(terrain[i]);
+	}
+	
+	@Override
+	public boolean isWalkable(int localX, int localY) {
+		int i = index(localX, localY);
+		if ((flags[i] & SPECIAL) != 0) {
+			return special.get(i).walkable();
+		}
+		return (flags[i] & (PRESENT | UNWALKABLE)) == PRESENT;
+	}
+	
+	@Override
+	public Actor getActor(int localX, int localY) {
+		int i = index(localX, localY);
+		if ((flags[i] & SPECIAL) != 0) {
+			return special.get(i).getActor();
+		}
+		return actors.get(i);
+	}
+	
+	@Override
+	public WorldObject getObject(int localX, int localY) {
+		int i = index(localX, localY);
+		if ((flags[i] & SPECIAL) != 0) {
+			return special.get(i).getObject();
+		}
+		return objects.get(i);
+	}
+	
+	/**
+	 * Tile handed out for a plain cell. Holds no state of its own.
+	 */
+	private class View extends Tile {
+		
+		private int i;
+		
+		private View(int i) {
+			super(null);
+			this.i = i;
+		}
+		
+		@Override
+		public LTerrain getTerrain() {
+			return palette.get(terrain[i]);
+		}
+		
+		@Override
+		public void setTerrain(LTerrain t) {
+			terrain[i] = palette.idOf(t);
+			terrainChanged();
+		}
+		
+		@Override
+		public void setWalkable(boolean walkable) {
+			if (walkable) {
+				flags[i] &= ~UNWALKABLE;
+			} else {
+				flags[i] |= UNWALKABLE;
+			}
+			walkabilityChanged(i);
+		}
+		
+		@Override
+		public boolean walkable() {
+			return (flags[i] & UNWALKABLE) == 0;
+		}
+		
+		@Override
+		public Actor getActor() {
+			return actors.get(i);
+		}
+		
+		@Override
+		public void setActor(Actor actor) {
+			if (actor == null) {
+				actors.remove(i);
+			} else {
+				actors.put(i, actor);
+			}
+			passabilityChanged(i);
+		}
+		
+		@Override
+		public WorldObject getObject() {
+			return objects.get(i);
+		}
+		
+		@Override
+		public void setObject(WorldObject object) {
+			if (object == null) {
+				objects.remove(i);
+			} else {
+				objects.put(i, object);
+			}
+			passabilityChanged(i);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.github.adisann.pokemon.model;
+
+import com.github.adisann.pokemon.model.actor.Actor;
+import com.github.adisann.pokemon.model.world.WorldObject;
+import com.github.adisann.pokemon.worldloader.LTerrain;
+
+/**
+ * TileChunk keeping one Tile object per cell.
+ * */
+public class ObjectTileChunk extends TileChunk {
+	
+	private Tile[] tiles;
+	
+	public ObjectTileChunk(TileMap map, int originX, int originY, int width, int height) {
+		super(map, originX, originY, width, height);
+		tiles = new Tile[TileMap.CHUNK_SIZE * TileMap.CHUNK_SIZE];
+	}
+	
+	@Override
+	public Tile getTile(int localX, int localY) {
+		return tiles[index(localX, localY)];
+	}
+	
+	@Override
+	public void setTile(Tile tile, int localX, int localY) {
+		int i = index(localX, localY);
+		tiles[i] = tile;
+		if (tile != null) {
+			tile.setChunk(this, i);
+		}
+		terrainChanged();
+		passabilityChanged(i);
+	}
+	
+	@Override
+	public LTerrain getTerrain(int localX, int localY) {
+		Tile tile = tiles[index(localX, localY)];
+		return tile == null ? null : tile.getTerrain();
+	}
+	
+	@Override
+	public boolean isWalkable(int localX, int localY) {
+		Tile tile = tiles[index(localX, localY)];
+		return tile != null && tile.walkable();
+	}
+	
+	@Override
+	public Actor getActor(int localX, int localY) {
+		Tile tile = tiles[index(localX, localY)];
+		return tile == null ? null : tile.getActor();
+	}
+	
+	@Override
+	public WorldObject getObject(int localX, int localY) {
+		Tile tile = tiles[index(localX, localY)];
+		return tile == null ? null : tile.getObject();
+	}
+}
@@ -0,0 +1,80 @@
+package com.github.adisann.pokemon.model;
+
+import java.util.Arrays;
+
+/**
+ * One bit per tile telling if an Actor may step there. A tile is blocked if it is missing,
+ * not walkable, holds an Actor or holds a non-walkable WorldObject.
+ * 
+ * Kept up to date by the TileMap whenever a Tile changes, so testing a move is a single bit test.
+ * 
+ * Every region of REGION_SIZE by REGION_SIZE tiles counts its changes, so results worked out from
+ * the map, like paths, can tell when they are out of date.
+ * */
+public class PassabilityMap {
+	
+	/** Width and height of the regions changes are counted in, in tiles */
+	public static final int REGION_SIZE = 16;
+	private static final int REGION_SHIFT = 4;
+	
+	private int width, height;
+	private long[] blocked;
+	
+	private int regionsX;
+	private int[] regionVersions;
+	
+	public PassabilityMap(int width, int height) {
+		this.width = width;
+		this.height = height;
+		blocked = new long[(width * height + 63) >>> 6];
+		Arrays.fill(blocked, -1L); // no tiles yet
+		regionsX = (width + REGION_SIZE - 1) >> REGION_SHIFT;
+		regionVersions = new int[regionsX * ((height + REGION_SIZE - 1) >> REGION_SHIFT)];
+	}
+	
+	/**
+	 * @return	false outside the map
+	 */
+	public boolean isPassable(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height) {
+			return false;
+		}
+		int i = y * width + x;
+		return (blocked[i >>> 6] & (1L << i)) == 0;
+	}
+	
+	void setBlocked(int x, int y, boolean isBlocked) {
+		int i = y * width + x;
+		if (((blocked[i >>> 6] & (1L << i)) != 0) == isBlocked) {
+			return;
+		}
+		regionVersions[getRegion(x, y)]++;
+		if (isBlocked) {
+			blocked[i >>> 6] |= 1L << i;
+		} else {
+			blocked[i >>> 6] &= ~(1L << i);
+		}
+	}
+	
+	/**
+	 * @return	Index of the region holding a tile
+	 */
+	public int getRegion(int x, int y) {
+		return (y >> REGION_SHIFT) * regionsX + (x >> REGION_SHIFT);
+	}
+	
+	/**
+	 * @return	Amount of times tiles in the region changed
+	 */
+	public int getRegionVersion(int region) {
+		return regionVersions[region];
+	}
+	
+	public int getWidth() {
+		return width;
+	}
+	
+	public int getHeight() {
+		return height;
+	}
+}
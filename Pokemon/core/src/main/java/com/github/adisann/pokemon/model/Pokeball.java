@@ -1,5 +1,7 @@
 package com.github.adisann.pokemon.model;
 
+import com.github.adisann.pokemon.util.RandomStream;
+
 /**
  * Pokeball item for catching wild Pokemon.
  */
@@ -33,9 +35,10 @@ public class Pokeball extends Item {
     /**
      * Attempt to catch a wild Pokemon.
      * @param wildPokemon The Pokemon to catch
+     * @param random The battle's random stream
      * @return true if catch was successful
      */
-    public boolean attemptCatch(Pokemon wildPokemon) {
+    public boolean attemptCatch(Pokemon wildPokemon, RandomStream random) {
         if (wildPokemon == null) {
             return false;
         }
@@ -51,7 +54,7 @@ public class Pokeball extends Item {
         float finalCatchRate = baseCatchRate * catchRateModifier;
         
         // Random roll
-        float roll = (float) Math.random();
+        float roll = random.nextFloat();
         boolean caught = roll < finalCatchRate;
         
         System.out.println("[Pokeball] Catch attempt - HP ratio: " + hpRatio + 
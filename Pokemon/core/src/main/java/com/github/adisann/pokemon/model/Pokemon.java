@@ -53,6 +53,10 @@ public class Pokemon implements Json.Serializable {
 		}
 	}
 
+	public PokemonSpecies getSpecies() {
+		return species;
+	}
+
 	public String getSpriteName() {
 		return species.spriteName();
 	}
@@ -1,5 +1,7 @@
 package com.github.adisann.pokemon.model;
 
+import com.github.adisann.pokemon.util.RandomStream;
+
 public enum StatusCondition {
     NONE,
     BURN,
@@ -8,12 +10,12 @@ public enum StatusCondition {
     POISON,
     SLEEP;
 
-    public boolean canMove() {
+    public boolean canMove(RandomStream random) {
         // Simple logic stub
         if (this == FREEZE || this == SLEEP)
             return false;
         if (this == PARALYSIS)
-            return Math.random() > 0.25;
+            return !random.nextBoolean(0.25f);
         return true;
     }
 }
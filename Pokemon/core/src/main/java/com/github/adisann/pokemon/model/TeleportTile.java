@@ -18,6 +18,7 @@ import com.github.adisann.pokemon.model.world.WorldObject;
 import com.github.adisann.pokemon.model.world.cutscene.ActorWalkEvent;
 import com.github.adisann.pokemon.model.world.cutscene.CutscenePlayer;
 import com.github.adisann.pokemon.model.world.cutscene.DialogueEvent;
+import com.github.adisann.pokemon.model.world.cutscene.TeleportEvent;
 import com.github.adisann.pokemon.worldloader.LTerrain;
 
 /**
@@ -94,6 +95,21 @@ public class TeleportTile extends Tile {
 		return actions.isEmpty() ? null : actions;
 	}
 
+	/**
+	 * @return	Name of the world this tile leads to
+	 */
+	public String getDestinationWorld() {
+		return worldName;
+	}
+
+	public int getDestinationX() {
+		return destX;
+	}
+
+	public int getDestinationY() {
+		return destY;
+	}
+
 	@Override
 	public void actorStep(Actor a) {
 	}
@@ -129,8 +145,21 @@ public class TeleportTile extends Tile {
 			}
 		}
 
+		// May be on the simulation thread, the destination is looked at once the cutscenes get here
+		cutscenes.queueEvent(new TeleportEvent(this, a, movementDirection));
+
+		return false;
+	}
+
+	/**
+	 * Queues the events of the transition to the destination, loading it if needed.
+	 * Call on the GL thread, see TeleportEvent.
+	 * 
+	 * @param movementDirection The direction the actor stepped onto this tile in
+	 */
+	public void queueTransition(Actor a, CutscenePlayer cutscenes, DIRECTION movementDirection) {
 		// Determine the appropriate transition strategy
-		TransitionStrategy strategy = determineTransitionStrategy(cutscenes, playerActor);
+		TransitionStrategy strategy = determineTransitionStrategy(cutscenes);
 		
 		// Get door references if applicable
 		Door sourceDoor = getSourceDoor();
@@ -140,8 +169,6 @@ public class TeleportTile extends Tile {
 		System.out.println("Initiating teleport to " + worldName + " using " + strategy.getClass().getSimpleName());
 		strategy.queueTransitionEvents(a, cutscenes, movementDirection, destFacing, 
 		                                worldName, destX, destY, color, sourceDoor, targetDoor);
-
-		return false;
 	}
 
 	/**
@@ -174,10 +201,9 @@ public class TeleportTile extends Tile {
 	 * Determine which transition strategy to use based on context.
 	 * 
 	 * @param cutscenes The cutscene player
-	 * @param player The player actor
 	 * @return The appropriate transition strategy
 	 */
-	private TransitionStrategy determineTransitionStrategy(CutscenePlayer cutscenes, PlayerActor player) {
+	private TransitionStrategy determineTransitionStrategy(CutscenePlayer cutscenes) {
 		Door sourceDoor = getSourceDoor();
 		Door targetDoor = getTargetDoor(cutscenes);
 
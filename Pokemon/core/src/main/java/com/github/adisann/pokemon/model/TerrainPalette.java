@@ -0,0 +1,32 @@
+package com.github.adisann.pokemon.model;
+
+import com.github.adisann.pokemon.worldloader.LTerrain;
+
+/**
+ * Maps LTerrains to the short ids stored by CompactTileChunk. Id 0 means no terrain.
+ * */
+class TerrainPalette {
+	
+	private LTerrain[] terrains = new LTerrain[16];
+	
+	public short idOf(LTerrain terrain) {
+		if (terrain == null) {
+			return 0;
+		}
+		int id = terrain.getId() + 1;
+		if (id > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many terrains for a compact TileMap: "+terrain.getImageName());
+		}
+		if (id >= terrains.length) {
+			LTerrain[] grown = new LTerrain[Math.max(id + 1, terrains.length * 2)];
+			System.arraycopy(terrains, 0, grown, 0, terrains.length);
+			terrains = grown;
+		}
+		terrains[id] = terrain;
+		return (short) id;
+	}
+	
+	public LTerrain get(short id) {
+		return terrains[id];
+	}
+}
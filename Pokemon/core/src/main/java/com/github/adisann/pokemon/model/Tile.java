@@ -12,6 +12,10 @@ public class Tile {
 	private Actor actor;
 	
 	private boolean walkable = true;
+	
+	/* chunk holding this tile, told when the tile changes */
+	private TileChunk chunk;
+	private int chunkIndex;
 
 	public Tile(LTerrain terrain) {
 		this.terrain = terrain;
@@ -19,10 +23,21 @@ public class Tile {
 	
 	public void setTerrain(LTerrain terrain) {
 		this.terrain = terrain;
+		if (chunk != null) {
+			chunk.terrainChanged();
+		}
+	}
+	
+	void setChunk(TileChunk chunk, int chunkIndex) {
+		this.chunk = chunk;
+		this.chunkIndex = chunkIndex;
 	}
 	
 	public void setWalkable(boolean walkable) {
 		this.walkable = walkable;
+		if (chunk != null) {
+			chunk.walkabilityChanged(chunkIndex);
+		}
 	}
 
 	public LTerrain getTerrain() {
@@ -35,6 +50,9 @@ public class Tile {
 
 	public void setActor(Actor actor) {
 		this.actor = actor;
+		if (chunk != null) {
+			chunk.passabilityChanged(chunkIndex);
+		}
 	}
 
 	public WorldObject getObject() {
@@ -43,6 +61,9 @@ public class Tile {
 
 	public void setObject(WorldObject object) {
 		this.object = object;
+		if (chunk != null) {
+			chunk.passabilityChanged(chunkIndex);
+		}
 	}
 	
 	public boolean walkable() {
@@ -0,0 +1,136 @@
+package com.github.adisann.pokemon.model;
+
+import com.github.adisann.pokemon.model.actor.Actor;
+import com.github.adisann.pokemon.model.world.WorldObject;
+import com.github.adisann.pokemon.worldloader.LTerrain;
+
+/**
+ * Fixed-size square block of Tiles. The TileMap is split into these so renderers
+ * can skip whole blocks that are outside the camera.
+ * 
+ * Subclasses decide how the tiles are stored, see ObjectTileChunk and CompactTileChunk.
+ * */
+public abstract class TileChunk {
+	
+	private TileMap map;
+	private int originX, originY;
+	private int width, height;
+	
+	/* bumped whenever the terrain of a tile in this chunk changes */
+	private int terrainVersion;
+	/* bumped whenever the terrain or walkability of a tile in this chunk changes */
+	private int editVersion;
+	
+	/**
+	 * @param map		Map this chunk is part of
+	 * @param originX	World coord of the lower left tile in this chunk
+	 * @param originY
+	 * @param width		Size in tiles, smaller than TileMap.CHUNK_SIZE on the map edges
+	 * @param height
+	 */
+	public TileChunk(TileMap map, int originX, int originY, int width, int height) {
+		this.map = map;
+		this.originX = originX;
+		this.originY = originY;
+		this.width = width;
+		this.height = height;
+	}
+	
+	/**
+	 * @param localX	Coord relative to the chunk origin
+	 * @param localY
+	 */
+	public abstract Tile getTile(int localX, int localY);
+	
+	public abstract void setTile(Tile tile, int localX, int localY);
+	
+	/**
+	 * Same as getTile(localX, localY).getTerrain(), without going through a Tile.
+	 * 
+	 * @return	null for cells without a tile
+	 */
+	public abstract LTerrain getTerrain(int localX, int localY);
+	
+	/**
+	 * Same as getTile(localX, localY).walkable(), without going through a Tile.
+	 * 
+	 * @return	false for cells without a tile
+	 */
+	public abstract boolean isWalkable(int localX, int localY);
+	
+	/**
+	 * Same as getTile(localX, localY).getActor(), without going through a Tile.
+	 * 
+	 * @return	null for cells without a tile
+	 */
+	public abstract Actor getActor(int localX, int localY);
+	
+	/**
+	 * Same as getTile(localX, localY).getObject(), without going through a Tile.
+	 * 
+	 * @return	null for cells without a tile
+	 */
+	public abstract WorldObject getObject(int localX, int localY);
+	
+	/**
+	 * Called when the terrain of a tile in this chunk is replaced.
+	 */
+	void terrainChanged() {
+		terrainVersion++;
+		editVersion++;
+	}
+	
+	/**
+	 * Called when a tile in this chunk is made walkable or unwalkable.
+	 * 
+	 * @param index	See #index(int, int)
+	 */
+	void walkabilityChanged(int index) {
+		editVersion++;
+		passabilityChanged(index);
+	}
+	
+	/**
+	 * Called when walkability, actor or object of a tile in this chunk changes.
+	 * 
+	 * @param index	See #index(int, int)
+	 */
+	void passabilityChanged(int index) {
+		map.refreshPassability(originX + index % TileMap.CHUNK_SIZE, originY + index / TileMap.CHUNK_SIZE);
+	}
+	
+	/**
+	 * Renderers caching the terrain of this chunk compare this against the version they built from.
+	 */
+	public int getTerrainVersion() {
+		return terrainVersion;
+	}
+	
+	/**
+	 * Compare against an earlier value to tell if the terrain or walkability of any tile
+	 * in this chunk changed since.
+	 */
+	public int getEditVersion() {
+		return editVersion;
+	}
+	
+	protected static int index(int localX, int localY) {
+		return localY * TileMap.CHUNK_SIZE + localX;
+	}
+	
+	public int getOriginX() {
+		return originX;
+	}
+	
+	public int getOriginY() {
+		return originY;
+	}
+	
+	public int getWidth() {
+		return width;
+	}
+	
+	public int getHeight() {
+		return height;
+	}
+}
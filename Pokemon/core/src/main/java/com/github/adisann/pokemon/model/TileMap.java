@@ -1,23 +1,127 @@
 package com.github.adisann.pokemon.model;
 
-/** */
+import com.github.adisann.pokemon.model.actor.Actor;
+import com.github.adisann.pokemon.model.world.WorldObject;
+
+/**
+ * Grid of Tiles, stored as fixed-size TileChunks.
+ * 
+ * The default storage keeps a Tile object per cell. The compact storage packs plain
+ * tiles into primitive arrays, which needs far less memory on large maps.
+ * */
 public class TileMap {
 	
+	/** Size of a chunk in tiles. Must be a power of two. */
+	public static final int CHUNK_SIZE = 16;
+	private static final int CHUNK_SHIFT = 4;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	
 	private int width, height;
-	private Tile[][] tiles;
+	private int chunksX, chunksY;
+	private TileChunk[][] chunks;
+	private PassabilityMap passability;
 	
 	public TileMap(int width, int height) {
+		this(width, height, false);
+	}
+	
+	/**
+	 * @param compact	Store tiles in CompactTileChunks instead of ObjectTileChunks
+	 */
+	public TileMap(int width, int height, boolean compact) {
 		this.width = width;
 		this.height = height;
-		tiles = new Tile[width][height];
+		this.chunksX = (width + CHUNK_MASK) >> CHUNK_SHIFT;
+		this.chunksY = (height + CHUNK_MASK) >> CHUNK_SHIFT;
+		passability = new PassabilityMap(width, height);
+		chunks = new TileChunk[chunksX][chunksY];
+		TerrainPalette palette = compact ? new TerrainPalette() : null;
+		for (int cx = 0; cx < chunksX; cx++) {
+			for (int cy = 0; cy < chunksY; cy++) {
+				int originX = cx << CHUNK_SHIFT;
+				int originY = cy << CHUNK_SHIFT;
+				int chunkWidth = Math.min(CHUNK_SIZE, width - originX);
+				int chunkHeight = Math.min(CHUNK_SIZE, height - originY);
+				if (compact) {
+					chunks[cx][cy] = new CompactTileChunk(this, originX, originY, chunkWidth, chunkHeight, palette);
+				} else {
+					chunks[cx][cy] = new ObjectTileChunk(this, originX, originY, chunkWidth, chunkHeight);
+				}
+			}
+		}
 	}
 	
 	public Tile getTile(int x, int y) {
-		return tiles[x][y];
+		return chunks[x >> CHUNK_SHIFT][y >> CHUNK_SHIFT].getTile(x & CHUNK_MASK, y & CHUNK_MASK);
 	}
 	
 	public void setTile(Tile tile, int x, int y) {
-		tiles[x][y] = tile;
+		chunks[x >> CHUNK_SHIFT][y >> CHUNK_SHIFT].setTile(tile, x & CHUNK_MASK, y & CHUNK_MASK);
+	}
+	
+	/**
+	 * Same as getTile(x, y).walkable(), without going through a Tile, see TileChunk.
+	 * 
+	 * @return	false for cells without a tile
+	 */
+	public boolean isWalkable(int x, int y) {
+		return chunks[x >> CHUNK_SHIFT][y >> CHUNK_SHIFT].isWalkable(x & CHUNK_MASK, y & CHUNK_MASK);
+	}
+	
+	public Actor getActor(int x, int y) {
+		return chunks[x >> CHUNK_SHIFT][y >> CHUNK_SHIFT].getActor(x & CHUNK_MASK, y & CHUNK_MASK);
+	}
+	
+	public WorldObject getObject(int x, int y) {
+		return chunks[x >> CHUNK_SHIFT][y >> CHUNK_SHIFT].getObject(x & CHUNK_MASK, y & CHUNK_MASK);
+	}
+	
+	/**
+	 * Tests if an Actor may step onto a tile. Same as checking the Tile, its Actor and its
+	 * WorldObject, but only a bit test. Doesn't consult Tile#actorBeforeStep.
+	 * 
+	 * @return	false for coords outside the map
+	 */
+	public boolean isPassable(int x, int y) {
+		return passability.isPassable(x, y);
+	}
+	
+	public PassabilityMap getPassability() {
+		return passability;
+	}
+	
+	void refreshPassability(int x, int y) {
+		TileChunk chunk = chunks[x >> CHUNK_SHIFT][y >> CHUNK_SHIFT];
+		int localX = x & CHUNK_MASK;
+		int localY = y & CHUNK_MASK;
+		WorldObject object = chunk.getObject(localX, localY);
+		boolean blocked = !chunk.isWalkable(localX, localY)
+				|| chunk.getActor(localX, localY) != null
+				|| (object != null && !object.isWalkable());
+		passability.setBlocked(x, y, blocked);
+	}
+	
+	/**
+	 * @param cx	Chunk coords, see #toChunk(int)
+	 * @param cy
+	 */
+	public TileChunk getChunk(int cx, int cy) {
+		return chunks[cx][cy];
+	}
+	
+	/**
+	 * Converts a tile coord into the coord of the chunk containing it.
+	 */
+	public static int toChunk(int tile) {
+		return tile >> CHUNK_SHIFT;
+	}
+	
+	public int getChunksX() {
+		return chunksX;
+	}
+	
+	public int getChunksY() {
+		return chunksY;
 	}
 	
 	public int getWidth() {
@@ -27,4 +131,4 @@ public class TileMap {
 	public int getHeight() {
 		return height;
 	}
-}
\ No newline at end of file
+}
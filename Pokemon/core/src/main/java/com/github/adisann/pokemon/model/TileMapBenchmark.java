@@ -0,0 +1,158 @@
+package com.github.adisann.pokemon.model;
+
+import java.io.File;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.XmlReader;
+import com.badlogic.gdx.utils.XmlReader.Element;
+import com.github.adisann.pokemon.util.RandomStream;
+import com.github.adisann.pokemon.worldloader.LTerrain;
+
+/**
+ * Times the terrain pass of the WorldRenderer without drawing, on maps of growing size.
+ *
+ * For a view of VIEW_WIDTH x VIEW_HEIGHT tiles, visits every tile of the map as the
+ * renderer used to, and only the chunks overlapping the view as it does now. Prints the
+ * nanoseconds per frame of each. Needs no GL, the regions the renderer would draw are
+ * looked up but not drawn.
+ *
+ * Given the assets folder, the terrains are the ones of LTerrain.xml, and the visible tiles
+ * are also timed looking up their region by name in tilepack.atlas, as the renderer did
+ * before regions were resolved when LTerrain.xml loads.
+ *
+ * Usage: TileMapBenchmark [--compact] [assets folder]
+ * */
+public class TileMapBenchmark {
+
+	private static final int[][] SIZES = { { 24, 22 }, { 250, 250 }, { 1000, 1000 }, { 2000, 2000 } };
+
+	/** Tiles on a 1280x960 screen at the default scale */
+	public static final int VIEW_WIDTH = 20, VIEW_HEIGHT = 15;
+
+	private static final int TERRAINS = 8;
+	private static final int FRAMES = 200;
+
+	/* keeps the JIT from dropping the lookups */
+	private static long sink;
+
+	/* regions of tilepack.atlas, for the lookups by name */
+	private static Array<TextureAtlasData.Region> regions;
+
+	public static void main(String[] args) {
+		boolean compact = args.length > 0 && args[0].equals("--compact");
+		String assets = args.length > (compact ? 1 : 0) ? args[args.length - 1] : null;
+		LTerrain[] terrains;
+		if (assets == null) {
+			terrains = new LTerrain[TERRAINS];
+			for (int i = 0; i < TERRAINS; i++) {
+				terrains[i] = new LTerrain(i, "terrain" + i);
+			}
+		} else {
+			terrains = readTerrains(new FileHandle(new File(assets, "LTerrain.xml")));
+			FileHandle atlas = new FileHandle(new File(assets, "graphics_packed/tiles/tilepack.atlas"));
+			regions = new TextureAtlasData(atlas, atlas.parent(), false).getRegions();
+		}
+		System.out.println((compact ? "Compact" : "Object") + " tile map, view of " + VIEW_WIDTH + "x" + VIEW_HEIGHT + " tiles");
+		System.out.println("map\t\tevery tile\tvisible chunks" + (regions != null ? "\tvisible, by name" : "")
+				+ "\t(ns per frame)");
+		for (int[] size : SIZES) {
+			TileMap map = fill(size[0], size[1], terrains, compact);
+			/* once to warm up, then timed */
+			timeAll(map);
+			timeVisible(map, false);
+			long all = timeAll(map);
+			long visible = timeVisible(map, false);
+			String line = String.format("%dx%d\t%s%d\t\t%d", size[0], size[1], size[0] < 1000 ? "\t" : "", all, visible);
+			if (regions != null) {
+				timeVisible(map, true);
+				line += "\t\t" + timeVisible(map, true);
+			}
+			System.out.println(line);
+		}
+		if (sink == 42) {
+			System.out.println();
+		}
+	}
+
+	private static LTerrain[] readTerrains(FileHandle file) {
+		Array<Element> elements = new XmlReader().parse(file).getChildrenByName("terrain");
+		LTerrain[] terrains = new LTerrain[elements.size];
+		for (int i = 0; i < elements.size; i++) {
+			terrains[i] = new LTerrain(i, elements.get(i).getChildByName("imageName").getText());
+		}
+		return terrains;
+	}
+
+	private static TileMap fill(int width, int height, LTerrain[] terrains, boolean compact) {
+		RandomStream random = new RandomStream(0);
+		TileMap map = new TileMap(width, height, compact);
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				map.setTile(new Tile(terrains[random.nextInt(terrains.length)]), x, y);
+			}
+		}
+		return map;
+	}
+
+	private static long timeAll(TileMap map) {
+		long start = System.nanoTime();
+		for (int frame = 0; frame < FRAMES; frame++) {
+			for (int x = 0; x < map.getWidth(); x++) {
+				for (int y = 0; y < map.getHeight(); y++) {
+					look(map.getTile(x, y).getTerrain());
+				}
+			}
+		}
+		return (System.nanoTime() - start) / FRAMES;
+	}
+
+	/* same chunk range as WorldRenderer#renderTerrain, with the view moving a tile per frame */
+	private static long timeVisible(TileMap map, boolean byName) {
+		long start = System.nanoTime();
+		for (int frame = 0; frame < FRAMES; frame++) {
+			int viewMinX = Math.max(0, (map.getWidth() - VIEW_WIDTH) / 2 + frame % 8);
+			int viewMinY = Math.max(0, (map.getHeight() - VIEW_HEIGHT) / 2);
+			int minChunkX = TileMap.toChunk(viewMinX);
+			int minChunkY = TileMap.toChunk(viewMinY);
+			int maxChunkX = Math.min(map.getChunksX() - 1, TileMap.toChunk(viewMinX + VIEW_WIDTH));
+			int maxChunkY = Math.min(map.getChunksY() - 1, TileMap.toChunk(viewMinY + VIEW_HEIGHT));
+			for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+				for (int cy = minChunkY; cy <= maxChunkY; cy++) {
+					TileChunk chunk = map.getChunk(cx, cy);
+					for (int lx = 0; lx < chunk.getWidth(); lx++) {
+						for (int ly = 0; ly < chunk.getHeight(); ly++) {
+							if (byName) {
+								lookByName(chunk.getTerrain(lx, ly));
+							} else {
+								look(chunk.getTerrain(lx, ly));
+							}
+						}
+					}
+				}
+			}
+		}
+		return (System.nanoTime() - start) / FRAMES;
+	}
+
+	private static void look(LTerrain terrain) {
+		if (terrain.getRegion() == null) { // no GL, so no regions
+			sink += terrain.getId();
+		}
+	}
+
+	/* what TextureAtlas#findRegion does, without loading the texture */
+	private static void lookByName(LTerrain terrain) {
+		String name = terrain.getImageName();
+		if (name == null || name.isEmpty()) {
+			return;
+		}
+		for (int i = 0, n = regions.size; i < n; i++) {
+			if (regions.get(i).name.equals(name)) {
+				sink += i;
+				return;
+			}
+		}
+	}
+}
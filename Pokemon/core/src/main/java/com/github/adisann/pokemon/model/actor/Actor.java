@@ -6,7 +6,6 @@ import com.github.adisann.pokemon.dialogue.Dialogue;
 import com.github.adisann.pokemon.model.DIRECTION;
 import com.github.adisann.pokemon.model.YSortable;
 import com.github.adisann.pokemon.model.world.World;
-import com.github.adisann.pokemon.model.world.WorldObject;
 import com.github.adisann.pokemon.util.AnimationSet;
 
 /** */
@@ -19,6 +18,7 @@ public class Actor implements YSortable {
 	private boolean visible = true;
 
 	private float worldX, worldY;
+	private float lastWorldX, lastWorldY; // position before the last update, for render interpolation
 
 	// For callbacks to World
 	private ActorObserver observer;
@@ -53,6 +53,8 @@ public class Actor implements YSortable {
 		this.y = y;
 		this.worldX = x;
 		this.worldY = y;
+		this.lastWorldX = x;
+		this.lastWorldY = y;
 		this.animations = animations;
 		this.currentMode = MOVEMENT_MODE.WALKING;
 		this.nextMode = MOVEMENT_MODE.WALKING;
@@ -75,6 +77,8 @@ public class Actor implements YSortable {
 	}
 
 	public void update(float delta) {
+		lastWorldX = worldX;
+		lastWorldY = worldY;
 		if (state == MOVEMENT_STATE.MOVING) {
 			animTimer += delta;
 			moveTimer += delta;
@@ -155,30 +159,11 @@ public class Actor implements YSortable {
 			}
 			return false;
 		}
-		// edge of world test
-		if (x + dir.getDX() >= world.getMap().getWidth() || x + dir.getDX() < 0
-				|| y + dir.getDY() >= world.getMap().getHeight() || y + dir.getDY() < 0) {
+		// edge of world, unwalkable tile, actor and object test
+		if (!world.getMap().isPassable(x + dir.getDX(), y + dir.getDY())) {
 			reface(dir);
 			return false;
 		}
-		// unwalkable tile test
-		if (!world.getMap().getTile(x + dir.getDX(), y + dir.getDY()).walkable()) {
-			reface(dir);
-			return false;
-		}
-		// actor test
-		if (world.getMap().getTile(x + dir.getDX(), y + dir.getDY()).getActor() != null) {
-			reface(dir);
-			return false;
-		}
-		// object test
-		if (world.getMap().getTile(x + dir.getDX(), y + dir.getDY()).getObject() != null) {
-			WorldObject o = world.getMap().getTile(x + dir.getDX(), y + dir.getDY()).getObject();
-			if (!o.isWalkable()) {
-				reface(dir);
-				return false;
-			}
-		}
 		if (world.getMap().getTile(x + dir.getDX(), y + dir.getDY()).actorBeforeStep(this) == true) {
 			initializeMove(dir);
 			world.getMap().getTile(x, y).setActor(null);
@@ -202,30 +187,11 @@ public class Actor implements YSortable {
 			}
 			return false;
 		}
-		// edge of world test
-		if (x + dir.getDX() >= world.getMap().getWidth() || x + dir.getDX() < 0
-				|| y + dir.getDY() >= world.getMap().getHeight() || y + dir.getDY() < 0) {
-			reface(dir);
-			return false;
-		}
-		// unwalkable tile test
-		if (!world.getMap().getTile(x + dir.getDX(), y + dir.getDY()).walkable()) {
-			reface(dir);
-			return false;
-		}
-		// actor test
-		if (world.getMap().getTile(x + dir.getDX(), y + dir.getDY()).getActor() != null) {
+		// edge of world, unwalkable tile, actor and object test
+		if (!world.getMap().isPassable(x + dir.getDX(), y + dir.getDY())) {
 			reface(dir);
 			return false;
 		}
-		// object test
-		if (world.getMap().getTile(x + dir.getDX(), y + dir.getDY()).getObject() != null) {
-			WorldObject o = world.getMap().getTile(x + dir.getDX(), y + dir.getDY()).getObject();
-			if (!o.isWalkable()) {
-				reface(dir);
-				return false;
-			}
-		}
 		initializeMove(dir);
 		world.getMap().getTile(x, y).setActor(null);
 		x += dir.getDX();
@@ -245,6 +211,7 @@ public class Actor implements YSortable {
 		animTimer = 0f;
 		state = MOVEMENT_STATE.MOVING;
 		this.currentMode = this.nextMode;
+		observer.actorBeforeMoved(this, dir);
 	}
 
 	private void finishMove() {
@@ -255,6 +222,7 @@ public class Actor implements YSortable {
 		this.srcY = 0;
 		this.destX = 0;
 		this.destY = 0;
+		observer.actorMoved(this, facing, x, y);
 		if (!noMoveNotifications) {
 			world.getMap().getTile(x, y).actorStep(this);
 		} else {
@@ -270,6 +238,8 @@ public class Actor implements YSortable {
 		this.y = y;
 		this.worldX = x;
 		this.worldY = y;
+		this.lastWorldX = x;
+		this.lastWorldY = y;
 	}
 
 	public int getX() {
@@ -288,6 +258,21 @@ public class Actor implements YSortable {
 		return worldY;
 	}
 
+	/**
+	 * @param alpha	How far rendering is between the last update and the next one, from 0 to 1
+	 * @return		Position to draw at, between the last two logic states
+	 */
+	public float getRenderX(float alpha) {
+		return lastWorldX + (worldX - lastWorldX) * alpha;
+	}
+
+	/**
+	 * @see #getRenderX(float)
+	 */
+	public float getRenderY(float alpha) {
+		return lastWorldY + (worldY - lastWorldY) * alpha;
+	}
+
 	public TextureRegion getSprite() {
 		if (currentMode == MOVEMENT_MODE.WALKING) {
 			if (state == MOVEMENT_STATE.MOVING) {
@@ -331,7 +316,7 @@ public class Actor implements YSortable {
 		this.world.removeActor(this);
 		this.setCoords(newX, newY);
 		this.world = world;
-		this.world.addActor(this);
+		this.observer = world;
 
 		// Reset movement state
 		this.state = MOVEMENT_STATE.STILL;
@@ -342,6 +327,8 @@ public class Actor implements YSortable {
 		this.animTimer = 0f;
 		this.moveTimer = 0f;
 		this.moveRequestThisFrame = false;
+
+		this.world.addActor(this);
 	}
 
 	public MOVEMENT_STATE getMovementState() {
@@ -1,5 +1,7 @@
 package com.github.adisann.pokemon.model.actor;
 
+import com.github.adisann.pokemon.model.PassabilityMap;
+
 /** */
 public abstract class ActorBehavior {
 	
@@ -15,8 +17,52 @@ public abstract class ActorBehavior {
 	 */
 	public abstract void update(float delta);
 	
+	/**
+	 * Behaviors that split their update into #plan and #commit are updated in two phases by the
+	 * World: first all of them plan, in parallel when there are many, then they commit one by one
+	 * in the order their actors were added to the world.
+	 * 
+	 * @return	If #plan and #commit are implemented
+	 */
+	public boolean isPlanned() {
+		return false;
+	}
+	
+	/**
+	 * Decides what to do next. May run on a worker thread next to the plans of other actors, so it
+	 * must not change anything but this behavior, and only read the world through the passability.
+	 * @param delta	Seconds since last update
+	 */
+	public void plan(float delta, PassabilityMap passability) {
+	}
+	
+	/**
+	 * Carries out what #plan decided. Runs on the update thread, after the commits of the actors
+	 * added to the world before this one, so a move may fail because another actor just took
+	 * the tile.
+	 */
+	public void commit() {
+	}
+	
+	/**
+	 * Called before the World of the actor is unloaded, see WorldStreamer. When the world is
+	 * loaded again, its new actor and behavior go on from here with #restoreState.
+	 * 
+	 * @return	What this behavior changed since it was made, null if nothing. Must not refer to
+	 * 			the actor or its world, they are thrown away.
+	 */
+	public Object saveState() {
+		return null;
+	}
+	
+	/**
+	 * @param state	From #saveState of the behavior of the same actor, of the same class
+	 */
+	public void restoreState(Object state) {
+	}
+	
 	protected Actor getActor() {
 		return actor;
 	}
 
-}
\ No newline at end of file
+}
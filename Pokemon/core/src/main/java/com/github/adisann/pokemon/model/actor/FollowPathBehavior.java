@@ -0,0 +1,115 @@
+package com.github.adisann.pokemon.model.actor;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.github.adisann.pokemon.model.DIRECTION;
+import com.github.adisann.pokemon.model.actor.Actor.MOVEMENT_STATE;
+import com.github.adisann.pokemon.model.world.Pathfinder;
+
+/**
+ * Behavior that walks an Actor to a tile, along a path from the Pathfinder of its World.
+ * 
+ * When something steps into the way, the actor waits a moment and looks for a new path.
+ * It gives up after a few searches in a row find nothing.
+ * 
+ * Uses the Pathfinder, so it is updated on the update thread instead of planned in parallel.
+ * */
+public class FollowPathBehavior extends ActorBehavior {
+	
+	private static final float RETRY_TIME = 0.5f;
+	private static final int MAX_FAILED_SEARCHES = 10;
+	
+	private int targetX, targetY;
+	private boolean tileNotifications = true;
+	
+	private IntArray path = new IntArray();
+	private int next;
+	private boolean hasPath = false;
+	
+	private float waitTimer = 0f;
+	private int failedSearches = 0;
+	private boolean finished = false;
+	
+	public FollowPathBehavior(Actor actor, int targetX, int targetY) {
+		super(actor);
+		this.targetX = targetX;
+		this.targetY = targetY;
+	}
+	
+	@Override
+	public void update(float delta) {
+		if (isFinished() || getActor().getMovementState() != MOVEMENT_STATE.STILL) {
+			return;
+		}
+		if (getActor().getX() == targetX && getActor().getY() == targetY) {
+			finished = true;
+			return;
+		}
+		if (waitTimer > 0f) {
+			waitTimer -= delta;
+			return;
+		}
+		Pathfinder pathfinder = getActor().getWorld().getPathfinder();
+		if (!hasPath || next >= path.size) {
+			hasPath = pathfinder.findPath(getActor().getX(), getActor().getY(), targetX, targetY, path);
+			next = 0;
+			if (!hasPath) {
+				failedSearches++;
+				waitTimer = RETRY_TIME;
+				return;
+			}
+			failedSearches = 0;
+		}
+		
+		int tile = path.get(next);
+		DIRECTION dir = direction(pathfinder.toX(tile) - getActor().getX(), pathfinder.toY(tile) - getActor().getY());
+		if (dir == null) { // moved off the path by something else
+			hasPath = false;
+			return;
+		}
+		boolean moved = tileNotifications ? getActor().move(dir) : getActor().moveWithoutNotifications(dir);
+		if (moved) {
+			next++;
+		} else {
+			hasPath = false;
+			waitTimer = RETRY_TIME;
+		}
+	}
+	
+	/**
+	 * Steps are taken with Actor#moveWithoutNotifications when off, like cutscenes do.
+	 */
+	public void setTileNotifications(boolean tileNotifications) {
+		this.tileNotifications = tileNotifications;
+	}
+	
+	/**
+	 * @return	If the actor reached the target, or gave up on it
+	 */
+	public boolean isFinished() {
+		return finished || failedSearches >= MAX_FAILED_SEARCHES;
+	}
+	
+	/**
+	 * @return	If the actor is on the target tile
+	 */
+	public boolean hasArrived() {
+		return finished;
+	}
+	
+	public int getTargetX() {
+		return targetX;
+	}
+	
+	public int getTargetY() {
+		return targetY;
+	}
+	
+	private static DIRECTION direction(int dx, int dy) {
+		for (DIRECTION dir : DIRECTION.values()) {
+			if (dir.getDX() == dx && dir.getDY() == dy) {
+				return dir;
+			}
+		}
+		return null;
+	}
+}
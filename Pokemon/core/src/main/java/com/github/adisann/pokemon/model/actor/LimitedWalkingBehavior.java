@@ -1,27 +1,44 @@
 package com.github.adisann.pokemon.model.actor;
 
-import java.util.Random;
-
 import com.badlogic.gdx.math.GridPoint2;
 import com.github.adisann.pokemon.model.DIRECTION;
+import com.github.adisann.pokemon.model.PassabilityMap;
 import com.github.adisann.pokemon.model.actor.Actor.MOVEMENT_STATE;
+import com.github.adisann.pokemon.util.RandomStream;
 
 /**
  * Behavior that will make an Actor walk around it's initial position randomly. 
+ * 
+ * Plans its steps in parallel with other actors, see ActorBehavior#plan. Give every behavior
+ * a RandomStream of its own, split from World#getRandom(). A stream shared between behaviors
+ * is a data race, SplittableRandom is not thread safe, and where the actors walk would depend
+ * on the order the workers draw numbers in.
  * */
 public class LimitedWalkingBehavior extends ActorBehavior {
 	
 	private float moveIntervalMinimum;
 	private float moveIntervalMaximum;
-	private Random random;
+	private RandomStream random;
 	
 	private float timer;
 	private float currentWaitTime;
 	
 	private GridPoint2 moveDelta;
 	private int limNorth, limSouth, limEast, limWest;
+	
+	/* decided by plan, carried out by commit */
+	private DIRECTION plannedDirection;
+	private boolean plannedMove;
+	
+	/* what is kept while the world is unloaded */
+	private static class State {
+		private RandomStream random;
+		private float timer;
+		private float currentWaitTime;
+		private int moveDeltaX, moveDeltaY;
+	}
 
-	public LimitedWalkingBehavior(Actor actor, int limNorth, int limSouth, int limEast, int limWest, float moveIntervalMinimum, float moveIntervalMaximum, Random random) {
+	public LimitedWalkingBehavior(Actor actor, int limNorth, int limSouth, int limEast, int limWest, float moveIntervalMinimum, float moveIntervalMaximum, RandomStream random) {
 		super(actor);
 		this.limNorth = limNorth;
 		this.limSouth = limSouth;
@@ -37,6 +54,18 @@ public class LimitedWalkingBehavior extends ActorBehavior {
 
 	@Override
 	public void update(float delta) {
+		plan(delta, getActor().getWorld().getMap().getPassability());
+		commit();
+	}
+	
+	@Override
+	public boolean isPlanned() {
+		return true;
+	}
+	
+	@Override
+	public void plan(float delta, PassabilityMap passability) {
+		plannedDirection = null;
 		if (getActor().getMovementState() != MOVEMENT_STATE.STILL) {
 			return;
 		}
@@ -44,23 +73,52 @@ public class LimitedWalkingBehavior extends ActorBehavior {
 		if (timer >= currentWaitTime) {
 			int directionIndex = random.nextInt(DIRECTION.values().length);
 			DIRECTION moveDirection = DIRECTION.values()[directionIndex];
-			if (this.moveDelta.x+moveDirection.getDX() > limEast || -(this.moveDelta.x+moveDirection.getDX()) > limWest || this.moveDelta.y+moveDirection.getDY() > limNorth || -(this.moveDelta.y+moveDirection.getDY()) > limSouth) {
-				getActor().reface(moveDirection);
-				currentWaitTime = calculateWaitTime();
-				timer = 0f;
-				return;
-			}
-			boolean moved = getActor().move(moveDirection);
-			if (moved) {
-				this.moveDelta.x += moveDirection.getDX();
-				this.moveDelta.y += moveDirection.getDY();
-			}
-			
+			plannedDirection = moveDirection;
+			plannedMove = !(this.moveDelta.x+moveDirection.getDX() > limEast || -(this.moveDelta.x+moveDirection.getDX()) > limWest || this.moveDelta.y+moveDirection.getDY() > limNorth || -(this.moveDelta.y+moveDirection.getDY()) > limSouth)
+					&& passability.isPassable(getActor().getX()+moveDirection.getDX(), getActor().getY()+moveDirection.getDY());
 			currentWaitTime = calculateWaitTime();
 			timer = 0f;
 		}
 	}
 	
+	@Override
+	public void commit() {
+		if (plannedDirection == null) {
+			return;
+		}
+		if (!plannedMove) {
+			getActor().reface(plannedDirection);
+		} else if (getActor().move(plannedDirection)) {
+			this.moveDelta.x += plannedDirection.getDX();
+			this.moveDelta.y += plannedDirection.getDY();
+		}
+		plannedDirection = null;
+	}
+	
+	/**
+	 * Keeps how far the actor walked from where it was placed, or it would walk further away
+	 * after every unload. Also keeps the stream, so the walk goes on as it would have.
+	 */
+	@Override
+	public Object saveState() {
+		State state = new State();
+		state.random = random;
+		state.timer = timer;
+		state.currentWaitTime = currentWaitTime;
+		state.moveDeltaX = moveDelta.x;
+		state.moveDeltaY = moveDelta.y;
+		return state;
+	}
+	
+	@Override
+	public void restoreState(Object saved) {
+		State state = (State) saved;
+		random = state.random;
+		timer = state.timer;
+		currentWaitTime = state.currentWaitTime;
+		moveDelta.set(state.moveDeltaX, state.moveDeltaY);
+	}
+	
 	private float calculateWaitTime() {
 		return random.nextFloat() * (moveIntervalMaximum - moveIntervalMinimum) + moveIntervalMinimum;
 	}
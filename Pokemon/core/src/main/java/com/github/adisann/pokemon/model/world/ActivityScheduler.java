@@ -0,0 +1,161 @@
+package com.github.adisann.pokemon.model.world;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import com.github.adisann.pokemon.Settings;
+import com.github.adisann.pokemon.model.actor.Actor;
+
+/**
+ * Decides how often the actors and objects of a World are updated, by distance to the view.
+ *
+ * Inside the view everything is updated every frame. In a margin around the view, updates
+ * happen every few frames with the delta accumulated since the last one. Beyond that nothing
+ * is updated, and the time spent there is dropped. Actors in the middle of a step are always
+ * updated every frame until the step is done, so an actor never sleeps between two tiles.
+ * */
+class ActivityScheduler {
+
+	private World world;
+
+	private boolean hasView = false;
+	private float viewMinX, viewMinY, viewMaxX, viewMaxY;
+
+	private long frame = 0;
+	private int nextPhase = 0;
+	private HashMap<Object, Activity> activities = new HashMap<Object, Activity>();
+
+	/* actors between two tiles, always updated */
+	private List<Actor> moving = new ArrayList<Actor>();
+
+	private List<Actor> nearActors = new ArrayList<Actor>();
+	private List<Actor> movingCopy = new ArrayList<Actor>();
+
+	private static class Activity {
+		private float pending;
+		private long lastSeen = -1;
+		private long lastUpdated = -1;
+		private int phase;
+	}
+
+	ActivityScheduler(World world) {
+		this.world = world;
+	}
+
+	void setView(float minX, float minY, float maxX, float maxY) {
+		hasView = true;
+		viewMinX = minX;
+		viewMinY = minY;
+		viewMaxX = maxX;
+		viewMaxY = maxY;
+	}
+
+	void update(float delta) {
+		frame++;
+		if (!Settings.SIMULATION_LOD || !hasView) {
+			updateAll(delta);
+			return;
+		}
+
+		movingCopy.clear();
+		movingCopy.addAll(moving);
+		for (int i = 0; i < movingCopy.size(); i++) {
+			Actor a = movingCopy.get(i);
+			Activity activity = activity(a);
+			world.updateActor(a, delta + activity.pending);
+			activity.pending = 0f;
+			activity.lastSeen = frame;
+			activity.lastUpdated = frame;
+		}
+
+		float margin = Settings.SIMULATION_MARGIN;
+		nearActors.clear();
+		world.getActorIndex().queryRange(viewMinX - margin, viewMinY - margin, viewMaxX + margin,
+				viewMaxY + margin, nearActors);
+		for (int i = 0; i < nearActors.size(); i++) {
+			Actor a = nearActors.get(i);
+			Activity activity = activity(a);
+			if (activity.lastUpdated == frame) {
+				continue;
+			}
+			float d = step(activity, inView(a.getWorldX(), a.getWorldY(), a.getSizeX(), a.getSizeY()), delta);
+			if (d >= 0f) {
+				world.updateActor(a, d);
+			}
+		}
+
+		// ambient animations run on the world's AnimationClock, only stateful objects are left
+		List<WorldObject> objects = world.getUpdatedObjects();
+		for (int i = 0; i < objects.size(); i++) {
+			WorldObject o = objects.get(i);
+			if (o.getWorldX() + o.getSizeX() < viewMinX - margin || o.getWorldX() > viewMaxX + margin
+					|| o.getWorldY() + o.getSizeY() < viewMinY - margin || o.getWorldY() > viewMaxY + margin) {
+				continue;
+			}
+			float d = step(activity(o), inView(o.getWorldX(), o.getWorldY(), o.getSizeX(), o.getSizeY()), delta);
+			if (d >= 0f) {
+				o.update(d);
+			}
+		}
+	}
+
+	/**
+	 * Accumulates the delta of something that is near the view.
+	 *
+	 * @return	The delta to update it with this frame, or -1 if it is not updated this frame
+	 */
+	private float step(Activity activity, boolean inView, float delta) {
+		if (activity.lastSeen != frame - 1) {
+			activity.pending = 0f; // was dormant, that time is not made up for
+		}
+		activity.lastSeen = frame;
+		activity.pending += delta;
+		if (!inView && (frame + activity.phase) % Math.max(1, Settings.SIMULATION_COARSE_INTERVAL) != 0) {
+			return -1f;
+		}
+		float d = activity.pending;
+		activity.pending = 0f;
+		activity.lastUpdated = frame;
+		return d;
+	}
+
+	private void updateAll(float delta) {
+		List<Actor> actors = world.getActors();
+		for (int i = 0; i < actors.size(); i++) {
+			world.updateActor(actors.get(i), delta);
+		}
+		List<WorldObject> objects = world.getUpdatedObjects();
+		for (int i = 0; i < objects.size(); i++) {
+			objects.get(i).update(delta);
+		}
+	}
+
+	private boolean inView(float x, float y, float sizeX, float sizeY) {
+		return x + sizeX >= viewMinX && x <= viewMaxX && y + sizeY >= viewMinY && y <= viewMaxY;
+	}
+
+	private Activity activity(Object o) {
+		Activity activity = activities.get(o);
+		if (activity == null) {
+			activity = new Activity();
+			// spread coarse updates over the frames of an interval
+			activity.phase = nextPhase++ % Math.max(1, Settings.SIMULATION_COARSE_INTERVAL);
+			activities.put(o, activity);
+		}
+		return activity;
+	}
+
+	void actorStartedMove(Actor a) {
+		moving.add(a);
+	}
+
+	void actorFinishedMove(Actor a) {
+		moving.remove(a);
+	}
+
+	void actorRemoved(Actor a) {
+		moving.remove(a);
+		activities.remove(a);
+	}
+}
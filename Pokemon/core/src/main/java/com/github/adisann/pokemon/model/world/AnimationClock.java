@@ -0,0 +1,70 @@
+package com.github.adisann.pokemon.model.world;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * One clock for the ambient animations of a World, like flowers swaying.
+ *
+ * Objects that play the same Animation share a SharedAnimation, whose frame is worked out
+ * once per update for all of them. Animations with state of their own, like doors, keep
+ * their own timers instead.
+ * */
+public class AnimationClock {
+
+	private double time = 0;
+
+	private List<SharedAnimation> animations = new ArrayList<SharedAnimation>();
+	private HashMap<Animation<TextureRegion>, SharedAnimation> byAnimation = new HashMap<Animation<TextureRegion>, SharedAnimation>();
+
+	/**
+	 * An Animation played by the clock. All objects using it show the same frame.
+	 */
+	public static class SharedAnimation {
+
+		private Animation<TextureRegion> animation;
+		private TextureRegion frame;
+
+		private SharedAnimation(Animation<TextureRegion> animation) {
+			this.animation = animation;
+			this.frame = animation.getKeyFrame(0f);
+		}
+
+		public TextureRegion getKeyFrame() {
+			return frame;
+		}
+	}
+
+	/**
+	 * @return	The shared instance playing this animation, created on first use
+	 */
+	public SharedAnimation share(Animation<TextureRegion> animation) {
+		SharedAnimation shared = byAnimation.get(animation);
+		if (shared == null) {
+			shared = new SharedAnimation(animation);
+			shared.frame = animation.getKeyFrame((float) time);
+			byAnimation.put(animation, shared);
+			animations.add(shared);
+		}
+		return shared;
+	}
+
+	public void update(float delta) {
+		time += delta;
+		for (int i = 0; i < animations.size(); i++) {
+			SharedAnimation shared = animations.get(i);
+			shared.frame = shared.animation.getKeyFrame((float) time);
+		}
+	}
+
+	/**
+	 * @return	Seconds this clock has run
+	 */
+	public float getTime() {
+		return (float) time;
+	}
+}
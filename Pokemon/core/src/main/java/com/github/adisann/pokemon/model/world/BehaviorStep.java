@@ -0,0 +1,119 @@
+package com.github.adisann.pokemon.model.world;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.github.adisann.pokemon.Settings;
+import com.github.adisann.pokemon.model.PassabilityMap;
+import com.github.adisann.pokemon.model.actor.Actor;
+import com.github.adisann.pokemon.model.actor.ActorBehavior;
+
+/**
+ * Updates the actors a World picked for one update, in two phases.
+ *
+ * First every planned behavior decides what to do from the passability alone. Nothing else
+ * changes in this phase, so with enough actors it runs on the common fork-join pool. Then,
+ * in the order the actors were added to the world, whatever order the ActivityScheduler picked
+ * them in, each behavior commits its plan and its actor is updated.
+ * A move into a tile an earlier actor just took fails like any blocked move, so two actors
+ * never end up on the same tile, and the outcome does not depend on how the plans were split.
+ * */
+class BehaviorStep {
+
+	/* actors planned per fork-join task */
+	private static final int TASK_SIZE = 128;
+
+	private World world;
+
+	private int size = 0;
+	private Actor[] actors = new Actor[64];
+	private ActorBehavior[] behaviors = new ActorBehavior[64];
+	private float[] deltas = new float[64];
+	/* order of each actor in the high half, its entry here in the low half, sorted to commit */
+	private long[] commits = new long[64];
+
+	BehaviorStep(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * @param order	When the actor was added to the world, see World#addActor
+	 */
+	void add(Actor a, ActorBehavior behavior, int order, float delta) {
+		if (size == actors.length) {
+			actors = Arrays.copyOf(actors, size * 2);
+			behaviors = Arrays.copyOf(behaviors, size * 2);
+			deltas = Arrays.copyOf(deltas, size * 2);
+			commits = Arrays.copyOf(commits, size * 2);
+		}
+		actors[size] = a;
+		behaviors[size] = behavior;
+		deltas[size] = delta;
+		commits[size] = ((long) order << 32) | size;
+		size++;
+	}
+
+	void run() {
+		if (size == 0) {
+			return;
+		}
+		PassabilityMap passability = world.getMap().getPassability();
+		if (size >= Settings.PARALLEL_BEHAVIOR_MIN_ACTORS) {
+			ForkJoinPool.commonPool().invoke(new Plan(passability, 0, size));
+		} else {
+			plan(passability, 0, size);
+		}
+
+		Arrays.sort(commits, 0, size);
+		for (int c = 0; c < size; c++) {
+			int i = (int) commits[c];
+			ActorBehavior behavior = behaviors[i];
+			if (behavior != null) {
+				if (behavior.isPlanned()) {
+					behavior.commit();
+				} else {
+					behavior.update(deltas[i]);
+				}
+			}
+			actors[i].update(deltas[i]);
+		}
+
+		Arrays.fill(actors, 0, size, null);
+		Arrays.fill(behaviors, 0, size, null);
+		size = 0;
+	}
+
+	private void plan(PassabilityMap passability, int from, int to) {
+		for (int i = from; i < to; i++) {
+			ActorBehavior behavior = behaviors[i];
+			if (behavior != null && behavior.isPlanned()) {
+				behavior.plan(deltas[i], passability);
+			}
+		}
+	}
+
+	private class Plan extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private PassabilityMap passability;
+		private int from, to;
+
+		private Plan(PassabilityMap passability, int from, int to) {
+			this.passability = passability;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= TASK_SIZE) {
+				plan(passability, from, to);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new Plan(passability, from, middle), new Plan(passability, middle, to));
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.github.adisann.pokemon.model.world;
+
+import java.util.List;
+
+import com.github.adisann.pokemon.Settings;
+import com.github.adisann.pokemon.model.Tile;
+import com.github.adisann.pokemon.model.actor.Actor;
+import com.github.adisann.pokemon.model.actor.LimitedWalkingBehavior;
+import com.github.adisann.pokemon.model.actor.NPCActor;
+import com.github.adisann.pokemon.util.RandomStream;
+import com.github.adisann.pokemon.worldloader.LTerrain;
+
+/**
+ * Times World#update with many randomly walking NPCs, planning their steps one after the
+ * other and on the fork-join pool, see BehaviorStep. Needs no GL.
+ *
+ * Every actor is updated every frame, as without SIMULATION_LOD. Both ways start from the
+ * same seed and must leave every actor on the same tile.
+ *
+ * Usage: BehaviorStepBenchmark [actors] [map size]
+ * */
+public class BehaviorStepBenchmark {
+
+	private static final int FRAMES = 600;
+	private static final float DELTA = 1f / 60f;
+	/* the fastest of these many runs counts */
+	private static final int PASSES = 5;
+
+	public static void main(String[] args) {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+		int size = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		Settings.SIMULATION_LOD = false;
+
+		System.out.println(count + " actors on a " + size + "x" + size + " map, " + FRAMES + " frames, "
+				+ Runtime.getRuntime().availableProcessors() + " cores");
+		System.out.println("plans\t\tus per frame");
+		long serialTime = Long.MAX_VALUE, parallelTime = Long.MAX_VALUE;
+		for (int pass = 0; pass < PASSES; pass++) {
+			Settings.PARALLEL_BEHAVIOR_MIN_ACTORS = Integer.MAX_VALUE;
+			World world = fill(count, size);
+			serialTime = Math.min(serialTime, time(world));
+			long serial = positions(world);
+
+			Settings.PARALLEL_BEHAVIOR_MIN_ACTORS = 256;
+			world = fill(count, size);
+			parallelTime = Math.min(parallelTime, time(world));
+			long parallel = positions(world);
+			if (serial != parallel) {
+				throw new IllegalStateException("The actors walked elsewhere when planned in parallel");
+			}
+		}
+		System.out.println("one by one\t" + serialTime / FRAMES / 1000);
+		System.out.println("fork-join\t" + parallelTime / FRAMES / 1000);
+	}
+
+	private static World fill(int count, int size) {
+		LTerrain grass = new LTerrain(0, "grass");
+		World world = new World("benchmark", size, size, 0, 0);
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				world.getMap().setTile(new Tile(grass), x, y);
+			}
+		}
+		world.setRandom(new RandomStream(0));
+		RandomStream placement = new RandomStream(1);
+		for (int i = 0; i < count; i++) {
+			int x = placement.nextInt(size), y = placement.nextInt(size);
+			if (world.getMap().getTile(x, y).getActor() != null) {
+				i--;
+				continue;
+			}
+			NPCActor npc = new NPCActor(world, x, y, null);
+			world.addActor(npc, new LimitedWalkingBehavior(npc, 3, 3, 3, 3, 0.2f, 1f, world.getRandom().split()));
+		}
+		return world;
+	}
+
+	private static long time(World world) {
+		long start = System.nanoTime();
+		for (int frame = 0; frame < FRAMES; frame++) {
+			world.update(DELTA);
+		}
+		return System.nanoTime() - start;
+	}
+
+	/* a hash of where every actor stands */
+	private static long positions(World world) {
+		long hash = 0;
+		List<Actor> actors = world.getActors();
+		for (int i = 0; i < actors.size(); i++) {
+			hash = hash * 31 + actors.get(i).getX() * 100003L + actors.get(i).getY();
+		}
+		return hash;
+	}
+}
@@ -37,6 +37,14 @@ public class Door extends WorldObject {
 		state = STATE.CLOSING;
 	}
 	
+	/**
+	 * Opens or closes the door at once, without animating.
+	 */
+	public void setOpen(boolean open) {
+		state = open ? STATE.OPEN : STATE.CLOSED;
+		animationTimer = 0f;
+	}
+	
 	@Override
 	public void update(float delta) {
 		super.update(delta);
@@ -54,6 +62,14 @@ public class Door extends WorldObject {
 		}
 	}
 	
+	/**
+	 * Doors keep their own timer, they open and close one at a time.
+	 */
+	@Override
+	public boolean needsUpdate() {
+		return true;
+	}
+	
 	public STATE getState() {
 		return state;
 	}
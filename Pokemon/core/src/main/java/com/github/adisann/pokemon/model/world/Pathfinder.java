@@ -0,0 +1,341 @@
+package com.github.adisann.pokemon.model.world;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.github.adisann.pokemon.model.PassabilityMap;
+
+/**
+ * Finds shortest paths for Actors over the PassabilityMap of a World, so tiles that are not
+ * walkable, non-walkable objects and other actors are all avoided.
+ *
+ * Uses A* with jump point search for grids where actors step in four directions. Paths are
+ * canonical: they go vertical first, and only leave a horizontal run where an obstacle ends
+ * next to it. Only the ends of straight runs enter the open list.
+ *
+ * The node buffers are kept between queries and are told apart by a query number, so nothing
+ * is cleared or allocated per query once they have grown. Found paths are cached until a tile
+ * changes in a region that a path as short could cross, see PassabilityMap#getRegionVersion.
+ * So a cached path is dropped when a shorter route opens, not only when it is blocked.
+ *
+ * Not thread safe, use it from the thread that updates the World.
+ * */
+public class Pathfinder {
+
+	private static final int CACHE_SIZE = 32;
+
+	/* how a node was reached, decides which directions are searched from it */
+	private static final byte FROM_START = 0;
+	private static final byte HORIZONTAL = 1;
+	private static final byte VERTICAL = 2;
+
+	private PassabilityMap map;
+	private int width, height;
+
+	/* per tile, valid when seen[tile] holds the current query number */
+	private int query = 0;
+	private int[] seen;
+	private int[] closed;
+	private int[] cost;
+	private int[] parent;
+	private byte[] arrival;
+
+	/* open list as a binary heap of (f << 32 | tile) */
+	private long[] heap = new long[256];
+	private int heapSize;
+
+	private int start, goal, goalX, goalY;
+
+	private CachedPath[] cache = new CachedPath[CACHE_SIZE];
+	private int nextCacheSlot = 0;
+
+	private static class CachedPath {
+		private int start = -1, goal = -1;
+		private IntArray path = new IntArray();
+		private IntArray regions = new IntArray();
+		private IntArray versions = new IntArray();
+	}
+
+	public Pathfinder(PassabilityMap map) {
+		this.map = map;
+		this.width = map.getWidth();
+		this.height = map.getHeight();
+		for (int i = 0; i < CACHE_SIZE; i++) {
+			cache[i] = new CachedPath();
+		}
+	}
+
+	/**
+	 * Finds a shortest path between two tiles. The start tile may be taken, by the actor that walks.
+	 *
+	 * @param out	Cleared, then filled with the tiles to step on in order, ending with the goal.
+	 * 				Tiles are given as y * width + x, see #toX and #toY
+	 * @return		If there is a path
+	 */
+	public boolean findPath(int startX, int startY, int goalX, int goalY, IntArray out) {
+		out.clear();
+		if (!inside(startX, startY) || !inside(goalX, goalY)) {
+			return false;
+		}
+		if (startX == goalX && startY == goalY) {
+			return true;
+		}
+		if (!map.isPassable(goalX, goalY)) {
+			return false;
+		}
+		start = startY * width + startX;
+		goal = goalY * width + goalX;
+		this.goalX = goalX;
+		this.goalY = goalY;
+
+		CachedPath cached = findCached();
+		if (cached != null) {
+			out.addAll(cached.path);
+			return true;
+		}
+
+		beginQuery();
+		heapSize = 0;
+		seen[start] = query;
+		cost[start] = 0;
+		parent[start] = -1;
+		arrival[start] = FROM_START;
+		push(start, heuristic(startX, startY));
+
+		while (heapSize > 0) {
+			int node = pop();
+			if (closed[node] == query) {
+				continue;
+			}
+			closed[node] = query;
+			if (node == goal) {
+				buildPath(out);
+				cache(out);
+				return true;
+			}
+			expand(node);
+		}
+		return false;
+	}
+
+	public int toX(int tile) {
+		return tile % width;
+	}
+
+	public int toY(int tile) {
+		return tile / width;
+	}
+
+	private void expand(int node) {
+		int x = node % width;
+		int y = node / width;
+		switch (arrival[node]) {
+			case FROM_START:
+				jumpHorizontal(node, x, y, 1);
+				jumpHorizontal(node, x, y, -1);
+				jumpVertical(node, x, y, 1);
+				jumpVertical(node, x, y, -1);
+				break;
+			case HORIZONTAL:
+				int dx = x > parent[node] % width ? 1 : -1;
+				jumpHorizontal(node, x, y, dx);
+				// forced turns, where a wall beside the run ends
+				if (passable(x, y + 1) && !passable(x - dx, y + 1)) {
+					jumpVertical(node, x, y, 1);
+				}
+				if (passable(x, y - 1) && !passable(x - dx, y - 1)) {
+					jumpVertical(node, x, y, -1);
+				}
+				break;
+			case VERTICAL:
+				int dy = y > parent[node] / width ? 1 : -1;
+				jumpVertical(node, x, y, dy);
+				jumpHorizontal(node, x, y, 1);
+				jumpHorizontal(node, x, y, -1);
+				break;
+		}
+	}
+
+	private void jumpHorizontal(int from, int x, int y, int dx) {
+		int jumpPoint = scanHorizontal(x, y, dx);
+		if (jumpPoint >= 0) {
+			relax(from, jumpPoint, Math.abs(jumpPoint % width - x), HORIZONTAL);
+		}
+	}
+
+	private void jumpVertical(int from, int x, int y, int dy) {
+		int cy = y;
+		while (true) {
+			cy += dy;
+			if (!passable(x, cy)) {
+				return;
+			}
+			int tile = cy * width + x;
+			// turning sideways is always allowed here, so a row with a jump point makes this one
+			if (tile == goal || scanHorizontal(x, cy, 1) >= 0 || scanHorizontal(x, cy, -1) >= 0) {
+				relax(from, tile, Math.abs(cy - y), VERTICAL);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return	The first jump point in a horizontal run, or -1 if the run hits a wall first
+	 */
+	private int scanHorizontal(int x, int y, int dx) {
+		while (true) {
+			x += dx;
+			if (!passable(x, y)) {
+				return -1;
+			}
+			int tile = y * width + x;
+			if (tile == goal
+					|| (passable(x, y + 1) && !passable(x - dx, y + 1))
+					|| (passable(x, y - 1) && !passable(x - dx, y - 1))) {
+				return tile;
+			}
+		}
+	}
+
+	private void relax(int from, int to, int distance, byte how) {
+		int g = cost[from] + distance;
+		if (seen[to] == query) {
+			// on a tie prefer a vertical arrival, it may turn either way
+			if (g > cost[to] || (g == cost[to] && (how != VERTICAL || arrival[to] == VERTICAL || closed[to] == query))) {
+				return;
+			}
+		}
+		seen[to] = query;
+		cost[to] = g;
+		parent[to] = from;
+		arrival[to] = how;
+		push(to, g + heuristic(to % width, to / width));
+	}
+
+	private boolean passable(int x, int y) {
+		return map.isPassable(x, y) || (y * width + x == start && inside(x, y));
+	}
+
+	private boolean inside(int x, int y) {
+		return x >= 0 && y >= 0 && x < width && y < height;
+	}
+
+	private int heuristic(int x, int y) {
+		return Math.abs(goalX - x) + Math.abs(goalY - y);
+	}
+
+	/* walks back over the jump points, filling in the straight runs between them */
+	private void buildPath(IntArray out) {
+		int node = goal;
+		while (node != start) {
+			int from = parent[node];
+			int step = node % width == from % width ? (node > from ? width : -width) : (node > from ? 1 : -1);
+			for (int tile = node; tile != from; tile -= step) {
+				out.add(tile);
+			}
+			node = from;
+		}
+		out.reverse();
+	}
+
+	private void beginQuery() {
+		if (seen == null) {
+			int tiles = width * height;
+			seen = new int[tiles];
+			closed = new int[tiles];
+			cost = new int[tiles];
+			parent = new int[tiles];
+			arrival = new byte[tiles];
+		}
+		query++;
+		if (query == Integer.MAX_VALUE) {
+			Arrays.fill(seen, 0);
+			Arrays.fill(closed, 0);
+			query = 1;
+		}
+	}
+
+	private void push(int tile, int f) {
+		if (heapSize == heap.length) {
+			heap = Arrays.copyOf(heap, heapSize * 2);
+		}
+		long entry = ((long) f << 32) | tile;
+		int i = heapSize++;
+		while (i > 0) {
+			int up = (i - 1) >>> 1;
+			if (heap[up] <= entry) {
+				break;
+			}
+			heap[i] = heap[up];
+			i = up;
+		}
+		heap[i] = entry;
+	}
+
+	private int pop() {
+		long top = heap[0];
+		long last = heap[--heapSize];
+		int i = 0;
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+				child++;
+			}
+			if (heap[child] >= last) {
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = last;
+		return (int) top;
+	}
+
+	private CachedPath findCached() {
+		for (int i = 0; i < CACHE_SIZE; i++) {
+			CachedPath cached = cache[i];
+			if (cached.start != start || cached.goal != goal) {
+				continue;
+			}
+			for (int r = 0; r < cached.regions.size; r++) {
+				if (map.getRegionVersion(cached.regions.get(r)) != cached.versions.get(r)) {
+					cached.start = -1; // out of date
+					return null;
+				}
+			}
+			return cached;
+		}
+		return null;
+	}
+
+	private void cache(IntArray path) {
+		CachedPath cached = cache[nextCacheSlot];
+		nextCacheSlot = (nextCacheSlot + 1) % CACHE_SIZE;
+		cached.start = start;
+		cached.goal = goal;
+		cached.path.clear();
+		cached.path.addAll(path);
+		cached.regions.clear();
+		cached.versions.clear();
+		/*
+		 * A shorter path could only be opened by a change within the box around start and goal,
+		 * widened by half the detour this path makes. The path itself lies in there too.
+		 */
+		int startX = start % width, startY = start / width;
+		int slack = (path.size - Math.abs(goalX - startX) - Math.abs(goalY - startY)) / 2;
+		int minX = Math.max(0, Math.min(startX, goalX) - slack) / PassabilityMap.REGION_SIZE;
+		int minY = Math.max(0, Math.min(startY, goalY) - slack) / PassabilityMap.REGION_SIZE;
+		int maxX = Math.min(width - 1, Math.max(startX, goalX) + slack) / PassabilityMap.REGION_SIZE;
+		int maxY = Math.min(height - 1, Math.max(startY, goalY) + slack) / PassabilityMap.REGION_SIZE;
+		for (int ry = minY; ry <= maxY; ry++) {
+			for (int rx = minX; rx <= maxX; rx++) {
+				int region = map.getRegion(rx * PassabilityMap.REGION_SIZE, ry * PassabilityMap.REGION_SIZE);
+				cached.regions.add(region);
+				cached.versions.add(map.getRegionVersion(region));
+			}
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package com.github.adisann.pokemon.model.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.adisann.pokemon.model.YSortable;
+
+/**
+ * Uniform grid of buckets, for finding what is near a point without walking every element.
+ *
+ * Elements are filed under the bucket of their anchor tile. Queries look into neighbouring
+ * buckets far enough to catch elements reaching into the queried area from outside.
+ * */
+public class SpatialIndex<T extends YSortable> {
+
+	/** Size of a bucket in tiles */
+	public static final int BUCKET_SIZE = 8;
+
+	private int bucketsX, bucketsY;
+	private List<T>[] buckets;
+
+	/* how far any element has reached from its anchor tile, either way. Moving actors are
+	 * filed under the tile they walk to, so they can be a tile off to any side. */
+	private float maxExtent = 1f;
+
+	/**
+	 * @param width		Size of the indexed area in tiles
+	 * @param height
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public SpatialIndex(int width, int height) {
+		bucketsX = Math.max(1, (width + BUCKET_SIZE - 1) / BUCKET_SIZE);
+		bucketsY = Math.max(1, (height + BUCKET_SIZE - 1) / BUCKET_SIZE);
+		buckets = new List[bucketsX * bucketsY];
+	}
+
+	/**
+	 * @param x		Anchor tile of the element
+	 * @param y
+	 */
+	public void insert(T element, int x, int y) {
+		int b = bucketOf(x, y);
+		if (buckets[b] == null) {
+			buckets[b] = new ArrayList<T>(4);
+		}
+		buckets[b].add(element);
+		maxExtent = Math.max(maxExtent, Math.max(element.getSizeX(), element.getSizeY()) + 1f);
+	}
+
+	/**
+	 * @param x		Anchor tile the element was inserted or last moved with
+	 * @param y
+	 */
+	public void remove(T element, int x, int y) {
+		List<T> bucket = buckets[bucketOf(x, y)];
+		if (bucket != null) {
+			bucket.remove(element);
+		}
+	}
+
+	public void move(T element, int oldX, int oldY, int newX, int newY) {
+		if (bucketOf(oldX, oldY) == bucketOf(newX, newY)) {
+			return;
+		}
+		remove(element, oldX, oldY);
+		insert(element, newX, newY);
+	}
+
+	/**
+	 * Adds every element overlapping a rectangle to a list. Allocates nothing.
+	 *
+	 * @param minX	Rectangle in tile units
+	 * @param out	Receives the elements, not cleared
+	 */
+	public void queryRange(float minX, float minY, float maxX, float maxY, List<? super T> out) {
+		int bx0 = bucketCoord(minX - maxExtent, bucketsX);
+		int by0 = bucketCoord(minY - maxExtent, bucketsY);
+		int bx1 = bucketCoord(maxX + maxExtent, bucketsX);
+		int by1 = bucketCoord(maxY + maxExtent, bucketsY);
+		for (int by = by0; by <= by1; by++) {
+			for (int bx = bx0; bx <= bx1; bx++) {
+				List<T> bucket = buckets[by * bucketsX + bx];
+				if (bucket == null) {
+					continue;
+				}
+				for (int i = 0; i < bucket.size(); i++) {
+					T e = bucket.get(i);
+					if (e.getWorldX() + e.getSizeX() >= minX && e.getWorldX() <= maxX
+							&& e.getWorldY() + e.getSizeY() >= minY && e.getWorldY() <= maxY) {
+						out.add(e);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds every element within a distance of a point to a list. Allocates nothing.
+	 * Distance is measured to the closest point of the element.
+	 *
+	 * @param out	Receives the elements, not cleared
+	 */
+	public void queryRadius(float x, float y, float radius, List<? super T> out) {
+		int bx0 = bucketCoord(x - radius - maxExtent, bucketsX);
+		int by0 = bucketCoord(y - radius - maxExtent, bucketsY);
+		int bx1 = bucketCoord(x + radius + maxExtent, bucketsX);
+		int by1 = bucketCoord(y + radius + maxExtent, bucketsY);
+		float radius2 = radius * radius;
+		for (int by = by0; by <= by1; by++) {
+			for (int bx = bx0; bx <= bx1; bx++) {
+				List<T> bucket = buckets[by * bucketsX + bx];
+				if (bucket == null) {
+					continue;
+				}
+				for (int i = 0; i < bucket.size(); i++) {
+					T e = bucket.get(i);
+					float dx = x - Math.max(e.getWorldX(), Math.min(x, e.getWorldX() + e.getSizeX()));
+					float dy = y - Math.max(e.getWorldY(), Math.min(y, e.getWorldY() + e.getSizeY()));
+					if (dx * dx + dy * dy <= radius2) {
+						out.add(e);
+					}
+				}
+			}
+		}
+	}
+
+	private int bucketOf(int x, int y) {
+		return bucketCoord(y, bucketsY) * bucketsX + bucketCoord(x, bucketsX);
+	}
+
+	private static int bucketCoord(float tile, int buckets) {
+		int b = (int) Math.floor(tile / BUCKET_SIZE);
+		return Math.max(0, Math.min(buckets - 1, b));
+	}
+}
@@ -0,0 +1,112 @@
+package com.github.adisann.pokemon.model.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.badlogic.gdx.math.GridPoint2;
+import com.github.adisann.pokemon.util.RandomStream;
+
+/**
+ * Times range and radius queries of a SpatialIndex against walking the list of every
+ * WorldObject, as World had to before it had an index. Needs no GL.
+ *
+ * Objects of 1x1 to 3x3 tiles are spread over a square map, queries are the size of a
+ * screen or a small radius around random points. Both ways must find the same objects.
+ *
+ * Usage: SpatialIndexBenchmark [objects] [map size]
+ * */
+public class SpatialIndexBenchmark {
+
+	private static final int QUERIES = 20000;
+	private static final float VIEW_WIDTH = 20, VIEW_HEIGHT = 15;
+	private static final float RADIUS = 3;
+
+	public static void main(String[] args) {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int size = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+		RandomStream random = new RandomStream(0);
+		List<WorldObject> objects = new ArrayList<WorldObject>();
+		SpatialIndex<WorldObject> index = new SpatialIndex<WorldObject>(size, size);
+		for (int i = 0; i < count; i++) {
+			int extent = 1 + random.nextInt(3);
+			WorldObject o = new WorldObject(random.nextInt(size), random.nextInt(size), false, null, extent, extent,
+					new GridPoint2(0, 0));
+			objects.add(o);
+			index.insert(o, o.getX(), o.getY());
+		}
+		float[] points = new float[QUERIES * 2];
+		for (int i = 0; i < points.length; i++) {
+			points[i] = random.nextFloat() * size;
+		}
+
+		System.out.println(count + " objects on a " + size + "x" + size + " map, " + QUERIES + " queries");
+		System.out.println("query\t\tlist (ns)\tindex (ns)\tfound");
+		List<WorldObject> out = new ArrayList<WorldObject>();
+		for (int pass = 0; pass < 2; pass++) { // the first one warms up
+			long listRange = 0, indexRange = 0, listRadius = 0, indexRadius = 0;
+			long foundRange = 0, foundRadius = 0;
+			for (int q = 0; q < QUERIES; q++) {
+				float x = points[q * 2], y = points[q * 2 + 1];
+
+				long start = System.nanoTime();
+				int byList = scanRange(objects, x, y, x + VIEW_WIDTH, y + VIEW_HEIGHT);
+				listRange += System.nanoTime() - start;
+				start = System.nanoTime();
+				out.clear();
+				index.queryRange(x, y, x + VIEW_WIDTH, y + VIEW_HEIGHT, out);
+				indexRange += System.nanoTime() - start;
+				check(byList, out.size());
+				foundRange += byList;
+
+				start = System.nanoTime();
+				byList = scanRadius(objects, x, y, RADIUS);
+				listRadius += System.nanoTime() - start;
+				start = System.nanoTime();
+				out.clear();
+				index.queryRadius(x, y, RADIUS, out);
+				indexRadius += System.nanoTime() - start;
+				check(byList, out.size());
+				foundRadius += byList;
+			}
+			if (pass == 1) {
+				System.out.println(String.format("range %.0fx%.0f\t%d\t\t%d\t\t%.1f", VIEW_WIDTH, VIEW_HEIGHT,
+						listRange / QUERIES, indexRange / QUERIES, (float) foundRange / QUERIES));
+				System.out.println(String.format("radius %.0f\t%d\t\t%d\t\t%.1f", RADIUS,
+						listRadius / QUERIES, indexRadius / QUERIES, (float) foundRadius / QUERIES));
+			}
+		}
+	}
+
+	private static void check(int expected, int found) {
+		if (expected != found) {
+			throw new IllegalStateException("Index found " + found + " objects, the list " + expected);
+		}
+	}
+
+	/* same tests as SpatialIndex, over every object */
+	private static int scanRange(List<WorldObject> objects, float minX, float minY, float maxX, float maxY) {
+		int found = 0;
+		for (int i = 0; i < objects.size(); i++) {
+			WorldObject e = objects.get(i);
+			if (e.getWorldX() + e.getSizeX() >= minX && e.getWorldX() <= maxX
+					&& e.getWorldY() + e.getSizeY() >= minY && e.getWorldY() <= maxY) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+	private static int scanRadius(List<WorldObject> objects, float x, float y, float radius) {
+		int found = 0;
+		for (int i = 0; i < objects.size(); i++) {
+			WorldObject e = objects.get(i);
+			float dx = x - Math.max(e.getWorldX(), Math.min(x, e.getWorldX() + e.getSizeX()));
+			float dy = y - Math.max(e.getWorldY(), Math.min(y, e.getWorldY() + e.getSizeY()));
+			if (dx * dx + dy * dy <= radius * radius) {
+				found++;
+			}
+		}
+		return found;
+	}
+}
@@ -5,11 +5,14 @@ import java.util.HashMap;
 import java.util.List;
 
 import com.badlogic.gdx.math.GridPoint2;
+import com.github.adisann.pokemon.Settings;
 import com.github.adisann.pokemon.model.DIRECTION;
+import com.github.adisann.pokemon.model.Tile;
 import com.github.adisann.pokemon.model.TileMap;
 import com.github.adisann.pokemon.model.actor.Actor;
 import com.github.adisann.pokemon.model.actor.ActorBehavior;
 import com.github.adisann.pokemon.model.actor.ActorObserver;
+import com.github.adisann.pokemon.util.RandomStream;
 
 /**
  * Contains data about the game world, such as references to Actors, and WorldObjects.
@@ -19,13 +22,28 @@ public class World implements ActorObserver {
 	
 	/** Unique name used to refer to this world */
 	private String name;
+	private RandomStream random;
 	private int safeX; // fly destination
 	private int safeY;
 	
 	private TileMap map;
 	private List<Actor> actors;
 	private HashMap<Actor, ActorBehavior> brains;
+	/* when each actor was added, the order BehaviorStep commits in */
+	private HashMap<Actor, Integer> order;
+	private int nextOrder = 0;
 	private List<WorldObject> objects;
+	private List<WorldObject> updatedObjects;
+	private List<WorldObserver> observers;
+	private List<String> neighbours;
+	
+	private SpatialIndex<Actor> actorIndex;
+	private SpatialIndex<WorldObject> objectIndex;
+	
+	private ActivityScheduler activity;
+	private BehaviorStep behaviorStep;
+	private Pathfinder pathfinder;
+	private AnimationClock animationClock;
 	
 	/**
 	 * @param name Name of the world for internal model
@@ -36,17 +54,32 @@ public class World implements ActorObserver {
 	 */
 	public World(String name, int width, int height, int safeX, int safeY) {
 		this.name = name;
-		this.map = new TileMap(width, height);
+		this.random = new RandomStream(Settings.RANDOM_SEED, name);
+		this.map = new TileMap(width, height, Settings.COMPACT_TILE_MAP);
 		this.safeX = safeX;
 		this.safeY = safeY;
 		actors = new ArrayList<Actor>();
 		brains = new HashMap<Actor, ActorBehavior>();
+		order = new HashMap<Actor, Integer>();
 		objects = new ArrayList<WorldObject>();
+		updatedObjects = new ArrayList<WorldObject>();
+		observers = new ArrayList<WorldObserver>();
+		neighbours = new ArrayList<String>();
+		actorIndex = new SpatialIndex<Actor>(width, height);
+		objectIndex = new SpatialIndex<WorldObject>(width, height);
+		activity = new ActivityScheduler(this);
+		behaviorStep = new BehaviorStep(this);
+		animationClock = new AnimationClock();
 	}
 	
 	public void addActor(Actor a) {
 		map.getTile(a.getX(), a.getY()).setActor(a);
 		actors.add(a);
+		order.put(a, nextOrder++);
+		actorIndex.insert(a, a.getX(), a.getY());
+		for (int i = 0; i < observers.size(); i++) {
+			observers.get(i).actorAdded(a);
+		}
 	}
 	
 	public void addActor(Actor a, ActorBehavior b) {
@@ -60,33 +93,118 @@ public class World implements ActorObserver {
 			map.getTile(o.getX()+p.x, o.getY()+p.y).setObject(o);
 		}
 		objects.add(o);
+		objectIndex.insert(o, o.getX(), o.getY());
+		o.attachClock(animationClock);
+		if (o.needsUpdate()) {
+			updatedObjects.add(o);
+		}
+		for (int i = 0; i < observers.size(); i++) {
+			observers.get(i).objectAdded(o);
+		}
+	}
+	
+	/**
+	 * Puts a standing actor on another tile at once, keeping its behavior. Unlike
+	 * Actor#changeWorld, the actor is not taken out of the world in between.
+	 * 
+	 * @return	false if there is no tile there or another actor stands on it, then nothing changes
+	 */
+	public boolean placeActor(Actor a, int x, int y) {
+		Tile to = map.getTile(x, y);
+		if (to == null || (to.getActor() != null && to.getActor() != a)) {
+			return false;
+		}
+		Tile from = map.getTile(a.getX(), a.getY());
+		if (from != null && from.getActor() == a) { // the actor may have been taken off already
+			from.setActor(null);
+		}
+		actorIndex.move(a, a.getX(), a.getY(), x, y);
+		a.setCoords(x, y);
+		to.setActor(a);
+		for (int i = 0; i < observers.size(); i++) {
+			observers.get(i).actorPlaced(a, x, y);
+		}
+		return true;
+	}
+	
+	/**
+	 * @return	The behavior the actor was added with, or null
+	 */
+	public ActorBehavior getBehavior(Actor a) {
+		return brains.get(a);
 	}
 	
 	public void removeActor(Actor actor) {
 		map.getTile(actor.getX(), actor.getY()).setActor(null);
 		actors.remove(actor);
+		order.remove(actor);
+		actorIndex.remove(actor, actor.getX(), actor.getY());
 		if (brains.containsKey(actor)) {
 			brains.remove(actor);
 		}
+		activity.actorRemoved(actor);
+		for (int i = 0; i < observers.size(); i++) {
+			observers.get(i).actorRemoved(actor);
+		}
 	}
 	
-	public void update(float delta) {
-		for (int i = 0; i < actors.size(); i++) {
-			Actor a = actors.get(i);
-			if (brains.containsKey(a)) {
-				brains.get(a).update(delta);
-			}
-			a.update(delta);
-		}
-		for (WorldObject o : objects) {
-			o.update(delta);
+	/**
+	 * Remembers that a teleport in this world leads to another world.
+	 */
+	public void addNeighbour(String worldName) {
+		if (!neighbours.contains(worldName)) {
+			neighbours.add(worldName);
 		}
 	}
+	
+	/**
+	 * @return	Names of the worlds the teleports of this world lead to
+	 */
+	public List<String> getNeighbours() {
+		return neighbours;
+	}
+	
+	public void addObserver(WorldObserver observer) {
+		observers.add(observer);
+	}
+	
+	public void removeObserver(WorldObserver observer) {
+		observers.remove(observer);
+	}
+	
+	/**
+	 * Sets the area the player sees, in tiles. Things far outside of it are updated
+	 * less often or not at all, see ActivityScheduler.
+	 */
+	public void setActiveArea(float minX, float minY, float maxX, float maxY) {
+		activity.setView(minX, minY, maxX, maxY);
+	}
+	
+	public void update(float delta) {
+		animationClock.update(delta);
+		activity.update(delta);
+		behaviorStep.run();
+	}
+	
+	/* the update happens at the end of World#update, together with the other actors, see BehaviorStep */
+	void updateActor(Actor a, float delta) {
+		behaviorStep.add(a, brains.get(a), order.get(a), delta);
+	}
 
 	public TileMap getMap() {
 		return map;
 	}
 	
+	/**
+	 * @return	Pathfinder over the tiles of this world, made on first use
+	 */
+	public Pathfinder getPathfinder() {
+		if (pathfinder == null) {
+			pathfinder = new Pathfinder(map.getPassability());
+		}
+		return pathfinder;
+	}
+	
 	public List<Actor> getActors() {
 		return actors;
 	}
@@ -94,11 +212,49 @@ public class World implements ActorObserver {
 	public List<WorldObject> getWorldObjects() {
 		return objects;
 	}
+	
+	/* objects with state of their own to update, see WorldObject#needsUpdate() */
+	List<WorldObject> getUpdatedObjects() {
+		return updatedObjects;
+	}
+	
+	public AnimationClock getAnimationClock() {
+		return animationClock;
+	}
+	
+	/**
+	 * Use this to find actors near a point, instead of walking #getActors().
+	 */
+	public SpatialIndex<Actor> getActorIndex() {
+		return actorIndex;
+	}
+	
+	/**
+	 * Use this to find objects near a point, instead of walking #getWorldObjects().
+	 */
+	public SpatialIndex<WorldObject> getObjectIndex() {
+		return objectIndex;
+	}
 
 	public String getName() {
 		return name;
 	}
 	
+	/**
+	 * @return	Stream for chances in this world, such as encounters. Split it for things that
+	 * 			draw on their own, so they don't change what the others draw.
+	 */
+	public RandomStream getRandom() {
+		return random;
+	}
+	
+	/**
+	 * Goes on with the stream of an earlier copy of this world, see WorldStreamer.
+	 */
+	public void setRandom(RandomStream random) {
+		this.random = random;
+	}
+	
 	public int getSafeX() {
 		return safeX;
 	}
@@ -109,16 +265,26 @@ public class World implements ActorObserver {
 
 	@Override
 	public void actorMoved(Actor a, DIRECTION direction, int x, int y) {
-		
+		activity.actorFinishedMove(a);
+		for (int i = 0; i < observers.size(); i++) {
+			observers.get(i).actorMoved(a, direction, x, y);
+		}
 	}
 
 	@Override
 	public void attemptedMove(Actor a, DIRECTION direction) {
-		
+		for (int i = 0; i < observers.size(); i++) {
+			observers.get(i).attemptedMove(a, direction);
+		}
 	}
 
 	@Override
 	public void actorBeforeMoved(Actor a, DIRECTION direction) {
-		
+		// called before the actor takes its new coords
+		actorIndex.move(a, a.getX(), a.getY(), a.getX() + direction.getDX(), a.getY() + direction.getDY());
+		activity.actorStartedMove(a);
+		for (int i = 0; i < observers.size(); i++) {
+			observers.get(i).actorBeforeMoved(a, direction);
+		}
 	}
 }
\ No newline at end of file
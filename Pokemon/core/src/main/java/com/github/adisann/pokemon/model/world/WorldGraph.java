@@ -0,0 +1,370 @@
+package com.github.adisann.pokemon.model.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.github.adisann.pokemon.model.Tile;
+import com.github.adisann.pokemon.model.TeleportTile;
+import com.github.adisann.pokemon.model.TileMap;
+
+/**
+ * Routes between Worlds, through the TeleportTiles that link them.
+ *
+ * Every world added keeps a copy of which tiles can be walked on, its exits (teleport tiles)
+ * and its entrances (where teleports from other worlds arrive). The walking distance from
+ * every entrance to every exit is worked out once, when both are known. A route is then a
+ * search over exits only: the tiles of the start and goal world are searched once each to
+ * connect the ends, and the worlds in between are not searched at all. The legs of a route
+ * are refined into steps by the Pathfinder of each world when the actor gets there.
+ *
+ * Worlds can also be added while searching, through a WorldSource: a world is only asked
+ * for when the search reaches a teleport into it, so a route never needs more worlds than
+ * the ones closer than the goal.
+ *
+ * Actors are ignored here, they move too often for the distances to stay true.
+ * */
+public class WorldGraph {
+
+	private HashMap<String, Region> regions = new HashMap<String, Region>();
+	private List<Exit> exits = new ArrayList<Exit>();
+
+	/* scratch for searching the tiles of a region */
+	private int[] distance = new int[0];
+	private IntArray queue = new IntArray();
+
+	/**
+	 * Adds worlds the graph does not know yet, when a route search gets to them.
+	 */
+	public interface WorldSource {
+
+		/**
+		 * Adds the world with the name through #addWorld(World), if there is one.
+		 */
+		public void require(String name);
+	}
+
+	/**
+	 * A straight part of a route, walked within one world. It ends on a teleport tile,
+	 * or on the goal for the last leg.
+	 */
+	public static class Leg {
+
+		private String world;
+		private int fromX, fromY, toX, toY;
+
+		private Leg(String world, int fromX, int fromY, int toX, int toY) {
+			this.world = world;
+			this.fromX = fromX;
+			this.fromY = fromY;
+			this.toX = toX;
+			this.toY = toY;
+		}
+
+		public String getWorld() {
+			return world;
+		}
+
+		public int getFromX() {
+			return fromX;
+		}
+
+		public int getFromY() {
+			return fromY;
+		}
+
+		public int getToX() {
+			return toX;
+		}
+
+		public int getToY() {
+			return toY;
+		}
+	}
+
+	private static class Region {
+		private String name;
+		private int width, height;
+		private long[] walkable;
+		private long[] exitTiles;
+		private List<Exit> exits = new ArrayList<Exit>();
+		private List<Entrance> entrances = new ArrayList<Entrance>();
+	}
+
+	private static class Exit {
+		private int id;
+		private Region region;
+		private int x, y;
+		private String destination;
+		private int destX, destY;
+		private Entrance entrance; // null until the destination is known
+	}
+
+	private static class Entrance {
+		private Region region;
+		private int x, y;
+		private int[] toExits; // walking distance to each exit of the region, -1 if it can't be reached
+	}
+
+	/**
+	 * Adds a world. Does nothing if a world with its name was added before.
+	 */
+	public void addWorld(World world) {
+		if (regions.containsKey(world.getName())) {
+			return;
+		}
+		TileMap map = world.getMap();
+		Region region = new Region();
+		region.name = world.getName();
+		region.width = map.getWidth();
+		region.height = map.getHeight();
+		region.walkable = new long[(region.width * region.height + 63) >>> 6];
+		region.exitTiles = new long[region.walkable.length];
+		for (int y = 0; y < region.height; y++) {
+			for (int x = 0; x < region.width; x++) {
+				Tile tile = map.getTile(x, y);
+				if (tile == null) {
+					continue;
+				}
+				WorldObject object = tile.getObject();
+				if (tile.walkable() && (object == null || object.isWalkable())) {
+					int i = y * region.width + x;
+					region.walkable[i >>> 6] |= 1L << i;
+				}
+				if (tile instanceof TeleportTile) {
+					TeleportTile teleport = (TeleportTile) tile;
+					int i = y * region.width + x;
+					region.exitTiles[i >>> 6] |= 1L << i;
+					Exit exit = new Exit();
+					exit.id = exits.size();
+					exit.region = region;
+					exit.x = x;
+					exit.y = y;
+					exit.destination = teleport.getDestinationWorld();
+					exit.destX = teleport.getDestinationX();
+					exit.destY = teleport.getDestinationY();
+					exits.add(exit);
+					region.exits.add(exit);
+				}
+			}
+		}
+		regions.put(region.name, region);
+
+		for (int i = 0; i < exits.size(); i++) {
+			Exit exit = exits.get(i);
+			if (exit.entrance == null && (exit.region == region || exit.destination.equals(region.name))) {
+				link(exit);
+			}
+		}
+	}
+
+	public boolean hasWorld(String name) {
+		return regions.containsKey(name);
+	}
+
+	/**
+	 * Finds the shortest walk from a tile in one world to a tile in another, or the same, world,
+	 * through the worlds added so far.
+	 *
+	 * @return	The legs to walk in order, or null if the goal can't be reached or one of the
+	 * 			worlds was not added
+	 */
+	public List<Leg> findRoute(String startWorld, int startX, int startY, String goalWorld, int goalX, int goalY) {
+		return findRoute(startWorld, startX, startY, goalWorld, goalX, goalY, null);
+	}
+
+	/**
+	 * Same as #findRoute(String, int, int, String, int, int), asking the source for the worlds
+	 * the search gets to that were not added yet, and for the start and goal worlds.
+	 *
+	 * @param source	May be null to only use the worlds added so far
+	 */
+	public List<Leg> findRoute(String startWorld, int startX, int startY, String goalWorld, int goalX, int goalY,
+			WorldSource source) {
+		require(source, startWorld);
+		require(source, goalWorld);
+		Region start = regions.get(startWorld);
+		Region goal = regions.get(goalWorld);
+		if (start == null || goal == null || !inside(start, startX, startY) || !inside(goal, goalX, goalY)) {
+			return null;
+		}
+
+		/* connect the ends to the exits and entrances of their worlds */
+		search(start, startX, startY);
+		int[] startToExits = new int[start.exits.size()];
+		for (int i = 0; i < startToExits.length; i++) {
+			Exit exit = start.exits.get(i);
+			startToExits[i] = distance[exit.y * start.width + exit.x];
+		}
+		int direct = start == goal ? distance[goalY * start.width + goalX] : -1;
+		search(goal, goalX, goalY);
+		/* kept, as worlds added during the search reuse the scratch and add entrances to the goal */
+		int[] toGoal = Arrays.copyOf(distance, goal.width * goal.height);
+
+		/* dijkstra over the exits, an exit is reached when the actor steps onto it */
+		int[] cost = new int[exits.size()];
+		int[] previous = new int[exits.size()];
+		Arrays.fill(cost, Integer.MAX_VALUE);
+		Arrays.fill(previous, -1);
+		PriorityQueue<Long> open = new PriorityQueue<Long>();
+		for (int i = 0; i < startToExits.length; i++) {
+			if (startToExits[i] > 0) {
+				Exit exit = start.exits.get(i);
+				cost[exit.id] = startToExits[i];
+				open.add(((long) startToExits[i] << 32) | exit.id);
+			}
+		}
+		int best = direct >= 0 ? direct : Integer.MAX_VALUE;
+		int lastExit = -1;
+		while (!open.isEmpty()) {
+			long top = open.poll();
+			int id = (int) top;
+			int d = (int) (top >>> 32);
+			if (d != cost[id] || d >= best) {
+				continue;
+			}
+			Exit reached = exits.get(id);
+			if (reached.entrance == null && !regions.containsKey(reached.destination)) {
+				require(source, reached.destination);
+				if (cost.length < exits.size()) { // the world came with exits of its own
+					int known = cost.length;
+					cost = Arrays.copyOf(cost, exits.size());
+					previous = Arrays.copyOf(previous, exits.size());
+					Arrays.fill(cost, known, cost.length, Integer.MAX_VALUE);
+					Arrays.fill(previous, known, previous.length, -1);
+				}
+			}
+			Entrance entrance = reached.entrance;
+			if (entrance == null) {
+				continue;
+			}
+			Region region = entrance.region;
+			if (region == goal) {
+				int left = toGoal[entrance.y * goal.width + entrance.x];
+				if (left >= 0 && d + left < best) {
+					best = d + left;
+					lastExit = id;
+				}
+			}
+			for (int i = 0; i < region.exits.size(); i++) {
+				int step = entrance.toExits[i];
+				Exit next = region.exits.get(i);
+				if (step > 0 && d + step < cost[next.id]) {
+					cost[next.id] = d + step;
+					previous[next.id] = id;
+					open.add(((long) (d + step) << 32) | next.id);
+				}
+			}
+		}
+		if (best == Integer.MAX_VALUE) {
+			return null;
+		}
+
+		List<Leg> legs = new ArrayList<Leg>();
+		if (lastExit < 0) { // walking there directly is shortest
+			legs.add(new Leg(startWorld, startX, startY, goalX, goalY));
+			return legs;
+		}
+		Exit last = exits.get(lastExit);
+		legs.add(new Leg(goalWorld, last.destX, last.destY, goalX, goalY));
+		for (int id = lastExit; id >= 0; id = previous[id]) {
+			Exit exit = exits.get(id);
+			int from = previous[id];
+			if (from < 0) {
+				legs.add(new Leg(exit.region.name, startX, startY, exit.x, exit.y));
+			} else {
+				Exit before = exits.get(from);
+				legs.add(new Leg(exit.region.name, before.destX, before.destY, exit.x, exit.y));
+			}
+		}
+		Collections.reverse(legs);
+		return legs;
+	}
+
+	private void require(WorldSource source, String name) {
+		if (source != null && !regions.containsKey(name)) {
+			source.require(name);
+		}
+	}
+
+	/* makes the arrival of an exit an entrance of its destination, once that world is known */
+	private void link(Exit exit) {
+		Region destination = regions.get(exit.destination);
+		if (destination == null || !inside(destination, exit.destX, exit.destY)) {
+			return;
+		}
+		for (Entrance entrance : destination.entrances) {
+			if (entrance.x == exit.destX && entrance.y == exit.destY) {
+				exit.entrance = entrance;
+				return;
+			}
+		}
+		Entrance entrance = new Entrance();
+		entrance.region = destination;
+		entrance.x = exit.destX;
+		entrance.y = exit.destY;
+		search(destination, entrance.x, entrance.y);
+		entrance.toExits = new int[destination.exits.size()];
+		for (int i = 0; i < entrance.toExits.length; i++) {
+			Exit to = destination.exits.get(i);
+			entrance.toExits[i] = distance[to.y * destination.width + to.x];
+		}
+		destination.entrances.add(entrance);
+		exit.entrance = entrance;
+	}
+
+	/*
+	 * Breadth first search over the walkable tiles of a region, into distance. Teleport tiles
+	 * can be stepped onto, but lead nowhere within the region.
+	 */
+	private void search(Region region, int x, int y) {
+		int tiles = region.width * region.height;
+		if (distance.length < tiles) {
+			distance = new int[tiles];
+		}
+		Arrays.fill(distance, 0, tiles, -1);
+		queue.clear();
+		int origin = y * region.width + x;
+		distance[origin] = 0;
+		queue.add(origin);
+		for (int head = 0; head < queue.size; head++) {
+			int tile = queue.get(head);
+			if (tile != origin && isExit(region, tile)) {
+				continue;
+			}
+			int tx = tile % region.width;
+			int ty = tile / region.width;
+			visit(region, tile, tx + 1, ty);
+			visit(region, tile, tx - 1, ty);
+			visit(region, tile, tx, ty + 1);
+			visit(region, tile, tx, ty - 1);
+		}
+	}
+
+	private void visit(Region region, int from, int x, int y) {
+		if (!inside(region, x, y)) {
+			return;
+		}
+		int tile = y * region.width + x;
+		if (distance[tile] >= 0) {
+			return;
+		}
+		if ((region.walkable[tile >>> 6] & (1L << tile)) == 0 && !isExit(region, tile)) {
+			return;
+		}
+		distance[tile] = distance[from] + 1;
+		queue.add(tile);
+	}
+
+	private static boolean isExit(Region region, int tile) {
+		return (region.exitTiles[tile >>> 6] & (1L << tile)) != 0;
+	}
+
+	private static boolean inside(Region region, int x, int y) {
+		return x >= 0 && y >= 0 && x < region.width && y < region.height;
+	}
+}
@@ -18,11 +18,18 @@ public class WorldObject implements YSortable {
 	private List<GridPoint2> tiles;
 	private boolean walkable;
 	
+	/* bounding box of tiles, and which cells of it are covered, for #containsTile */
+	private int footprintMinX, footprintMinY, footprintWidth, footprintHeight;
+	private boolean[] footprint;
+	
 	private TextureRegion texture;
 	
 	private Animation<TextureRegion> animation;
 	private float animationTimer;
 	
+	/* set once the object is in a world, then the world's clock plays the animation */
+	private AnimationClock.SharedAnimation sharedAnimation;
+	
 	public WorldObject(int x, int y, TextureRegion texture, float sizeX, float sizeY, GridPoint2[] tiles) {
 		this.x = x;
 		this.y = y;
@@ -75,11 +82,25 @@ public class WorldObject implements YSortable {
 	}
 	
 	public void update(float delta) {
-		if (animation != null) {
+		if (animation != null && sharedAnimation == null) {
 			animationTimer += delta;
 		}
 	}
 	
+	/**
+	 * @return	If #update(float) has to be called every frame. Objects playing an animation
+	 * 			on the world's AnimationClock do not need it.
+	 */
+	public boolean needsUpdate() {
+		return animation != null && sharedAnimation == null;
+	}
+	
+	void attachClock(AnimationClock clock) {
+		if (animation != null) {
+			sharedAnimation = clock.share(animation);
+		}
+	}
+	
 	public int getX() {
 		return x;
 	}
@@ -107,17 +128,45 @@ public class WorldObject implements YSortable {
 	 * @return		true if the object occupies tile
 	 */
 	public boolean containsTile(int x, int y) {
+		if (footprint == null) {
+			buildFootprint();
+		}
+		int fx = x - this.x - footprintMinX;
+		int fy = y - this.y - footprintMinY;
+		if (fx < 0 || fy < 0 || fx >= footprintWidth || fy >= footprintHeight) {
+			return false;
+		}
+		return footprint[fy * footprintWidth + fx];
+	}
+	
+	private void buildFootprint() {
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+		for (GridPoint2 point : tiles) {
+			minX = Math.min(minX, point.x);
+			minY = Math.min(minY, point.y);
+			maxX = Math.max(maxX, point.x);
+			maxY = Math.max(maxY, point.y);
+		}
+		if (tiles.isEmpty()) {
+			minX = minY = 0;
+			maxX = maxY = -1;
+		}
+		footprintMinX = minX;
+		footprintMinY = minY;
+		footprintWidth = maxX - minX + 1;
+		footprintHeight = maxY - minY + 1;
+		footprint = new boolean[footprintWidth * footprintHeight];
 		for (GridPoint2 point : tiles) {
-			if (point.x+this.x == x && point.y+this.y == y) {
-				return true;
-			}
+			footprint[(point.y - minY) * footprintWidth + (point.x - minX)] = true;
 		}
-		return false;
 	}
 	
 	public TextureRegion getSprite() {
 		if (texture != null) {
 			return texture;
+		} else if (sharedAnimation != null) {
+			return sharedAnimation.getKeyFrame();
 		} else {
 			return animation.getKeyFrame(animationTimer);
 		}
@@ -0,0 +1,23 @@
+package com.github.adisann.pokemon.model.world;
+
+import com.github.adisann.pokemon.model.actor.Actor;
+import com.github.adisann.pokemon.model.actor.ActorObserver;
+
+/**
+ * Receives changes to the contents of a World, such as renderers keeping their own
+ * view of the world. Actor callbacks are forwarded from the World.
+ * */
+public interface WorldObserver extends ActorObserver {
+	
+	public void objectAdded(WorldObject o);
+	
+	public void actorAdded(Actor a);
+	
+	public void actorRemoved(Actor a);
+	
+	/**
+	 * Called when an actor is put on another tile at once, see World#placeActor.
+	 */
+	public void actorPlaced(Actor a, int x, int y);
+
+}
@@ -0,0 +1,44 @@
+package com.github.adisann.pokemon.model.world.cutscene;
+
+import com.github.adisann.pokemon.model.actor.Actor;
+import com.github.adisann.pokemon.model.actor.Actor.MOVEMENT_STATE;
+import com.github.adisann.pokemon.model.actor.FollowPathBehavior;
+
+/**
+ * Walks an Actor to a tile along the shortest path, around whatever is in the way.
+ * Finishes when the actor stands on the tile, or when no path can be found.
+ * */
+public class ActorWalkToEvent extends CutsceneEvent {
+	
+	private Actor a;
+	private int targetX, targetY;
+	
+	private FollowPathBehavior behavior;
+	
+	public ActorWalkToEvent(Actor a, int targetX, int targetY) {
+		this.a = a;
+		this.targetX = targetX;
+		this.targetY = targetY;
+	}
+	
+	@Override
+	public void begin(CutscenePlayer player) {
+		super.begin(player);
+		behavior = new FollowPathBehavior(a, targetX, targetY);
+		behavior.setTileNotifications(false);
+	}
+
+	@Override
+	public void update(float delta) {
+		behavior.update(delta);
+	}
+
+	@Override
+	public boolean isFinished() {
+		return behavior != null && behavior.isFinished() && a.getMovementState() == MOVEMENT_STATE.STILL;
+	}
+
+	@Override
+	public void screenShow() {}
+
+}
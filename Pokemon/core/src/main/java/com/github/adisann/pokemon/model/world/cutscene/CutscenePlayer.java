@@ -20,7 +20,8 @@ public interface CutscenePlayer {
 	public void changeLocation(World newWorld, int x, int y, DIRECTION facing, Color color);
 
 	/**
-	 * Get a loaded World from name
+	 * Get a World from name, loading it if it is not loaded. Only call on the GL thread,
+	 * not from tiles stepped on by the simulation thread.
 	 * 
 	 * @param worldName
 	 * @return
@@ -0,0 +1,44 @@
+package com.github.adisann.pokemon.model.world.cutscene;
+
+import com.github.adisann.pokemon.model.DIRECTION;
+import com.github.adisann.pokemon.model.TeleportTile;
+import com.github.adisann.pokemon.model.actor.Actor;
+
+/**
+ * Queues the transition of a TeleportTile once the cutscenes get to it.
+ *
+ * Tiles are stepped on by the world logic, which may run on the simulation thread. Which
+ * transition to play depends on the world behind the teleport, which may have to be loaded
+ * first, so that is left to this event, begun on the GL thread. The transition's events
+ * are queued after the ones already waiting.
+ * */
+public class TeleportEvent extends CutsceneEvent {
+
+	private TeleportTile tile;
+	private Actor actor;
+	private DIRECTION movementDirection;
+
+	public TeleportEvent(TeleportTile tile, Actor actor, DIRECTION movementDirection) {
+		this.tile = tile;
+		this.actor = actor;
+		this.movementDirection = movementDirection;
+	}
+
+	@Override
+	public void begin(CutscenePlayer player) {
+		super.begin(player);
+		tile.queueTransition(actor, player, movementDirection);
+	}
+
+	@Override
+	public void update(float delta) {}
+
+	@Override
+	public boolean isFinished() {
+		return true;
+	}
+
+	@Override
+	public void screenShow() {}
+
+}
@@ -171,12 +171,12 @@ public class BattleScreen implements AbstractScreen, BattleEventPlayer {
 		// Initialize battle based on context type
 		if (pendingPlayer != null && pendingOpponentTrainer != null) {
 			// Trainer battle
-			battle = new Battle(pendingPlayer, pendingOpponentTrainer, app.getMoveDatabase());
+			battle = new Battle(pendingPlayer, pendingOpponentTrainer, app.getMoveDatabase(), app.getRandom().split());
 			pendingPlayer = null;
 			pendingOpponentTrainer = null;
 		} else if (pendingPlayer != null && pendingOpponent != null) {
 			// Wild battle
-			battle = new Battle(pendingPlayer, pendingOpponent, app.getMoveDatabase());
+			battle = new Battle(pendingPlayer, pendingOpponent, app.getMoveDatabase(), app.getRandom().split());
 			pendingPlayer = null;
 			pendingOpponent = null;
 		} else {
@@ -189,7 +189,8 @@ public class BattleScreen implements AbstractScreen, BattleEventPlayer {
 			battle = new Battle(
 					playerTrainer,
 					Pokemon.generatePokemon("Grimer", "graphics/pokemon/slowpoke.png", app.getMoveDatabase()),
-					app.getMoveDatabase());
+					app.getMoveDatabase(),
+					app.getRandom().split());
 		}
 		battle.setEventPlayer(this);
 
@@ -1,8 +1,8 @@
 package com.github.adisann.pokemon.screen;
 
-import java.util.ArrayDeque;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input.Keys;
@@ -19,10 +19,10 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.utils.Align;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.github.adisann.pokemon.PokemonGameMain;
+import com.github.adisann.pokemon.Settings;
 import com.github.adisann.pokemon.controller.ActorMovementController;
 import com.github.adisann.pokemon.controller.DialogueController;
 import com.github.adisann.pokemon.controller.InteractionController;
@@ -33,6 +33,9 @@ import com.github.adisann.pokemon.model.Camera;
 import com.github.adisann.pokemon.model.DIRECTION;
 import com.github.adisann.pokemon.model.actor.PlayerActor;
 import com.github.adisann.pokemon.model.world.World;
+import com.github.adisann.pokemon.model.world.WorldGraph;
+import com.github.adisann.pokemon.model.world.cutscene.ActorWalkToEvent;
+import com.github.adisann.pokemon.model.world.cutscene.ChangeWorldEvent;
 import com.github.adisann.pokemon.model.world.cutscene.CutsceneEvent;
 import com.github.adisann.pokemon.model.world.cutscene.CutscenePlayer;
 import com.github.adisann.pokemon.screen.renderer.EventQueueRenderer;
@@ -43,6 +46,7 @@ import com.github.adisann.pokemon.ui.OptionBox;
 import com.github.adisann.pokemon.ui.StartMenu;
 import com.github.adisann.pokemon.ui.PartyDisplay;
 import com.github.adisann.pokemon.ui.BagDisplay;
+import com.github.adisann.pokemon.worldloader.WorldStreamer;
 import com.github.adisann.pokemon.model.Inventory;
 import com.github.adisann.pokemon.model.Item;
 import com.github.adisann.pokemon.model.world.cutscene.ScreenFadeEvent;
@@ -52,6 +56,7 @@ import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.github.adisann.pokemon.util.Action;
 import com.github.adisann.pokemon.util.Action;
 import com.github.adisann.pokemon.util.AnimationSet;
+import com.github.adisann.pokemon.util.FixedTimestep;
 import com.github.adisann.pokemon.model.Pokemon;
 import com.github.adisann.pokemon.battle.Trainer;
 import com.github.adisann.pokemon.battle.EncounterManager;
@@ -79,14 +84,23 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 	private Trainer playerTrainer;
 	private MOVEMENT_STATE lastPlayerState;
 
-	private HashMap<String, World> worlds = new HashMap<String, World>();
+	private WorldStreamer worlds;
+	private FixedTimestep simulation = new FixedTimestep(Settings.SIMULATION_STEP, Settings.SIMULATION_MAX_STEPS);
+	private SimulationThread simulationThread; // only with Settings.SIMULATION_THREAD
+	private SimulationThread.Step simulationStep = new SimulationThread.Step() {
+		@Override
+		public boolean step(float delta) {
+			return simulate(delta);
+		}
+	};
+	private Pokemon pendingEncounter;
 	private World world;
 	private PlayerActor player;
 	private Camera camera;
 	private Dialogue dialogue;
 
 	/* cutscenes */
-	private Queue<CutsceneEvent> eventQueue = new ArrayDeque<CutsceneEvent>();
+	private Queue<CutsceneEvent> eventQueue = new ConcurrentLinkedQueue<CutsceneEvent>(); // tiles queue events from the simulation thread
 	private CutsceneEvent currentEvent;
 
 	private SpriteBatch batch;
@@ -167,6 +181,7 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 	public void init(PokemonGameMain game) {
 		this.game = game;
 		this.assetManager = game.getAssetManager();
+		this.worlds = game.getWorldStreamer();
 		this.skin = game.getSkin();
 		this.encounterManager = new EncounterManager(game.getMoveDatabase());
 	}
@@ -210,14 +225,8 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 				new Animation<TextureRegion>(0.25f / 2f, atlas.findRegions("brendan_run_west"),
 						PlayMode.LOOP_PINGPONG));
 
-		Array<World> loadedWorlds = assetManager.getAll(World.class, new Array<World>());
-		System.out.println("Loaded " + loadedWorlds.size + " worlds:");
-		for (World w : loadedWorlds) {
-			System.out.println("  - " + w.getName());
-			worlds.put(w.getName(), w);
-		}
 		if (player == null) {
-			world = worlds.get("littleroot_town");
+			world = worlds.setCurrent("littleroot_town");
 			camera = new Camera();
 			player = new PlayerActor(world, world.getSafeX(), world.getSafeY(), animations, this);
 			world.addActor(player);
@@ -233,9 +242,9 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 			if (game.getSaveManager().hasSaveGame(0)) {
 				try {
 					GameSaveData data = game.getSaveManager().loadGame(0);
-					if (data != null && worlds.containsKey(data.worldName)) {
+					if (data != null && worlds.hasWorld(data.worldName)) {
 						world.removeActor(player); // remove from initial world
-						world = worlds.get(data.worldName);
+						world = worlds.setCurrent(data.worldName);
 						player = new PlayerActor(world, data.playerX, data.playerY, animations, this);
 						player.refaceWithoutAnimation(DIRECTION.valueOf(data.playerFacing));
 						world.addActor(player);
@@ -292,6 +301,15 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 					renderTileInfo = !renderTileInfo;
 				}
 			}, "Toggle show coords");
+			debugController.addAction(new Action() {
+				@Override
+				public void action() {
+					World town = worlds.getWorld("littleroot_town");
+					if (town != null) {
+						walkTo(town.getName(), town.getSafeX(), town.getSafeY());
+					}
+				}
+			}, "Walk to Littleroot Town");
 
 			multiplexer.addProcessor(0, debugController);
 			multiplexer.addProcessor(1, dialogueController);
@@ -299,6 +317,9 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 			multiplexer.addProcessor(3, interactionController);
 
 			worldRenderer = new WorldRenderer(assetManager, world);
+			if (Settings.SIMULATION_THREAD) {
+				simulationThread = new SimulationThread(world);
+			}
 			queueRenderer = new EventQueueRenderer(skin, eventQueue);
 			tileInfoRenderer = new TileInfoRenderer(world, camera);
 		}
@@ -337,7 +358,11 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 		}
 
 		batch.begin();
-		worldRenderer.render(batch, camera);
+		if (simulationThread != null) {
+			worldRenderer.render(batch, camera, simulationThread.getSnapshot());
+		} else {
+			worldRenderer.render(batch, camera, simulation.getAlpha());
+		}
 		queueRenderer.render(batch, currentEvent);
 		if (renderTileInfo) {
 			tileInfoRenderer.render(batch, Gdx.input.getX(), Gdx.input.getY());
@@ -355,6 +380,11 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 		}
 
 		uiStage.draw();
+
+		if (simulationThread != null) {
+			simulationThread.finish();
+			startPendingBattle();
+		}
 	}
 
 	@Override
@@ -378,10 +408,17 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 
 	@Override
 	public void dispose() {
+		if (simulationThread != null) {
+			simulationThread.dispose();
+		}
+		if (worldRenderer != null) {
+			worldRenderer.dispose();
+		}
 	}
 
 	@Override
 	public void update(float delta) {
+		worlds.update();
 		while (currentEvent == null || currentEvent.isFinished()) {
 			// Start Menu handling (Escape key)
 			if (Gdx.input.isKeyJustPressed(Keys.ESCAPE)) {
@@ -513,22 +550,14 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 			}
 		}
 
-		if (currentEvent != null) {
-			currentEvent.update(delta);
-		}
-
-		if (currentEvent == null) {
-			playerController.update(delta);
-
-			// Detect Step Finish
-			if (lastPlayerState == MOVEMENT_STATE.MOVING && player.getMovementState() == MOVEMENT_STATE.STILL) {
-				// Step just finished
-				Pokemon wild = encounterManager.checkEncounter(world, player.getX(), player.getY());
-				if (wild != null) {
-					startBattle(wild);
+		int steps = simulation.advance(delta * Settings.SIMULATION_SPEED);
+		if (simulationThread == null) {
+			for (int i = 0; i < steps; i++) {
+				if (!simulate(simulation.getStep())) {
+					break;
 				}
 			}
-			lastPlayerState = player.getMovementState();
+			startPendingBattle();
 		}
 
 		dialogueController.update(delta);
@@ -543,8 +572,23 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 		}
 
 		if (!dialogueBox.isVisible()) {
-			camera.update(player.getWorldX() + 0.5f, player.getWorldY() + 0.5f);
-			world.update(delta);
+			// with a simulation thread, the player is where the snapshot to draw left it
+			float alpha = simulationThread != null ? simulationThread.getSnapshot().getAlpha() : simulation.getAlpha();
+			camera.update(player.getRenderX(alpha) + 0.5f, player.getRenderY(alpha) + 0.5f);
+		}
+
+		if (simulationThread != null) {
+			// cutscenes show dialogue and fades, so they stay on this thread
+			if (currentEvent != null && !currentEvent.isFinished()) {
+				currentEvent.update(steps * simulation.getStep());
+			}
+			// the camera moves before the snapshot is drawn, take a little more than it sees now
+			float halfWidthInTiles = Gdx.graphics.getWidth() / 2 / Settings.SCALED_TILE_SIZE + 2;
+			float halfHeightInTiles = Gdx.graphics.getHeight() / 2 / Settings.SCALED_TILE_SIZE + 2;
+			simulationThread.start(simulationStep, steps, simulation.getStep(),
+					camera.getCameraX() - halfWidthInTiles, camera.getCameraY() - halfHeightInTiles,
+					camera.getCameraX() + halfWidthInTiles, camera.getCameraY() + halfHeightInTiles,
+					simulation.getAlpha());
 		}
 
 		uiStage.act(delta);
@@ -562,6 +606,52 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 		}
 	}
 
+	/**
+	 * Runs one fixed step of the world logic: cutscenes, player movement and the world.
+	 *
+	 * Runs on the SimulationThread when there is one.
+	 *
+	 * @return	false if a wild Pokemon was met, the rest of the steps of this frame are skipped then
+	 */
+	private boolean simulate(float delta) {
+		if (simulationThread == null && currentEvent != null && !currentEvent.isFinished()) {
+			currentEvent.update(delta);
+		}
+
+		if (currentEvent == null) {
+			playerController.update(delta);
+
+			// Detect Step Finish
+			if (lastPlayerState == MOVEMENT_STATE.MOVING && player.getMovementState() == MOVEMENT_STATE.STILL) {
+				// Step just finished
+				Pokemon wild = encounterManager.checkEncounter(world, player.getX(), player.getY());
+				if (wild != null) {
+					lastPlayerState = player.getMovementState();
+					pendingEncounter = wild; // the battle screen is made on the GL thread
+					return false;
+				}
+			}
+			lastPlayerState = player.getMovementState();
+		}
+
+		if (!dialogueBox.isVisible()) {
+			float halfWidthInTiles = Gdx.graphics.getWidth() / 2 / Settings.SCALED_TILE_SIZE;
+			float halfHeightInTiles = Gdx.graphics.getHeight() / 2 / Settings.SCALED_TILE_SIZE;
+			world.setActiveArea(camera.getCameraX() - halfWidthInTiles, camera.getCameraY() - halfHeightInTiles,
+					camera.getCameraX() + halfWidthInTiles, camera.getCameraY() + halfHeightInTiles);
+			world.update(delta);
+		}
+		return true;
+	}
+
+	private void startPendingBattle() {
+		if (pendingEncounter != null) {
+			Pokemon wild = pendingEncounter;
+			pendingEncounter = null;
+			startBattle(wild);
+		}
+	}
+
 	private void initUI() {
 		uiStage = new Stage(new ScreenViewport());
 		uiStage.getViewport().update(Gdx.graphics.getWidth() / uiScale, Gdx.graphics.getHeight() / uiScale, true);
@@ -588,6 +678,7 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 
 		debugBox = new OptionBox(skin);
 		debugBox.addOption("Toggle show coords");
+		debugBox.addOption("Walk to Littleroot Town");
 		debugBox.setVisible(false);
 
 		menuRoot.add(debugBox).expand().align(Align.topLeft);
@@ -629,8 +720,13 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 		System.out.println("Changing to world: " + newWorld.getName() + " at " + x + "," + y);
 		player.changeWorld(newWorld, x, y);
 		this.world = newWorld;
+		worlds.setCurrent(newWorld.getName());
 		player.refaceWithoutAnimation(facing);
+		this.worldRenderer.dispose();
 		this.worldRenderer = new WorldRenderer(assetManager, world);
+		if (simulationThread != null) {
+			simulationThread.setWorld(world);
+		}
 		this.tileInfoRenderer = new TileInfoRenderer(world, camera);
 		// Reset camera to player position
 		camera.update(player.getWorldX() + 0.5f, player.getWorldY() + 0.5f);
@@ -648,7 +744,7 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 
 	@Override
 	public World getWorld(String worldName) {
-		return worlds.get(worldName);
+		return worlds.getWorld(worldName);
 	}
 
 	@Override
@@ -667,12 +763,35 @@ public class GameScreen implements AbstractScreen, CutscenePlayer, ScreenFadeEve
 		}
 	}
 
+	/**
+	 * Walks the player to a tile of any world, through the teleports between worlds, see
+	 * WorldStreamer#findRoute. Each leg is walked with an ActorWalkToEvent, and the player is
+	 * put in the next world once standing on the teleport the leg ends at.
+	 */
+	public void walkTo(String worldName, int x, int y) {
+		List<WorldGraph.Leg> route = worlds.findRoute(world.getName(), player.getX(), player.getY(), worldName,
+				x, y);
+		if (route == null) {
+			System.out.println("No way to " + worldName + " at " + x + "," + y);
+			return;
+		}
+		for (int i = 0; i < route.size(); i++) {
+			WorldGraph.Leg leg = route.get(i);
+			queueEvent(new ActorWalkToEvent(player, leg.getToX(), leg.getToY()));
+			if (i + 1 < route.size()) {
+				WorldGraph.Leg next = route.get(i + 1);
+				queueEvent(new ChangeWorldEvent(next.getWorld(), next.getFromX(), next.getFromY(), DIRECTION.SOUTH,
+						Color.BLACK));
+			}
+		}
+	}
+
 	/**
 	 * Teleports the player to the first town (littleroot_town) spawn point.
 	 * Called after losing a battle.
 	 */
 	public void teleportToFirstTown() {
-		World firstTown = worlds.get("littleroot_town");
+		World firstTown = worlds.getWorld("littleroot_town");
 		if (firstTown != null && player != null) {
 			// Use changeWorld to properly relocate player
 			changeWorld(firstTown, firstTown.getSafeX(), firstTown.getSafeY(), DIRECTION.SOUTH);
@@ -0,0 +1,107 @@
+package com.github.adisann.pokemon.screen;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import com.github.adisann.pokemon.model.world.World;
+import com.github.adisann.pokemon.screen.renderer.WorldSnapshot;
+import com.github.adisann.pokemon.screen.renderer.YSortedDrawList;
+
+/**
+ * Runs the world logic of a frame on a thread of its own, while the GL thread draws.
+ *
+ * The steps of a frame are started once input and cutscenes are handled, and are waited for
+ * after the frame is drawn, so the world is never used by both threads at once. After its
+ * steps the simulation captures the world into the back WorldSnapshot. The renderer draws
+ * the front one meanwhile, and the two trade places in finish(), so neither has to lock them.
+ * What is drawn is one frame behind the logic.
+ * */
+public class SimulationThread implements Disposable {
+
+	/**
+	 * One fixed step of world logic.
+	 */
+	public interface Step {
+
+		/**
+		 * @return	false to skip the rest of the steps of this frame
+		 */
+		public boolean step(float delta);
+	}
+
+	private AsyncExecutor executor = new AsyncExecutor(1, "simulation");
+	private AsyncResult<Void> running;
+
+	/* only used on the simulation thread, or while it is idle */
+	private World world;
+	private YSortedDrawList drawList;
+
+	private WorldSnapshot front = new WorldSnapshot();
+	private WorldSnapshot back = new WorldSnapshot();
+
+	public SimulationThread(World world) {
+		this.world = world;
+		this.drawList = new YSortedDrawList(world);
+	}
+
+	/**
+	 * Starts the steps of a frame. The area is where the snapshot is taken, in tiles.
+	 *
+	 * @param alpha	How far between the last two steps the result will be drawn
+	 */
+	public void start(final Step step, final int steps, final float delta, final float minX, final float minY,
+			final float maxX, final float maxY, final float alpha) {
+		finish();
+		running = executor.submit(new AsyncTask<Void>() {
+			@Override
+			public Void call() throws Exception {
+				for (int i = 0; i < steps; i++) {
+					if (!step.step(delta)) {
+						break;
+					}
+				}
+				back.capture(world, drawList, minX, minY, maxX, maxY, alpha);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Waits for the steps of the frame, and makes their snapshot the one to draw.
+	 * Does nothing if no steps are running.
+	 */
+	public void finish() {
+		if (running == null) {
+			return;
+		}
+		try {
+			running.get();
+		} finally {
+			running = null;
+		}
+		WorldSnapshot drawn = front;
+		front = back;
+		back = drawn;
+	}
+
+	/**
+	 * @return	The snapshot to draw this frame
+	 */
+	public WorldSnapshot getSnapshot() {
+		return front;
+	}
+
+	public void setWorld(World world) {
+		finish();
+		this.world = world;
+		drawList.setWorld(world);
+	}
+
+	@Override
+	public void dispose() {
+		finish();
+		executor.dispose();
+		drawList.dispose();
+	}
+}
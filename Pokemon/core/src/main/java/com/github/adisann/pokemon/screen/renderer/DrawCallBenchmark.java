@@ -0,0 +1,160 @@
+package com.github.adisann.pokemon.screen.renderer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+import java.util.List;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.github.adisann.pokemon.data.NPCDatabase;
+import com.github.adisann.pokemon.model.Camera;
+import com.github.adisann.pokemon.model.actor.Actor;
+import com.github.adisann.pokemon.model.world.World;
+import com.github.adisann.pokemon.util.SpriteRegistry;
+import com.github.adisann.pokemon.worldloader.LTerrainDb;
+import com.github.adisann.pokemon.worldloader.LTerrainLoader;
+import com.github.adisann.pokemon.worldloader.LWorldObjectDb;
+import com.github.adisann.pokemon.worldloader.LWorldObjectLoader;
+import com.github.adisann.pokemon.worldloader.NPCDatabaseLoader;
+import com.github.adisann.pokemon.worldloader.WorldLoader;
+
+/**
+ * Counts the draw calls and texture binds of the WorldRenderer per frame, as GLProfiler does,
+ * for every world of assets/worlds with the camera on each of its actors, or on its safe tile.
+ *
+ * Runs headless on a 1280x960 screen, with a GL that counts the calls and does nothing else.
+ * Run it from the assets folder, the benchmark task of core does.
+ *
+ * Usage: DrawCallBenchmark
+ * */
+public class DrawCallBenchmark {
+
+	private static final int SCREEN_WIDTH = 1280, SCREEN_HEIGHT = 960;
+	private static final int FRAMES = 10;
+
+	private static int drawCalls, textureBinds;
+
+	public static void main(String[] args) {
+		new HeadlessApplication(new ApplicationAdapter() {
+			@Override
+			public void create() {
+				Gdx.graphics = new MockGraphics() {
+					@Override
+					public int getWidth() {
+						return SCREEN_WIDTH;
+					}
+
+					@Override
+					public int getHeight() {
+						return SCREEN_HEIGHT;
+					}
+				};
+				Gdx.gl = Gdx.gl20 = countingGL();
+				run();
+				Gdx.app.exit();
+			}
+		});
+	}
+
+	private static void run() {
+		SpriteRegistry sprites = new SpriteRegistry();
+		AssetManager asman = new AssetManager();
+		asman.setLoader(LWorldObjectDb.class, new LWorldObjectLoader(new InternalFileHandleResolver()));
+		asman.setLoader(LTerrainDb.class, new LTerrainLoader(new InternalFileHandleResolver()));
+		asman.setLoader(NPCDatabase.class, new NPCDatabaseLoader(new InternalFileHandleResolver()));
+		asman.setLoader(World.class, new WorldLoader(new InternalFileHandleResolver(), sprites));
+		FileHandle[] files = Gdx.files.internal("worlds").list();
+		for (FileHandle file : files) {
+			if (file.extension().equals("txt") || file.extension().equals("tmx")) {
+				asman.load(file.path(), World.class);
+			}
+		}
+		asman.finishLoading();
+
+		SpriteBatch batch = new SpriteBatch();
+		Camera camera = new Camera();
+		System.out.println(String.format("%-24s%-12s%-12s%s", "world", "camera on", "draw calls", "texture binds"));
+		for (FileHandle file : files) {
+			if (!asman.isLoaded(file.path(), World.class)) {
+				continue;
+			}
+			World world = asman.get(file.path(), World.class);
+			WorldRenderer renderer = new WorldRenderer(asman, world);
+			List<Actor> actors = world.getActors();
+			for (int i = 0; i < Math.max(1, actors.size()); i++) {
+				String on;
+				if (actors.isEmpty()) {
+					camera.update(world.getSafeX() + 0.5f, world.getSafeY() + 0.5f);
+					on = "safe tile";
+				} else {
+					camera.update(actors.get(i).getWorldX() + 0.5f, actors.get(i).getWorldY() + 0.5f);
+					on = actors.get(i).getX() + "," + actors.get(i).getY();
+				}
+				render(batch, renderer, camera); // bakes the terrain chunks
+				drawCalls = 0;
+				textureBinds = 0;
+				for (int frame = 0; frame < FRAMES; frame++) {
+					render(batch, renderer, camera);
+				}
+				System.out.println(String.format("%-24s%-12s%-12.1f%.1f", world.getName(), on,
+						(float) drawCalls / FRAMES, (float) textureBinds / FRAMES));
+			}
+			renderer.dispose();
+		}
+		batch.dispose();
+		asman.dispose();
+		sprites.dispose();
+	}
+
+	private static void render(SpriteBatch batch, WorldRenderer renderer, Camera camera) {
+		batch.begin();
+		renderer.render(batch, camera);
+		batch.end();
+	}
+
+	/* a GL20 that counts draws and binds, and otherwise only answers enough to compile shaders */
+	private static GL20 countingGL() {
+		return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String name = method.getName();
+						if (name.equals("glDrawElements") || name.equals("glDrawArrays")) {
+							drawCalls++;
+						} else if (name.equals("glBindTexture")) {
+							textureBinds++;
+						} else if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+							int status = (Integer) args[1];
+							IntBuffer params = (IntBuffer) args[2];
+							params.put(params.position(),
+									status == GL20.GL_COMPILE_STATUS || status == GL20.GL_LINK_STATUS ? 1 : 0);
+						} else if (name.equals("glGetIntegerv")) {
+							IntBuffer params = (IntBuffer) args[1];
+							params.put(params.position(), 0);
+						} else if (name.equals("glCheckFramebufferStatus")) {
+							return GL20.GL_FRAMEBUFFER_COMPLETE;
+						}
+						Class<?> type = method.getReturnType();
+						if (type == boolean.class) {
+							return false;
+						} else if (type == String.class) {
+							return "";
+						} else if (type == float.class) {
+							return 0f;
+						} else if (type == int.class) {
+							return 1; // a handle for whatever was asked to be made
+						}
+						return null;
+					}
+				});
+	}
+}
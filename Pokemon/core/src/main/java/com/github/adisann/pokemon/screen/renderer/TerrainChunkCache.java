@@ -0,0 +1,157 @@
+package com.github.adisann.pokemon.screen.renderer;
+
+import java.util.HashMap;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Disposable;
+import com.github.adisann.pokemon.Settings;
+import com.github.adisann.pokemon.model.TileChunk;
+import com.github.adisann.pokemon.model.TileMap;
+
+/**
+ * Bakes the terrain of TileChunks into offscreen FrameBuffers, so a chunk can be drawn
+ * as a single quad instead of one quad per tile.
+ *
+ * A fixed number of buffers is kept. When all are taken, the one least recently drawn
+ * is reused. A chunk is baked again when its terrain version changes.
+ * */
+public class TerrainChunkCache implements Disposable {
+
+	private static final int CHUNK_PIXELS = TileMap.CHUNK_SIZE * Settings.TILE_SIZE;
+
+	private SpriteBatch bakeBatch;
+
+	private Slot[] slots;
+	private HashMap<TileChunk, Slot> slotsByChunk = new HashMap<TileChunk, Slot>();
+	private long frame;
+
+	private class Slot {
+		private FrameBuffer buffer;
+		private TextureRegion region;
+		private TileChunk chunk;
+		private int terrainVersion;
+		private long lastUsed = -1;
+	}
+
+	/**
+	 * @param capacity	Max amount of chunks that stay baked at once
+	 */
+	public TerrainChunkCache(int capacity) {
+		slots = new Slot[capacity];
+		bakeBatch = new SpriteBatch(TileMap.CHUNK_SIZE * TileMap.CHUNK_SIZE);
+		bakeBatch.getProjectionMatrix().setToOrtho2D(0, 0, CHUNK_PIXELS, CHUNK_PIXELS);
+	}
+
+	/**
+	 * Call once per rendered frame, before any #isBaked or #bake calls.
+	 */
+	public void beginFrame() {
+		frame++;
+	}
+
+	/**
+	 * @return	If the chunk has an up-to-date baked region
+	 */
+	public boolean isBaked(TileChunk chunk) {
+		Slot slot = slotsByChunk.get(chunk);
+		return slot != null && slot.terrainVersion == chunk.getTerrainVersion();
+	}
+
+	/**
+	 * Renders the terrain of a chunk into a buffer. Uses its own SpriteBatch, so it must
+	 * not be called between begin() and end() of another batch.
+	 *
+	 * @return	false if every buffer is already in use this frame
+	 */
+	public boolean bake(TileChunk chunk) {
+		Slot slot = slotsByChunk.get(chunk);
+		if (slot == null) {
+			slot = findFreeSlot();
+			if (slot == null) {
+				return false;
+			}
+			if (slot.chunk != null) {
+				slotsByChunk.remove(slot.chunk);
+			}
+			slot.chunk = chunk;
+			slotsByChunk.put(chunk, slot);
+		}
+
+		slot.buffer.begin();
+		Gdx.gl.glClearColor(0, 0, 0, 0);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+		bakeBatch.begin();
+		for (int lx = 0; lx < chunk.getWidth(); lx++) {
+			for (int ly = 0; ly < chunk.getHeight(); ly++) {
+				TextureRegion terrain = chunk.getTerrain(lx, ly).getRegion();
+				if (terrain != null) { // Terrain NONE has no image
+					bakeBatch.draw(terrain,
+							lx * Settings.TILE_SIZE,
+							ly * Settings.TILE_SIZE,
+							Settings.TILE_SIZE,
+							Settings.TILE_SIZE);
+				}
+			}
+		}
+		bakeBatch.end();
+		slot.buffer.end();
+
+		// only the lower left part is used for chunks on the map edge
+		slot.region.setRegion(0, 0, chunk.getWidth() * Settings.TILE_SIZE, chunk.getHeight() * Settings.TILE_SIZE);
+		slot.region.flip(false, true);
+		slot.terrainVersion = chunk.getTerrainVersion();
+		slot.lastUsed = frame;
+		return true;
+	}
+
+	/**
+	 * @return	The baked terrain of the chunk, or null if it is not baked
+	 */
+	public TextureRegion getRegion(TileChunk chunk) {
+		Slot slot = slotsByChunk.get(chunk);
+		if (slot == null) {
+			return null;
+		}
+		slot.lastUsed = frame;
+		return slot.region;
+	}
+
+	private Slot findFreeSlot() {
+		Slot oldest = null;
+		for (int i = 0; i < slots.length; i++) {
+			if (slots[i] == null) {
+				slots[i] = createSlot();
+				return slots[i];
+			}
+			if (slots[i].lastUsed != frame && (oldest == null || slots[i].lastUsed < oldest.lastUsed)) {
+				oldest = slots[i];
+			}
+		}
+		return oldest;
+	}
+
+	private Slot createSlot() {
+		Slot slot = new Slot();
+		slot.buffer = new FrameBuffer(Format.RGBA8888, CHUNK_PIXELS, CHUNK_PIXELS, false);
+		slot.buffer.getColorBufferTexture().setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
+		slot.region = new TextureRegion(slot.buffer.getColorBufferTexture());
+		return slot;
+	}
+
+	@Override
+	public void dispose() {
+		for (Slot slot : slots) {
+			if (slot != null) {
+				slot.buffer.dispose();
+			}
+		}
+		slotsByChunk.clear();
+		bakeBatch.dispose();
+	}
+}
@@ -1,20 +1,15 @@
 package com.github.adisann.pokemon.screen.renderer;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.github.adisann.pokemon.Settings;
 import com.github.adisann.pokemon.model.Camera;
-import com.github.adisann.pokemon.model.YSortable;
-import com.github.adisann.pokemon.model.actor.Actor;
+import com.github.adisann.pokemon.model.TileChunk;
+import com.github.adisann.pokemon.model.TileMap;
 import com.github.adisann.pokemon.model.world.World;
-import com.github.adisann.pokemon.model.world.WorldObject;
 
 /** */
 public class WorldRenderer {
@@ -22,103 +17,157 @@ public class WorldRenderer {
 	private AssetManager assetManager;
 	private World world;
 
-	private TextureAtlas atlas;
+	/** Chunks kept baked when Settings.STATIC_TERRAIN_LAYER is on */
+	private static final int TERRAIN_CACHE_CHUNKS = 48;
+
+	private TerrainChunkCache terrainCache;
 
-	private List<Integer> renderedObjects = new ArrayList<Integer>();
-	private List<YSortable> forRendering = new ArrayList<YSortable>();
+	/* only made when this renderer captures its own snapshots */
+	private YSortedDrawList drawList;
+	private WorldSnapshot snapshot = new WorldSnapshot();
+
+	/* area seen by the camera this frame, in tiles, and where its origin is on screen */
+	private float viewMinX, viewMinY, viewMaxX, viewMaxY;
+	private float worldStartX, worldStartY;
 
 	public WorldRenderer(AssetManager assetManager, World world) {
 		this.assetManager = assetManager;
 		this.world = world;
 
-		atlas = assetManager.get("graphics_packed/tiles/tilepack.atlas", TextureAtlas.class);
+		if (Settings.STATIC_TERRAIN_LAYER) {
+			terrainCache = new TerrainChunkCache(TERRAIN_CACHE_CHUNKS);
+		}
 	}
 
 	public void render(SpriteBatch batch, Camera camera) {
-		float worldStartX = Gdx.graphics.getWidth() / 2 - camera.getCameraX() * Settings.SCALED_TILE_SIZE;
-		float worldStartY = Gdx.graphics.getHeight() / 2 - camera.getCameraY() * Settings.SCALED_TILE_SIZE;
+		render(batch, camera, 1f);
+	}
 
-		/* render tile terrains */
-		for (int x = 0; x < world.getMap().getWidth(); x++) {
-			for (int y = 0; y < world.getMap().getHeight(); y++) {
-				String imageName = world.getMap().getTile(x, y).getTerrain().getImageName();
-				TextureRegion render = null;
-				if (!imageName.isEmpty()) { // Terrain NONE has no image
-					render = atlas.findRegion(world.getMap().getTile(x, y).getTerrain().getImageName());
-				}
+	/**
+	 * @param alpha	How far this frame is between the last two logic steps, actors are drawn in between
+	 */
+	public void render(SpriteBatch batch, Camera camera, float alpha) {
+		renderTerrain(batch, camera);
+		if (drawList == null) {
+			drawList = new YSortedDrawList(world);
+		}
+		snapshot.capture(world, drawList, viewMinX, viewMinY, viewMaxX, viewMaxY, alpha);
+		renderSnapshot(batch, snapshot);
+	}
+
+	/**
+	 * Draws objects and actors from a snapshot taken elsewhere, see SimulationThread.
+	 */
+	public void render(SpriteBatch batch, Camera camera, WorldSnapshot snapshot) {
+		renderTerrain(batch, camera);
+		renderSnapshot(batch, snapshot);
+	}
 
-				if (render != null) {
-					batch.draw(render,
-							(int) (worldStartX + x * Settings.SCALED_TILE_SIZE),
-							(int) (worldStartY + y * Settings.SCALED_TILE_SIZE),
-							(int) (Settings.SCALED_TILE_SIZE),
-							(int) (Settings.SCALED_TILE_SIZE));
+	private void renderTerrain(SpriteBatch batch, Camera camera) {
+		worldStartX = Gdx.graphics.getWidth() / 2 - camera.getCameraX() * Settings.SCALED_TILE_SIZE;
+		worldStartY = Gdx.graphics.getHeight() / 2 - camera.getCameraY() * Settings.SCALED_TILE_SIZE;
+
+		/* find the chunks overlapping the camera */
+		TileMap map = world.getMap();
+		float halfWidthInTiles = Gdx.graphics.getWidth() / 2 / Settings.SCALED_TILE_SIZE;
+		float halfHeightInTiles = Gdx.graphics.getHeight() / 2 / Settings.SCALED_TILE_SIZE;
+		viewMinX = camera.getCameraX() - halfWidthInTiles;
+		viewMinY = camera.getCameraY() - halfHeightInTiles;
+		viewMaxX = camera.getCameraX() + halfWidthInTiles;
+		viewMaxY = camera.getCameraY() + halfHeightInTiles;
+
+		int minChunkX = TileMap.toChunk(Math.max(0, MathUtils.floor(viewMinX)));
+		int minChunkY = TileMap.toChunk(Math.max(0, MathUtils.floor(viewMinY)));
+		int maxChunkX = Math.min(map.getChunksX() - 1, TileMap.toChunk(MathUtils.ceil(viewMaxX)));
+		int maxChunkY = Math.min(map.getChunksY() - 1, TileMap.toChunk(MathUtils.ceil(viewMaxY)));
+
+		/* bake changed terrain chunks, this can't happen inside the batch */
+		if (terrainCache != null) {
+			terrainCache.beginFrame();
+			boolean batchEnded = false;
+			for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+				for (int cy = minChunkY; cy <= maxChunkY; cy++) {
+					TileChunk chunk = map.getChunk(cx, cy);
+					if (!terrainCache.isBaked(chunk)) {
+						if (!batchEnded) {
+							batch.end();
+							batchEnded = true;
+						}
+						terrainCache.bake(chunk);
+					}
 				}
 			}
+			if (batchEnded) {
+				batch.begin();
+			}
 		}
 
-		/* collect objects and actors */
-		for (int x = 0; x < world.getMap().getWidth(); x++) {
-			for (int y = 0; y < world.getMap().getHeight(); y++) {
-				if (world.getMap().getTile(x, y).getActor() != null) {
-					Actor actor = world.getMap().getTile(x, y).getActor();
-					forRendering.add(actor);
+		/* render tile terrains */
+		for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+			for (int cy = minChunkY; cy <= maxChunkY; cy++) {
+				TileChunk chunk = map.getChunk(cx, cy);
+				if (terrainCache != null && terrainCache.isBaked(chunk)) {
+					batch.draw(terrainCache.getRegion(chunk),
+							(int) (worldStartX + chunk.getOriginX() * Settings.SCALED_TILE_SIZE),
+							(int) (worldStartY + chunk.getOriginY() * Settings.SCALED_TILE_SIZE),
+							(int) (chunk.getWidth() * Settings.SCALED_TILE_SIZE),
+							(int) (chunk.getHeight() * Settings.SCALED_TILE_SIZE));
+					continue;
 				}
-				if (world.getMap().getTile(x, y).getObject() != null) {
-					WorldObject object = world.getMap().getTile(x, y).getObject();
-					if (renderedObjects.contains(object.hashCode())) { // test if it's already drawn
-						continue;
-					}
-					if (object.isWalkable()) { // if it's walkable, draw it right away
-						batch.draw(object.getSprite(), // chances are it's probably something on the ground
-								worldStartX + object.getWorldX() * Settings.SCALED_TILE_SIZE,
-								worldStartY + object.getWorldY() * Settings.SCALED_TILE_SIZE,
-								Settings.SCALED_TILE_SIZE * object.getSizeX(),
-								Settings.SCALED_TILE_SIZE * object.getSizeY());
-						continue;
-					} else { // add it to the list of YSortables
-						forRendering.add(object);
-						renderedObjects.add(object.hashCode());
+				for (int lx = 0; lx < chunk.getWidth(); lx++) {
+					for (int ly = 0; ly < chunk.getHeight(); ly++) {
+						TextureRegion render = chunk.getTerrain(lx, ly).getRegion();
+						if (render != null) { // Terrain NONE has no image
+							batch.draw(render,
+									(int) (worldStartX + (chunk.getOriginX() + lx) * Settings.SCALED_TILE_SIZE),
+									(int) (worldStartY + (chunk.getOriginY() + ly) * Settings.SCALED_TILE_SIZE),
+									(int) (Settings.SCALED_TILE_SIZE),
+									(int) (Settings.SCALED_TILE_SIZE));
+						}
 					}
 				}
 			}
 		}
+	}
 
-		Collections.sort(forRendering, new WorldObjectYComparator());
-		Collections.reverse(forRendering);
-
-		for (YSortable loc : forRendering) {
-			TextureRegion sprite = loc.getSprite();
-			float widthInTiles = ((float) sprite.getRegionWidth() / Settings.TILE_SIZE);
-			float heightInTiles = ((float) sprite.getRegionHeight() / Settings.TILE_SIZE);
-			if (loc instanceof Actor) {
-				Actor a = (Actor) loc;
-				if (!a.isVisible()) {
-					continue;
-				}
-
-				batch.draw(sprite,
-						worldStartX + loc.getWorldX() * Settings.SCALED_TILE_SIZE + 0.5f * Settings.SCALED_TILE_SIZE
-								- widthInTiles / 2 * Settings.SCALED_TILE_SIZE,
-						worldStartY + loc.getWorldY() * Settings.SCALED_TILE_SIZE,
-						Settings.SCALED_TILE_SIZE * widthInTiles,
-						Settings.SCALED_TILE_SIZE * heightInTiles);
+	private void renderSnapshot(SpriteBatch batch, WorldSnapshot snapshot) {
+		for (int i = 0; i < snapshot.size(); i++) {
+			float x = snapshot.getX(i);
+			float y = snapshot.getY(i);
+			float width = snapshot.getWidth(i);
+			float height = snapshot.getHeight(i);
+			if (!isOnScreen(x, y, width, height)) {
 				continue;
-			} else {
-				batch.draw(sprite,
-						worldStartX + loc.getWorldX() * Settings.SCALED_TILE_SIZE,
-						worldStartY + loc.getWorldY() * Settings.SCALED_TILE_SIZE,
-						Settings.SCALED_TILE_SIZE * widthInTiles,
-						Settings.SCALED_TILE_SIZE * heightInTiles);
 			}
+			batch.draw(snapshot.getSprite(i),
+					worldStartX + x * Settings.SCALED_TILE_SIZE,
+					worldStartY + y * Settings.SCALED_TILE_SIZE,
+					Settings.SCALED_TILE_SIZE * width,
+					Settings.SCALED_TILE_SIZE * height);
 		}
+	}
 
-		renderedObjects.clear();
-		forRendering.clear();
+	/**
+	 * Tests a rectangle in tile units against the area the camera sees this frame.
+	 */
+	private boolean isOnScreen(float x, float y, float width, float height) {
+		return x + width >= viewMinX && x <= viewMaxX && y + height >= viewMinY && y <= viewMaxY;
 	}
 
 	public void setWorld(World world) {
 		this.world = world;
+		if (drawList != null) {
+			drawList.setWorld(world);
+		}
+	}
+
+	public void dispose() {
+		if (drawList != null) {
+			drawList.dispose();
+		}
+		if (terrainCache != null) {
+			terrainCache.dispose();
+		}
 	}
 
 }
\ No newline at end of file
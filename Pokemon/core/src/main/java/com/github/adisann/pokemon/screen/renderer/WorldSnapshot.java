@@ -0,0 +1,145 @@
+package com.github.adisann.pokemon.screen.renderer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.github.adisann.pokemon.Settings;
+import com.github.adisann.pokemon.model.YSortable;
+import com.github.adisann.pokemon.model.actor.Actor;
+import com.github.adisann.pokemon.model.world.World;
+import com.github.adisann.pokemon.model.world.WorldObject;
+
+/**
+ * What the WorldRenderer draws on top of the terrain, captured from a World at one moment.
+ *
+ * Holds a sprite and a rectangle in tiles per object and actor near the view, in draw order.
+ * Actors also keep where they were before the last logic step, so they can be drawn in
+ * between. Once captured, a snapshot does not refer to anything the simulation changes,
+ * so it can be drawn while the world goes on.
+ * */
+public class WorldSnapshot {
+
+	private int size = 0;
+	private TextureRegion[] sprites = new TextureRegion[64];
+	private float[] x = new float[64], y = new float[64];
+	private float[] lastX = new float[64], lastY = new float[64];
+	private float[] width = new float[64], height = new float[64];
+
+	private float alpha = 1f;
+
+	private List<WorldObject> visibleObjects = new ArrayList<WorldObject>();
+
+	/**
+	 * Replaces the contents with what is in the given area of the world.
+	 *
+	 * @param drawList	Draw order of the world, brought up to date here
+	 * @param alpha		How far between the last two logic steps the snapshot is meant to be drawn
+	 */
+	public void capture(World world, YSortedDrawList drawList, float minX, float minY, float maxX, float maxY,
+			float alpha) {
+		size = 0;
+		this.alpha = alpha;
+
+		/* walkable objects lie on the ground, they go under everything else */
+		world.getObjectIndex().queryRange(minX, minY, maxX, maxY, visibleObjects);
+		for (int i = 0; i < visibleObjects.size(); i++) {
+			WorldObject object = visibleObjects.get(i);
+			if (object.isWalkable()) {
+				add(object.getSprite(), object.getWorldX(), object.getWorldY(), object.getWorldX(), object.getWorldY(),
+						object.getSizeX(), object.getSizeY());
+			}
+		}
+		visibleObjects.clear();
+
+		/* objects and actors, back to front */
+		drawList.update(minX, minY, maxX, maxY);
+		List<YSortable> sorted = drawList.getSorted();
+		for (int i = 0; i < sorted.size(); i++) {
+			YSortable loc = sorted.get(i);
+			TextureRegion sprite = loc.getSprite();
+			float widthInTiles = ((float) sprite.getRegionWidth() / Settings.TILE_SIZE);
+			float heightInTiles = ((float) sprite.getRegionHeight() / Settings.TILE_SIZE);
+			if (loc instanceof Actor) {
+				Actor a = (Actor) loc;
+				if (!a.isVisible()) {
+					continue;
+				}
+				// actors move at most a tile per step, one tile of slack keeps them from popping in
+				if (a.getWorldX() + 1 + widthInTiles < minX || a.getWorldX() - 1 - widthInTiles > maxX
+						|| a.getWorldY() + 1 + heightInTiles < minY || a.getWorldY() - 1 > maxY) {
+					continue;
+				}
+				float offset = 0.5f - widthInTiles / 2;
+				add(sprite, a.getRenderX(1f) + offset, a.getRenderY(1f), a.getRenderX(0f) + offset, a.getRenderY(0f),
+						widthInTiles, heightInTiles);
+			} else {
+				if (loc.getWorldX() + widthInTiles < minX || loc.getWorldX() > maxX
+						|| loc.getWorldY() + heightInTiles < minY || loc.getWorldY() > maxY) {
+					continue;
+				}
+				add(sprite, loc.getWorldX(), loc.getWorldY(), loc.getWorldX(), loc.getWorldY(), widthInTiles,
+						heightInTiles);
+			}
+		}
+	}
+
+	private void add(TextureRegion sprite, float x, float y, float lastX, float lastY, float width, float height) {
+		if (size == sprites.length) {
+			int capacity = size * 2;
+			sprites = Arrays.copyOf(sprites, capacity);
+			this.x = Arrays.copyOf(this.x, capacity);
+			this.y = Arrays.copyOf(this.y, capacity);
+			this.lastX = Arrays.copyOf(this.lastX, capacity);
+			this.lastY = Arrays.copyOf(this.lastY, capacity);
+			this.width = Arrays.copyOf(this.width, capacity);
+			this.height = Arrays.copyOf(this.height, capacity);
+		}
+		sprites[size] = sprite;
+		this.x[size] = x;
+		this.y[size] = y;
+		this.lastX[size] = lastX;
+		this.lastY[size] = lastY;
+		this.width[size] = width;
+		this.height[size] = height;
+		size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public TextureRegion getSprite(int i) {
+		return sprites[i];
+	}
+
+	/**
+	 * @return	Left edge in tiles, between the last two logic states
+	 */
+	public float getX(int i) {
+		return lastX[i] + (x[i] - lastX[i]) * alpha;
+	}
+
+	/**
+	 * @return	Bottom edge in tiles, between the last two logic states
+	 */
+	public float getY(int i) {
+		return lastY[i] + (y[i] - lastY[i]) * alpha;
+	}
+
+	public float getWidth(int i) {
+		return width[i];
+	}
+
+	public float getHeight(int i) {
+		return height[i];
+	}
+
+	/**
+	 * @return	How far between the last two logic steps this snapshot is drawn
+	 */
+	public float getAlpha() {
+		return alpha;
+	}
+}
@@ -0,0 +1,175 @@
+package com.github.adisann.pokemon.screen.renderer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.adisann.pokemon.model.DIRECTION;
+import com.github.adisann.pokemon.model.YSortable;
+import com.github.adisann.pokemon.model.actor.Actor;
+import com.github.adisann.pokemon.model.world.World;
+import com.github.adisann.pokemon.model.world.WorldObject;
+import com.github.adisann.pokemon.model.world.WorldObserver;
+
+/**
+ * Draw order for the YSortables of a World near the view, from back (high Y) to front (low Y).
+ *
+ * Walkable WorldObjects lie on the ground and are not part of the list. The rest is taken
+ * from the world's SpatialIndexes for the view, so only the buckets in view are looked at,
+ * and kept until the view changes or something in the world moves. The indexes hand out
+ * elements a row of buckets at a time, so objects and actors only have to be sorted within a
+ * row, then merged. That is an insertion sort, cheap on so few out of place, and allocates
+ * nothing.
+ * */
+public class YSortedDrawList implements WorldObserver {
+
+	private World world;
+
+	private List<YSortable> sorted = new ArrayList<YSortable>();
+	private List<YSortable> objects = new ArrayList<YSortable>();
+	private List<YSortable> actors = new ArrayList<YSortable>();
+
+	private WorldObjectYComparator comparator = new WorldObjectYComparator();
+	private int movingActors = 0;
+	private boolean dirty = true;
+
+	/* area the list was last filled for */
+	private float minX, minY, maxX, maxY;
+
+	public YSortedDrawList(World world) {
+		setWorld(world);
+	}
+
+	/**
+	 * Stops observing the current world and observes the new one.
+	 */
+	public void setWorld(World world) {
+		if (this.world != null) {
+			this.world.removeObserver(this);
+		}
+		this.world = world;
+		sorted.clear();
+		movingActors = 0;
+		for (Actor a : world.getActors()) {
+			if (a.getMovementState() == Actor.MOVEMENT_STATE.MOVING) {
+				movingActors++;
+			}
+		}
+		dirty = true;
+		world.addObserver(this);
+	}
+
+	/**
+	 * Fills the list with what overlaps the area, in draw order. Call once per frame before drawing.
+	 *
+	 * @param minX	Area in tiles, actors walking into it are included
+	 */
+	public void update(float minX, float minY, float maxX, float maxY) {
+		if (!dirty && movingActors == 0 && minX == this.minX && minY == this.minY && maxX == this.maxX
+				&& maxY == this.maxY) {
+			return;
+		}
+		this.minX = minX;
+		this.minY = minY;
+		this.maxX = maxX;
+		this.maxY = maxY;
+
+		objects.clear();
+		world.getObjectIndex().queryRange(minX, minY, maxX, maxY, objects);
+		int kept = 0;
+		for (int i = 0; i < objects.size(); i++) {
+			YSortable o = objects.get(i);
+			if (!((WorldObject) o).isWalkable()) {
+				objects.set(kept++, o);
+			}
+		}
+		while (objects.size() > kept) {
+			objects.remove(objects.size() - 1);
+		}
+		sort(objects);
+
+		// actors move at most a tile per step, and their sprites can be wider than a tile
+		actors.clear();
+		world.getActorIndex().queryRange(minX - 2, minY - 1, maxX + 2, maxY + 1, actors);
+		sort(actors);
+
+		/* merge the two, objects go behind actors on the same row */
+		sorted.clear();
+		int o = 0, a = 0;
+		while (o < objects.size() || a < actors.size()) {
+			if (a == actors.size() || o < objects.size() && comparator.compare(objects.get(o), actors.get(a)) >= 0) {
+				sorted.add(objects.get(o++));
+			} else {
+				sorted.add(actors.get(a++));
+			}
+		}
+		dirty = false;
+	}
+
+	/* the indexes go from the bottom row of buckets up, so after reversing only rows are out of order */
+	private void sort(List<YSortable> list) {
+		Collections.reverse(list);
+		for (int i = 1; i < list.size(); i++) {
+			YSortable current = list.get(i);
+			int j = i - 1;
+			while (j >= 0 && comparator.compare(list.get(j), current) < 0) {
+				list.set(j + 1, list.get(j));
+				j--;
+			}
+			list.set(j + 1, current);
+		}
+	}
+
+	/**
+	 * @return	Non-walkable objects and actors near the area of the last #update, back to front
+	 */
+	public List<YSortable> getSorted() {
+		return sorted;
+	}
+
+	public void dispose() {
+		world.removeObserver(this);
+	}
+
+	@Override
+	public void objectAdded(WorldObject o) {
+		dirty = true;
+	}
+
+	@Override
+	public void actorAdded(Actor a) {
+		if (a.getMovementState() == Actor.MOVEMENT_STATE.MOVING) {
+			movingActors++;
+		}
+		dirty = true;
+	}
+
+	@Override
+	public void actorRemoved(Actor a) {
+		if (a.getMovementState() == Actor.MOVEMENT_STATE.MOVING) {
+			movingActors--;
+		}
+		dirty = true;
+	}
+
+	@Override
+	public void actorPlaced(Actor a, int x, int y) {
+		dirty = true;
+	}
+
+	@Override
+	public void actorBeforeMoved(Actor a, DIRECTION direction) {
+		movingActors++;
+	}
+
+	@Override
+	public void actorMoved(Actor a, DIRECTION direction, int x, int y) {
+		movingActors--;
+		dirty = true;
+	}
+
+	@Override
+	public void attemptedMove(Actor a, DIRECTION direction) {
+
+	}
+}
@@ -0,0 +1,57 @@
+package com.github.adisann.pokemon.util;
+
+/**
+ * Turns variable frame deltas into a whole number of fixed logic steps.
+ *
+ * Time that does not fill a whole step is kept for the next frame, and what is left over
+ * is given as an alpha, so rendering can interpolate between the last two logic states.
+ * When a frame is so long that more than maxSteps would be needed, the extra time is
+ * dropped instead of making the next frame even longer.
+ * */
+public class FixedTimestep {
+
+	private float step;
+	private int maxSteps;
+	private float accumulator = 0f;
+
+	/**
+	 * @param step		Seconds of logic per step
+	 * @param maxSteps	Most steps run for a single frame
+	 */
+	public FixedTimestep(float step, int maxSteps) {
+		this.step = step;
+		this.maxSteps = maxSteps;
+	}
+
+	/**
+	 * Adds the time of a frame.
+	 *
+	 * @return	Amount of steps to run this frame
+	 */
+	public int advance(float delta) {
+		accumulator += delta;
+		int steps = (int) (accumulator / step);
+		if (steps > maxSteps) {
+			steps = maxSteps;
+			accumulator = 0f;
+		} else {
+			accumulator -= steps * step;
+		}
+		return steps;
+	}
+
+	/**
+	 * @return	How far the time not yet simulated is into the next step, from 0 to 1
+	 */
+	public float getAlpha() {
+		return Math.min(1f, accumulator / step);
+	}
+
+	public float getStep() {
+		return step;
+	}
+
+	public void reset() {
+		accumulator = 0f;
+	}
+}
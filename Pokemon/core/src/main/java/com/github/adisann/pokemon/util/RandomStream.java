@@ -0,0 +1,82 @@
+package com.github.adisann.pokemon.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * A seeded stream of random numbers, for game logic that should be reproducible.
+ *
+ * The same seed gives the same numbers, so a battle or a world fed the same input plays out
+ * the same way. A stream can be split into a new one whose numbers do not depend on what the
+ * parent draws afterwards, so every battle, world and worker gets a stream of its own instead
+ * of sharing one. Not thread safe, a stream belongs to one thread at a time.
+ * */
+public class RandomStream {
+
+	private SplittableRandom random;
+
+	public RandomStream(long seed) {
+		this.random = new SplittableRandom(seed);
+	}
+
+	/**
+	 * A stream for something with a name, such as a world. The same seed and name always give
+	 * the same stream, no matter in what order they are made.
+	 */
+	public RandomStream(long seed, String name) {
+		this(mix(seed + 0x9E3779B97F4A7C15L * name.hashCode()));
+	}
+
+	private RandomStream(SplittableRandom random) {
+		this.random = random;
+	}
+
+	/**
+	 * @return	A new stream, seeded from this one
+	 */
+	public RandomStream split() {
+		return new RandomStream(random.split());
+	}
+
+	/**
+	 * @return	Between 0 inclusive and 1 exclusive
+	 */
+	public float nextFloat() {
+		return (random.nextInt() >>> 8) * 0x1.0p-24f;
+	}
+
+	/**
+	 * @return	Between min inclusive and max exclusive
+	 */
+	public float nextFloat(float min, float max) {
+		return min + nextFloat() * (max - min);
+	}
+
+	/**
+	 * @return	Between 0 inclusive and bound exclusive
+	 */
+	public int nextInt(int bound) {
+		return random.nextInt(bound);
+	}
+
+	public boolean nextBoolean() {
+		return random.nextInt() < 0;
+	}
+
+	/**
+	 * @return	True with the given chance, between 0 and 1
+	 */
+	public boolean nextBoolean(float chance) {
+		return nextFloat() < chance;
+	}
+
+	public long nextLong() {
+		return random.nextLong();
+	}
+
+	/* murmur3 finalizer, so close seeds give unrelated streams */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return z ^ (z >>> 33);
+	}
+}
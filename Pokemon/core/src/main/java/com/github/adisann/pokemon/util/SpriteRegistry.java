@@ -0,0 +1,111 @@
+package com.github.adisann.pokemon.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker.PixmapPackerRectangle;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Packs loose sprite images into shared texture pages at runtime, so sprites that do not come
+ * from a packed atlas can still be drawn without switching textures between each of them.
+ *
+ * Images are packed as their pixels, which needs no GL, so #getRegion() can be called while a
+ * World is built on a worker thread. The region it returns has no texture until #update() has
+ * run on the GL thread, which uploads the pages that changed. Each image is packed once, later
+ * calls for the same name return the same region.
+ *
+ * AnimationSets built from the sprites can be shared here too, so every actor with the same
+ * sprite uses the same set instead of one built per actor.
+ * */
+public class SpriteRegistry implements Disposable {
+
+	private static final int PAGE_SIZE = 512;
+	private static final int PADDING = 2;
+
+	private PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, PADDING, false);
+
+	private HashMap<String, TextureRegion> regions = new HashMap<String, TextureRegion>();
+	private HashMap<String, AnimationSet> animations = new HashMap<String, AnimationSet>();
+
+	/* packed since the last update, their pages have no texture yet or an outdated one */
+	private List<String> pending = new ArrayList<String>();
+
+	/**
+	 * @param name	Name to share the region by, usually the file the image was loaded from
+	 * @param image	Pixels of the sprite, copied into a page, the caller still owns it
+	 * @return		The region the sprite is drawn from, usable after the next #update()
+	 */
+	public synchronized TextureRegion getRegion(String name, Pixmap image) {
+		TextureRegion region = regions.get(name);
+		if (region == null) {
+			packer.pack(name, image);
+			region = new TextureRegion();
+			regions.put(name, region);
+			pending.add(name);
+		}
+		return region;
+	}
+
+	/**
+	 * @return	The AnimationSet shared under an id, or null if none was shared yet
+	 */
+	public synchronized AnimationSet getAnimations(String id) {
+		return animations.get(id);
+	}
+
+	/**
+	 * Shares an AnimationSet under an id, unless one was shared under it before.
+	 *
+	 * @return	The set shared under the id, which is the given one if it was the first
+	 */
+	public synchronized AnimationSet shareAnimations(String id, AnimationSet set) {
+		AnimationSet shared = animations.get(id);
+		if (shared != null) {
+			return shared;
+		}
+		animations.put(id, set);
+		return set;
+	}
+
+	/**
+	 * Uploads the pages that changed since the last call and points the regions packed since
+	 * then at them. Call it on the GL thread.
+	 */
+	public synchronized void update() {
+		if (pending.isEmpty()) {
+			return;
+		}
+		packer.updatePageTextures(TextureFilter.Nearest, TextureFilter.Nearest, false);
+		for (int i = 0; i < pending.size(); i++) {
+			String name = pending.get(i);
+			Texture page = packer.getPage(name).getTexture();
+			PixmapPackerRectangle rect = packer.getRect(name);
+			TextureRegion region = regions.get(name);
+			region.setTexture(page);
+			region.setRegion(rect.getX(), rect.getY(), rect.getWidth(), rect.getHeight());
+		}
+		pending.clear();
+	}
+
+	/**
+	 * @return	Amount of texture pages the sprites are spread over
+	 */
+	public synchronized int getPageCount() {
+		return packer.getPages().size;
+	}
+
+	@Override
+	public synchronized void dispose() {
+		packer.dispose();
+		regions.clear();
+		animations.clear();
+		pending.clear();
+	}
+}
@@ -1,16 +1,37 @@
 package com.github.adisann.pokemon.worldloader;
 
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
 public class LTerrain {
 	
+	/** Index of this terrain in its LTerrainDb */
+	private int id;
+	
 	/** Name of TextureRegion on TilePack atlas */
 	private String imageName;
 	
-	public LTerrain(String imageName) {
+	/** Region resolved from imageName when the LTerrainDb is loaded, null for terrain without image */
+	private TextureRegion region;
+	
+	public LTerrain(int id, String imageName) {
+		this.id = id;
 		this.imageName = imageName;
 	}
 	
+	public int getId() {
+		return id;
+	}
+	
 	public String getImageName() {
 		return imageName;
 	}
+	
+	public TextureRegion getRegion() {
+		return region;
+	}
+	
+	protected void setRegion(TextureRegion region) {
+		this.region = region;
+	}
 
-}
\ No newline at end of file
+}
@@ -1,13 +1,17 @@
 package com.github.adisann.pokemon.worldloader;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 public class LTerrainDb {
 	
 	private HashMap<String,LTerrain> knownTerrain = new HashMap<String,LTerrain>();
+	private List<LTerrain> terrainById = new ArrayList<LTerrain>();
 	
 	protected void addTerrain(String name, LTerrain obj) {
 		knownTerrain.put(name, obj);
+		terrainById.add(obj);
 	}
 	
 	public LTerrain getLTerrain(String name) {
@@ -16,5 +20,23 @@ public class LTerrainDb {
 		}
 		return knownTerrain.get(name);
 	}
+	
+	/**
+	 * @param id	See LTerrain#getId()
+	 */
+	public LTerrain getLTerrain(int id) {
+		return terrainById.get(id);
+	}
+	
+	/**
+	 * @return	The id the next added terrain will get
+	 */
+	protected int nextId() {
+		return terrainById.size();
+	}
+	
+	public int size() {
+		return terrainById.size();
+	}
 
-}
\ No newline at end of file
+}
@@ -7,6 +7,7 @@ import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.XmlReader;
 import com.badlogic.gdx.utils.XmlReader.Element;
@@ -21,6 +22,8 @@ public class LTerrainLoader extends AsynchronousAssetLoader<LTerrainDb, LTerrain
 
 	@Override
 	public void loadAsync(AssetManager asman, String filename, FileHandle file, LTerraintDbParameter parameter) {
+		TextureAtlas atlas = asman.get("graphics_packed/tiles/tilepack.atlas", TextureAtlas.class);
+
 		XmlReader xr = new XmlReader();
 
 		Element root = xr.parse(file.reader());
@@ -52,7 +55,10 @@ public class LTerrainLoader extends AsynchronousAssetLoader<LTerrainDb, LTerrain
 				imageNameString = "";
 			}
 
-			LTerrain justLoaded = new LTerrain(imageNameString);
+			LTerrain justLoaded = new LTerrain(terrainDb.nextId(), imageNameString);
+			if (!imageNameString.isEmpty()) { // Terrain NONE has no image
+				justLoaded.setRegion(atlas.findRegion(imageNameString));
+			}
 			terrainDb.addTerrain(name, justLoaded);
 		}
 	}
@@ -66,6 +72,7 @@ public class LTerrainLoader extends AsynchronousAssetLoader<LTerrainDb, LTerrain
 	@SuppressWarnings("unchecked")
 	public Array<AssetDescriptor> getDependencies(String filename, FileHandle file, LTerraintDbParameter parameter) {
 		Array<AssetDescriptor> ad = new Array<AssetDescriptor>();
+		ad.add(new AssetDescriptor<TextureAtlas>("graphics_packed/tiles/tilepack.atlas", TextureAtlas.class));
 		return ad;
 	}
 
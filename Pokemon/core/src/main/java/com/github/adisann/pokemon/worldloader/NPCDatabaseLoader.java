@@ -0,0 +1,63 @@
+package com.github.adisann.pokemon.worldloader;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Array;
+import com.github.adisann.pokemon.data.NPCDatabase;
+import com.github.adisann.pokemon.data.NPCDatabase.NPCData;
+import com.github.adisann.pokemon.data.SpeciesDatabase;
+
+/**
+ * Loads the NPCDatabase into AssetManager.
+ *
+ * The file is read when the dependencies are asked for, so the sprites of every NPC become
+ * dependencies of the database: overworld sprites as Pixmaps, to be packed into the
+ * SpriteRegistry, and battle sprites as Textures. The species the teams use are loaded too.
+ */
+public class NPCDatabaseLoader extends AsynchronousAssetLoader<NPCDatabase, NPCDatabaseLoader.NPCDatabaseParameter> {
+
+	private NPCDatabase npcDb;
+
+	public NPCDatabaseLoader(FileHandleResolver resolver) {
+		super(resolver);
+	}
+
+	@Override
+	public void loadAsync(AssetManager asman, String filename, FileHandle file, NPCDatabaseParameter parameter) {
+		SpeciesDatabase.load();
+	}
+
+	@Override
+	public NPCDatabase loadSync(AssetManager asman, String filename, FileHandle file, NPCDatabaseParameter parameter) {
+		NPCDatabase loaded = npcDb;
+		npcDb = null;
+		return loaded;
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public Array<AssetDescriptor> getDependencies(String filename, FileHandle file, NPCDatabaseParameter parameter) {
+		npcDb = new NPCDatabase();
+		npcDb.load(file);
+
+		Array<AssetDescriptor> ad = new Array<AssetDescriptor>();
+		for (NPCData npc : npcDb.getNPCs()) {
+			if (npc.sprite != null) {
+				ad.add(new AssetDescriptor<Pixmap>(npc.sprite, Pixmap.class));
+			}
+			if (npc.battleSprite != null) {
+				ad.add(new AssetDescriptor<Texture>(npc.battleSprite, Texture.class));
+			}
+		}
+		return ad;
+	}
+
+	static public class NPCDatabaseParameter extends AssetLoaderParameters<NPCDatabase> {
+	}
+}
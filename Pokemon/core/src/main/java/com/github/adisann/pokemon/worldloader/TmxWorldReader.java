@@ -0,0 +1,476 @@
+package com.github.adisann.pokemon.worldloader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.github.adisann.pokemon.model.DIRECTION;
+import com.github.adisann.pokemon.model.Tile;
+import com.github.adisann.pokemon.model.world.World;
+
+/**
+ * Reads a Tiled map (.tmx) into a World, without building a DOM of the file.
+ *
+ * The file is read with a streaming XML parser, and layer data is decoded while it is read,
+ * so memory use does not grow with the size of the layer text. Tiles are written straight into
+ * the chunks of the TileMap as they are decoded. Layer data can be csv, base64, base64 with zlib
+ * or gzip, or split into chunks like in infinite maps.
+ *
+ * Tiled tiles are linked to the game with custom tile properties in the tileset:
+ * <ul>
+ * <li>terrain: name of an LTerrain the tile gets</li>
+ * <li>object: name of an LWorldObject placed with its origin on the tile</li>
+ * <li>walkable: false makes the tile unwalkable</li>
+ * </ul>
+ * Tiles without properties are ignored, later layers override earlier ones.
+ * The map itself can have the properties name, safeX, safeY and terrain, the terrain of tiles
+ * no layer sets. Objects in object layers are read by their class: teleport (properties world,
+ * targetX, targetY, facing, color), npc (id, facing), door and flowers.
+ * */
+class TmxWorldReader {
+
+	/* the upper bits of a gid are flip flags */
+	private static final int GID_MASK = 0x1FFFFFFF;
+
+	private WorldLoadContext context;
+	private FileHandle file;
+	private World world;
+
+	private int width, height, tileWidth, tileHeight;
+	private int layerWidth;
+	private HashMap<String, String> mapProperties = new HashMap<String, String>();
+	private IntMap<TileInfo> tiles = new IntMap<TileInfo>();
+
+	/* placed once all layers are read, so teleport tiles exist before doors are put on them */
+	private List<MapObject> objects = new ArrayList<MapObject>();
+
+	private static class TileInfo {
+		private LTerrain terrain;
+		private String object;
+		private boolean unwalkable;
+	}
+
+	private static class MapObject {
+		private String type;
+		private int x, y;
+		private HashMap<String, String> properties = new HashMap<String, String>();
+	}
+
+	TmxWorldReader(WorldLoadContext context, FileHandle file) {
+		this.context = context;
+		this.file = file;
+	}
+
+	World read() {
+		Reader in = file.reader("UTF-8");
+		try {
+			XMLStreamReader xml = factory().createXMLStreamReader(in);
+			try {
+				readMap(xml);
+			} finally {
+				xml.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new GdxRuntimeException("Could not read Tiled map " + file.path(), e);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Could not read Tiled map " + file.path(), e);
+		} finally {
+			StreamUtils.closeQuietly(in);
+		}
+		createWorld();
+		placeObjects();
+		return world;
+	}
+
+	private void readMap(XMLStreamReader xml) throws XMLStreamException, IOException {
+		while (xml.hasNext()) {
+			if (xml.next() != XMLStreamConstants.START_ELEMENT) {
+				continue;
+			}
+			switch (xml.getLocalName()) {
+				case "map":
+					width = intAttribute(xml, "width", 0);
+					height = intAttribute(xml, "height", 0);
+					tileWidth = intAttribute(xml, "tilewidth", 16);
+					tileHeight = intAttribute(xml, "tileheight", 16);
+					break;
+				case "properties":
+					// map properties come before everything else
+					if (world == null) {
+						readProperties(xml, mapProperties);
+					}
+					break;
+				case "tileset":
+					createWorld();
+					readTileset(xml);
+					break;
+				case "layer":
+					createWorld();
+					layerWidth = intAttribute(xml, "width", width);
+					break;
+				case "data":
+					createWorld();
+					readData(xml);
+					break;
+				case "object":
+					createWorld();
+					readObject(xml);
+					break;
+			}
+		}
+	}
+
+	private void createWorld() {
+		if (world != null) {
+			return;
+		}
+		String name = mapProperties.containsKey("name") ? mapProperties.get("name") : file.nameWithoutExtension();
+		world = context.createWorld(name, width, height,
+				Integer.parseInt(property(mapProperties, "safeX", "0")),
+				Integer.parseInt(property(mapProperties, "safeY", "0")));
+		context.fillTerrain(context.getTerrain(property(mapProperties, "terrain", "NONE")));
+	}
+
+	private void readTileset(XMLStreamReader xml) throws XMLStreamException, IOException {
+		int firstGid = intAttribute(xml, "firstgid", 1);
+		String source = xml.getAttributeValue(null, "source");
+		if (source == null) {
+			readTilesetTiles(xml, firstGid);
+			return;
+		}
+
+		Reader in = file.parent().child(source).reader("UTF-8");
+		try {
+			XMLStreamReader tsx = factory().createXMLStreamReader(in);
+			try {
+				readTilesetTiles(tsx, firstGid);
+			} finally {
+				tsx.close();
+			}
+		} finally {
+			StreamUtils.closeQuietly(in);
+		}
+	}
+
+	/* reads the properties of the tiles of a tileset, up to its end */
+	private void readTilesetTiles(XMLStreamReader xml, int firstGid) throws XMLStreamException {
+		int tileId = -1;
+		HashMap<String, String> properties = new HashMap<String, String>();
+		while (xml.hasNext()) {
+			int event = xml.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				if (xml.getLocalName().equals("tile")) {
+					tileId = intAttribute(xml, "id", -1);
+					properties.clear();
+				} else if (xml.getLocalName().equals("property") && tileId >= 0) {
+					properties.put(xml.getAttributeValue(null, "name"), xml.getAttributeValue(null, "value"));
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				if (xml.getLocalName().equals("tile")) {
+					if (!properties.isEmpty()) {
+						tiles.put(firstGid + tileId, tileInfo(properties));
+					}
+					tileId = -1;
+				} else if (xml.getLocalName().equals("tileset")) {
+					return;
+				}
+			}
+		}
+	}
+
+	private TileInfo tileInfo(HashMap<String, String> properties) {
+		TileInfo info = new TileInfo();
+		if (properties.containsKey("terrain")) {
+			info.terrain = context.getTerrain(properties.get("terrain"));
+		}
+		info.object = properties.get("object");
+		info.unwalkable = "false".equals(properties.get("walkable"));
+		return info;
+	}
+
+	private void readData(XMLStreamReader xml) throws XMLStreamException, IOException {
+		String encoding = xml.getAttributeValue(null, "encoding");
+		String compression = xml.getAttributeValue(null, "compression");
+		int index = 0;
+		while (xml.hasNext()) {
+			int event = xml.next();
+			if (event == XMLStreamConstants.START_ELEMENT && xml.getLocalName().equals("chunk")) {
+				decode(new ElementText(xml, false), encoding, compression,
+						intAttribute(xml, "x", 0), intAttribute(xml, "y", 0), intAttribute(xml, "width", 1));
+			} else if (event == XMLStreamConstants.START_ELEMENT && xml.getLocalName().equals("tile")) {
+				// plain XML encoding, one element per tile
+				place(0, 0, layerWidth, index++, (int) Long.parseLong(attribute(xml, "gid", "0")));
+			} else if (event == XMLStreamConstants.CHARACTERS && !xml.isWhiteSpace()) {
+				// the reader consumes the end of the data element
+				decode(new ElementText(xml, true), encoding, compression, 0, 0, layerWidth);
+				return;
+			} else if (event == XMLStreamConstants.END_ELEMENT && xml.getLocalName().equals("data")) {
+				return;
+			}
+		}
+	}
+
+	private void decode(Reader text, String encoding, String compression, int originX, int originY, int columns)
+			throws IOException {
+		if ("csv".equals(encoding)) {
+			BufferedReader in = new BufferedReader(text, 4096);
+			long gid = 0;
+			boolean inNumber = false;
+			int index = 0;
+			int c;
+			while ((c = in.read()) != -1) {
+				if (c >= '0' && c <= '9') {
+					gid = gid * 10 + (c - '0');
+					inNumber = true;
+				} else if (inNumber) {
+					place(originX, originY, columns, index++, (int) gid);
+					gid = 0;
+					inNumber = false;
+				}
+			}
+			if (inNumber) {
+				place(originX, originY, columns, index, (int) gid);
+			}
+		} else if ("base64".equals(encoding)) {
+			InputStream in = Base64.getMimeDecoder().wrap(new AsciiStream(text));
+			if ("zlib".equals(compression)) {
+				in = new InflaterInputStream(in);
+			} else if ("gzip".equals(compression)) {
+				in = new GZIPInputStream(in);
+			} else if (compression != null && !compression.isEmpty()) {
+				throw new GdxRuntimeException("Unsupported layer compression " + compression + " in " + file.path());
+			}
+			in = new BufferedInputStream(in, 4096);
+			int index = 0;
+			int b0;
+			while ((b0 = in.read()) != -1) {
+				int gid = b0 | in.read() << 8 | in.read() << 16 | in.read() << 24; // little endian
+				place(originX, originY, columns, index++, gid);
+			}
+		} else {
+			throw new GdxRuntimeException("Unsupported layer encoding " + encoding + " in " + file.path());
+		}
+	}
+
+	/* applies the nth tile of a block of layer data */
+	private void place(int originX, int originY, int columns, int index, int rawGid) {
+		int gid = rawGid & GID_MASK;
+		if (gid == 0) {
+			return;
+		}
+		TileInfo info = tiles.get(gid);
+		if (info == null) {
+			return;
+		}
+		int column = originX + index % columns;
+		int row = originY + index / columns;
+		if (column < 0 || row < 0 || column >= width || row >= height) {
+			return;
+		}
+
+		// Tiled rows go down, world y goes up
+		int x = column;
+		int y = height - 1 - row;
+		Tile tile = world.getMap().getTile(x, y);
+		if (info.terrain != null) {
+			tile.setTerrain(info.terrain);
+		}
+		if (info.unwalkable) {
+			tile.setWalkable(false);
+		}
+		if (info.object != null) {
+			MapObject o = new MapObject();
+			o.type = "object";
+			o.x = x;
+			o.y = y;
+			o.properties.put("name", info.object);
+			objects.add(o);
+		}
+	}
+
+	private void readObject(XMLStreamReader xml) throws XMLStreamException {
+		MapObject o = new MapObject();
+		o.type = attribute(xml, "class", attribute(xml, "type", null));
+		float px = Float.parseFloat(attribute(xml, "x", "0"));
+		float py = Float.parseFloat(attribute(xml, "y", "0"));
+		int column = (int) (px / tileWidth);
+		// tile objects are anchored at their bottom, other objects at their top
+		int row = xml.getAttributeValue(null, "gid") != null
+				? (int) Math.ceil(py / tileHeight) - 1
+				: (int) (py / tileHeight);
+		o.x = column;
+		o.y = height - 1 - row;
+
+		while (xml.hasNext()) {
+			int event = xml.next();
+			if (event == XMLStreamConstants.START_ELEMENT && xml.getLocalName().equals("property")) {
+				o.properties.put(xml.getAttributeValue(null, "name"), xml.getAttributeValue(null, "value"));
+			} else if (event == XMLStreamConstants.END_ELEMENT && xml.getLocalName().equals("object")) {
+				break;
+			}
+		}
+		if (o.type != null && o.x >= 0 && o.y >= 0 && o.x < width && o.y < height) {
+			objects.add(o);
+		}
+	}
+
+	private void placeObjects() {
+		for (MapObject o : objects) {
+			if (o.type.equals("teleport")) {
+				context.teleport(o.x, o.y, world.getMap().getTile(o.x, o.y).getTerrain(),
+						o.properties.get("world"),
+						Integer.parseInt(property(o.properties, "targetX", "0")),
+						Integer.parseInt(property(o.properties, "targetY", "0")),
+						DIRECTION.valueOf(property(o.properties, "facing", "SOUTH")),
+						property(o.properties, "color", "BLACK").equals("WHITE") ? Color.WHITE : Color.BLACK);
+			}
+		}
+		for (MapObject o : objects) {
+			switch (o.type) {
+				case "object":
+					context.addGameWorldObject(o.x, o.y, o.properties.get("name"));
+					break;
+				case "door":
+					context.addDoor(o.x, o.y);
+					break;
+				case "flowers":
+					context.addFlowers(o.x, o.y);
+					break;
+			}
+		}
+		for (MapObject o : objects) {
+			if (o.type.equals("npc")) {
+				context.addNPC(o.x, o.y, o.properties.get("id"),
+						DIRECTION.valueOf(property(o.properties, "facing", "SOUTH")));
+			}
+		}
+	}
+
+	private static void readProperties(XMLStreamReader xml, HashMap<String, String> properties)
+			throws XMLStreamException {
+		while (xml.hasNext()) {
+			int event = xml.next();
+			if (event == XMLStreamConstants.START_ELEMENT && xml.getLocalName().equals("property")) {
+				properties.put(xml.getAttributeValue(null, "name"), xml.getAttributeValue(null, "value"));
+			} else if (event == XMLStreamConstants.END_ELEMENT && xml.getLocalName().equals("properties")) {
+				return;
+			}
+		}
+	}
+
+	private static XMLInputFactory factory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+		return factory;
+	}
+
+	private static String attribute(XMLStreamReader xml, String name, String defaultValue) {
+		String value = xml.getAttributeValue(null, name);
+		return value != null ? value : defaultValue;
+	}
+
+	private static int intAttribute(XMLStreamReader xml, String name, int defaultValue) {
+		String value = xml.getAttributeValue(null, name);
+		return value != null ? Integer.parseInt(value) : defaultValue;
+	}
+
+	private static String property(HashMap<String, String> properties, String name, String defaultValue) {
+		String value = properties.get(name);
+		return value != null ? value : defaultValue;
+	}
+
+	/**
+	 * The text of the current element, handed out piece by piece as the parser delivers it.
+	 * Ends at the end tag of the element.
+	 */
+	private static class ElementText extends Reader {
+
+		private XMLStreamReader xml;
+		private int offset, remaining;
+		private boolean ended;
+
+		/**
+		 * @param atText	If the parser is on the first text event of the element already
+		 */
+		private ElementText(XMLStreamReader xml, boolean atText) {
+			this.xml = xml;
+			if (atText) {
+				remaining = xml.getTextLength();
+			}
+		}
+
+		@Override
+		public int read(char[] buffer, int start, int length) throws IOException {
+			try {
+				while (remaining == 0) {
+					if (ended) {
+						return -1;
+					}
+					int event = xml.next();
+					if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+							|| event == XMLStreamConstants.SPACE) {
+						offset = 0;
+						remaining = xml.getTextLength();
+					} else if (event == XMLStreamConstants.END_ELEMENT) {
+						ended = true;
+					}
+				}
+				int n = xml.getTextCharacters(offset, buffer, start, Math.min(length, remaining));
+				offset += n;
+				remaining -= n;
+				return n;
+			} catch (XMLStreamException e) {
+				throw new IOException(e);
+			}
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	/* base64 text as bytes, every character is ASCII */
+	private static class AsciiStream extends InputStream {
+
+		private Reader text;
+		private char[] chars = new char[1024];
+
+		private AsciiStream(Reader text) {
+			this.text = text;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return text.read();
+		}
+
+		@Override
+		public int read(byte[] buffer, int start, int length) throws IOException {
+			int n = text.read(chars, 0, Math.min(length, chars.length));
+			for (int i = 0; i < n; i++) {
+				buffer[start + i] = (byte) chars[i];
+			}
+			return n;
+		}
+	}
+}
@@ -0,0 +1,263 @@
+package com.github.adisann.pokemon.worldloader;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import com.github.adisann.pokemon.model.DIRECTION;
+
+/**
+ * Compiles text world files into the binary format described in WorldFormat.
+ *
+ * The text commands are replayed into a grid at compile time, so the compiled file only
+ * holds the final terrain of each tile and the game does not have to tokenize anything.
+ * Uses plain Java only, so it can run from the build without a libGDX backend.
+ *
+ * Usage: WorldCompiler &lt;worlds directory&gt; [output directory]
+ * */
+public class WorldCompiler {
+
+	private List<String> strings = new ArrayList<String>();
+	private HashMap<String, Integer> stringIndex = new HashMap<String, Integer>();
+	private List<Integer> terrainTable = new ArrayList<Integer>();
+	private HashMap<String, Integer> terrainIndex = new HashMap<String, Integer>();
+
+	private String name;
+	private int width, height, safeX, safeY;
+	private short[] tiles;
+	private boolean[] blocked;
+
+	private List<int[]> objects = new ArrayList<int[]>();
+	private LinkedHashMap<Integer, int[]> teleports = new LinkedHashMap<Integer, int[]>();
+	private List<int[]> npcs = new ArrayList<int[]>();
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Usage: WorldCompiler <worlds directory> [output directory]");
+			System.exit(1);
+		}
+		File in = new File(args[0]);
+		File out = args.length > 1 ? new File(args[1]) : in;
+		out.mkdirs();
+
+		File[] files = in.listFiles();
+		if (files == null) {
+			throw new IOException("Not a directory: " + in);
+		}
+		Arrays.sort(files);
+		for (File f : files) {
+			if (!f.getName().endsWith(".txt")) {
+				continue;
+			}
+			String base = f.getName().substring(0, f.getName().length() - 4);
+			File target = new File(out, base + "." + WorldFormat.EXTENSION);
+			new WorldCompiler().compile(f, target);
+			System.out.println("Compiled " + f.getName() + " -> " + target.getName());
+		}
+	}
+
+	/**
+	 * Reads a text world and writes it in the binary format.
+	 */
+	public void compile(File source, File target) throws IOException {
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new FileInputStream(source), StandardCharsets.UTF_8));
+		try {
+			int currentLine = 0;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				currentLine++;
+				if (currentLine == 1) {
+					header(line.split("\\s+"));
+					continue;
+				}
+				if (line.isEmpty() || line.startsWith("//")) {
+					continue;
+				}
+				try {
+					command(line.trim().split("\\s+"));
+				} catch (RuntimeException e) {
+					throw new IOException(source.getName() + ":" + currentLine + ": " + e.getMessage(), e);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(target)));
+		try {
+			write(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	private void header(String[] tokens) {
+		name = tokens[0];
+		width = Integer.parseInt(tokens[1]);
+		height = Integer.parseInt(tokens[2]);
+		safeX = Integer.parseInt(tokens[3]);
+		safeY = Integer.parseInt(tokens[4]);
+		tiles = new short[width * height];
+		Arrays.fill(tiles, (short) -1);
+		blocked = new boolean[width * height];
+		string(name);
+	}
+
+	private void command(String[] tokens) {
+		switch (tokens[0]) {
+			case "fillTerrain":
+				Arrays.fill(tiles, terrain(tokens[1]));
+				Arrays.fill(blocked, false);
+				teleports.clear();
+				break;
+			case "setTerrain":
+				tiles[existingTile(tokens[1], tokens[2])] = terrain(tokens[3]);
+				break;
+			case "addFlowers":
+				objects.add(new int[] { WorldFormat.OBJECT_FLOWERS, parse(tokens[1]), parse(tokens[2]), -1 });
+				break;
+			case "addRug":
+				objects.add(new int[] { WorldFormat.OBJECT_RUG, parse(tokens[1]), parse(tokens[2]), -1 });
+				break;
+			case "addObj":
+				objects.add(new int[] { WorldFormat.OBJECT_TYPE, parse(tokens[1]), parse(tokens[2]), string(tokens[3]) });
+				break;
+			case "addTree":
+				objects.add(new int[] { WorldFormat.OBJECT_TYPE, parse(tokens[1]), parse(tokens[2]), string("BIG_TREE") });
+				break;
+			case "addDoor":
+				objects.add(new int[] { WorldFormat.OBJECT_DOOR, parse(tokens[1]), parse(tokens[2]), -1 });
+				break;
+			case "teleport":
+				int i = tile(tokens[1], tokens[2]);
+				int color = tokens[8].equals("WHITE") ? WorldFormat.COLOR_WHITE : WorldFormat.COLOR_BLACK;
+				// a teleport replaces the whole tile, like the text loader does
+				tiles[i] = terrain(tokens[3]);
+				blocked[i] = false;
+				teleports.remove(i);
+				teleports.put(i, new int[] { parse(tokens[1]), parse(tokens[2]), string(tokens[4]),
+						parse(tokens[5]), parse(tokens[6]), DIRECTION.valueOf(tokens[7]).ordinal(), color });
+				break;
+			case "unwalkable":
+				blocked[existingTile(tokens[1], tokens[2])] = true;
+				break;
+			case "addNPC":
+				npcs.add(new int[] { parse(tokens[1]), parse(tokens[2]), string(tokens[3]),
+						DIRECTION.valueOf(tokens[4]).ordinal() });
+				break;
+		}
+	}
+
+	private void write(DataOutputStream out) throws IOException {
+		out.writeInt(WorldFormat.MAGIC);
+		out.writeShort(WorldFormat.VERSION);
+
+		out.writeShort(strings.size());
+		for (String s : strings) {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			out.writeShort(bytes.length);
+			out.write(bytes);
+		}
+
+		out.writeShort(stringIndex.get(name));
+		out.writeInt(width);
+		out.writeInt(height);
+		out.writeInt(safeX);
+		out.writeInt(safeY);
+
+		out.writeShort(terrainTable.size());
+		for (int s : terrainTable) {
+			out.writeShort(s);
+		}
+
+		for (short t : tiles) {
+			out.writeShort(t);
+		}
+		byte[] bits = new byte[(tiles.length + 7) / 8];
+		for (int i = 0; i < blocked.length; i++) {
+			if (blocked[i]) {
+				bits[i >> 3] |= 1 << (i & 7);
+			}
+		}
+		out.write(bits);
+
+		out.writeInt(objects.size());
+		for (int[] o : objects) {
+			out.writeByte(o[0]);
+			out.writeShort(o[1]);
+			out.writeShort(o[2]);
+			out.writeShort(o[3]);
+		}
+
+		out.writeInt(teleports.size());
+		for (int[] t : teleports.values()) {
+			for (int k = 0; k < 5; k++) {
+				out.writeShort(t[k]);
+			}
+			out.writeByte(t[5]);
+			out.writeByte(t[6]);
+		}
+
+		out.writeInt(npcs.size());
+		for (int[] n : npcs) {
+			out.writeShort(n[0]);
+			out.writeShort(n[1]);
+			out.writeShort(n[2]);
+			out.writeByte(n[3]);
+		}
+	}
+
+	private short terrain(String terrainName) {
+		Integer index = terrainIndex.get(terrainName);
+		if (index == null) {
+			index = terrainTable.size();
+			terrainTable.add(string(terrainName));
+			terrainIndex.put(terrainName, index);
+		}
+		return index.shortValue();
+	}
+
+	private int string(String s) {
+		Integer index = stringIndex.get(s);
+		if (index == null) {
+			index = strings.size();
+			strings.add(s);
+			stringIndex.put(s, index);
+		}
+		return index;
+	}
+
+	private int tile(String sx, String sy) {
+		int x = parse(sx);
+		int y = parse(sy);
+		if (x < 0 || y < 0 || x >= width || y >= height) {
+			throw new IllegalArgumentException("Tile out of bounds: " + x + ", " + y);
+		}
+		return y * width + x;
+	}
+
+	/* the text loader fails on commands for tiles that were never filled */
+	private int existingTile(String sx, String sy) {
+		int i = tile(sx, sy);
+		if (tiles[i] < 0) {
+			throw new IllegalArgumentException("No tile at " + sx + ", " + sy);
+		}
+		return i;
+	}
+
+	private static int parse(String s) {
+		return Integer.parseInt(s);
+	}
+}
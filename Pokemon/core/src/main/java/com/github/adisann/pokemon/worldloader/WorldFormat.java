@@ -0,0 +1,42 @@
+package com.github.adisann.pokemon.worldloader;
+
+/**
+ * Layout of compiled world files (.wld), written by WorldCompiler and read by WorldLoader.
+ * All numbers are big endian.
+ *
+ * <pre>
+ * int     MAGIC
+ * short   VERSION
+ * strings short count, then per string: short length, UTF-8 bytes
+ * header  string name, int width, int height, int safeX, int safeY
+ * terrain short count, then a string per terrain, tiles refer to their position in this table
+ * tiles   short per tile, row by row from y=0, terrain table index or -1 for no tile
+ * blocked one bit per tile in the same order, set for unwalkable tiles
+ * objects int count, then per object: byte kind, short x, short y, string type or -1
+ * teleports int count, then per teleport: short x, short y, string world,
+ *         short targetX, short targetY, byte facing, byte color
+ * npcs    int count, then per npc: short x, short y, string id, byte facing
+ * </pre>
+ *
+ * Strings are referred to by their index in the string table. A teleport tile takes its
+ * terrain from the tiles section.
+ * */
+public final class WorldFormat {
+
+	public static final int MAGIC = 0x504B574C; // "PKWL"
+	public static final short VERSION = 1;
+
+	/** File extension of compiled worlds */
+	public static final String EXTENSION = "wld";
+
+	public static final byte OBJECT_FLOWERS = 0;
+	public static final byte OBJECT_RUG = 1;
+	public static final byte OBJECT_TYPE = 2;
+	public static final byte OBJECT_DOOR = 3;
+
+	public static final byte COLOR_BLACK = 0;
+	public static final byte COLOR_WHITE = 1;
+
+	private WorldFormat() {
+	}
+}
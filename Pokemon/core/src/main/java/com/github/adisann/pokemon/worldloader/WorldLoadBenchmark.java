@@ -0,0 +1,131 @@
+package com.github.adisann.pokemon.worldloader;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import com.github.adisann.pokemon.data.NPCDatabase;
+import com.github.adisann.pokemon.model.world.World;
+import com.github.adisann.pokemon.util.SpriteRegistry;
+
+/**
+ * Times building the worlds of assets/worlds on pools of 1 up to one worker per core, the
+ * way WorldLoader#prepare builds them, each in its own WorldLoadContext.
+ *
+ * Runs headless, with a GL that does nothing, so the atlases load but nothing is uploaded.
+ * Run it from the assets folder, the benchmark task of core does.
+ *
+ * Usage: WorldLoadBenchmark [builds per world]
+ * */
+public class WorldLoadBenchmark {
+
+	/* the fastest of these many runs counts */
+	private static final int PASSES = 5;
+
+	public static void main(String[] args) {
+		final int builds = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+		new HeadlessApplication(new ApplicationAdapter() {
+			@Override
+			public void create() {
+				Gdx.gl = Gdx.gl20 = noGL();
+				run(builds);
+				Gdx.app.exit();
+			}
+		});
+	}
+
+	private static void run(int builds) {
+		SpriteRegistry sprites = new SpriteRegistry();
+		AssetManager asman = new AssetManager();
+		asman.setLoader(LWorldObjectDb.class, new LWorldObjectLoader(new InternalFileHandleResolver()));
+		asman.setLoader(LTerrainDb.class, new LTerrainLoader(new InternalFileHandleResolver()));
+		asman.setLoader(NPCDatabase.class, new NPCDatabaseLoader(new InternalFileHandleResolver()));
+		asman.load("graphics_packed/tiles/tilepack.atlas", TextureAtlas.class);
+		asman.load("LWorldObjects.xml", LWorldObjectDb.class);
+		asman.load("LTerrain.xml", LTerrainDb.class);
+		asman.load(NPCDatabase.NPC_FILE, NPCDatabase.class);
+		asman.finishLoading();
+
+		final Array<FileHandle> files = new Array<FileHandle>();
+		for (FileHandle file : Gdx.files.internal("worlds").list()) {
+			if (file.extension().equals("txt") || file.extension().equals("tmx")) {
+				files.add(file);
+			}
+		}
+		int cores = Runtime.getRuntime().availableProcessors();
+		System.out.println(files.size + " worlds, " + builds + " builds of each, " + cores + " cores");
+		System.out.println("workers\tms\tspeedup");
+		for (int pass = 0; pass < PASSES; pass++) { // warms up
+			time(asman, sprites, files, builds, cores);
+		}
+		long single = 0;
+		for (int workers = 1; workers <= cores; workers = workers < cores ? Math.min(cores, workers * 2) : cores + 1) {
+			long best = Long.MAX_VALUE;
+			for (int pass = 0; pass < PASSES; pass++) {
+				best = Math.min(best, time(asman, sprites, files, builds, workers));
+			}
+			if (workers == 1) {
+				single = best;
+			}
+			System.out.println(String.format("%d\t%d\t%.2f", workers, best / 1000000, (float) single / best));
+		}
+		asman.dispose();
+		sprites.dispose();
+	}
+
+	private static long time(final AssetManager asman, final SpriteRegistry sprites, Array<FileHandle> files,
+			int builds, int workers) {
+		AsyncExecutor executor = new AsyncExecutor(workers, "WorldLoadBenchmark");
+		Array<AsyncResult<World>> results = new Array<AsyncResult<World>>();
+		long start = System.nanoTime();
+		for (int i = 0; i < builds; i++) {
+			for (final FileHandle file : files) {
+				results.add(executor.submit(new AsyncTask<World>() {
+					@Override
+					public World call() throws Exception {
+						return new WorldLoadContext(asman, sprites).load(file.path(), file);
+					}
+				}));
+			}
+		}
+		for (AsyncResult<World> result : results) {
+			result.get();
+		}
+		long time = System.nanoTime() - start;
+		executor.dispose();
+		return time;
+	}
+
+	/* a GL20 whose calls do nothing and return zero */
+	private static GL20 noGL() {
+		return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						Class<?> type = method.getReturnType();
+						if (type == boolean.class) {
+							return false;
+						} else if (type == String.class) {
+							return "";
+						} else if (type == float.class) {
+							return 0f;
+						} else if (type == int.class) {
+							return 0;
+						}
+						return null;
+					}
+				});
+	}
+}
@@ -0,0 +1,428 @@
+package com.github.adisann.pokemon.worldloader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Animation.PlayMode;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.github.adisann.pokemon.model.DIRECTION;
+import com.github.adisann.pokemon.model.TeleportTile;
+import com.github.adisann.pokemon.model.Tile;
+import com.github.adisann.pokemon.model.TileMap;
+import com.github.adisann.pokemon.model.world.Door;
+import com.github.adisann.pokemon.model.world.World;
+import com.github.adisann.pokemon.model.world.WorldObject;
+import com.github.adisann.pokemon.model.actor.NPCActor;
+import com.github.adisann.pokemon.model.Pokemon;
+import com.github.adisann.pokemon.battle.Trainer;
+import com.github.adisann.pokemon.data.NPCDatabase;
+import com.github.adisann.pokemon.data.NPCDatabase.NPCData;
+import com.github.adisann.pokemon.data.NPCDatabase.TeamMember;
+import com.github.adisann.pokemon.data.SpeciesDatabase;
+import com.github.adisann.pokemon.util.AnimationSet;
+import com.github.adisann.pokemon.util.SpriteRegistry;
+
+/**
+ * Everything needed while building one World. Each load gets its own context,
+ * so several worlds can be built at the same time on different threads.
+ *
+ * Only reads from the AssetManager, and only assets the world depends on, which are
+ * loaded before the context is created.
+ */
+class WorldLoadContext {
+
+	/* shared id of the animations of NPCs without a sprite of their own */
+	private static final String DEFAULT_NPC_SPRITE = "brendan";
+
+	private World world;
+
+	private AssetManager asman;
+	private TextureAtlas atlas;
+	private LTerrainDb terrainDb;
+	private LWorldObjectDb objDb;
+	private NPCDatabase npcDb;
+	private SpriteRegistry sprites;
+
+	private Animation<TextureRegion> flowerAnimation;
+	private Animation<TextureRegion> doorOpen;
+	private Animation<TextureRegion> doorClose;
+
+	WorldLoadContext(AssetManager asman, SpriteRegistry sprites) {
+		this.asman = asman;
+		this.sprites = sprites;
+		atlas = asman.get("graphics_packed/tiles/tilepack.atlas", TextureAtlas.class);
+		terrainDb = asman.get("LTerrain.xml", LTerrainDb.class);
+		objDb = asman.get("LWorldObjects.xml", LWorldObjectDb.class);
+		npcDb = asman.get(NPCDatabase.NPC_FILE, NPCDatabase.class);
+
+		flowerAnimation = new Animation<TextureRegion>(0.8f, atlas.findRegions("flowers"), PlayMode.LOOP_PINGPONG);
+		doorOpen = new Animation<TextureRegion>(0.8f / 4f, atlas.findRegions("woodenDoor"), PlayMode.NORMAL);
+		doorClose = new Animation<TextureRegion>(0.5f / 4f, atlas.findRegions("woodenDoor"), PlayMode.REVERSED);
+	}
+
+	/**
+	 * Builds the world from a Tiled map, or from its compiled file if there is an up to date one,
+	 * or from the text otherwise.
+	 */
+	World load(String filename, FileHandle file) {
+		if (file.extension().equals("tmx")) {
+			return new TmxWorldReader(this, file).read();
+		}
+		FileHandle compiled = file.sibling(file.nameWithoutExtension() + "." + WorldFormat.EXTENSION);
+		if (compiled.exists() && compiled.lastModified() >= file.lastModified()) {
+			loadCompiled(map(compiled), compiled.path());
+		} else {
+			// no compiled world, or the text was edited since it was compiled
+			loadText(filename, file);
+		}
+		return world;
+	}
+
+	private void loadText(String filename, FileHandle file) {
+		BufferedReader reader = new BufferedReader(file.reader());
+		int currentLine = 0;
+		try {
+			while (reader.ready()) {
+				String line = reader.readLine();
+				currentLine++;
+
+				// header of file
+				if (currentLine == 1) {
+					String[] tokens = line.split("\\s+");
+					world = new World(tokens[0], Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]),
+							Integer.parseInt(tokens[3]), Integer.parseInt(tokens[4]));
+					continue;
+				}
+
+				if (line.isEmpty() || line.startsWith("//")) {
+					continue;
+				}
+
+				// functions
+				String[] tokens = line.split("\\s+");
+				switch (tokens[0]) {
+					case "fillTerrain":
+						fillTerrain(terrainDb.getLTerrain(tokens[1]));
+						break;
+					case "setTerrain":
+						world.getMap().getTile(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]))
+								.setTerrain(terrainDb.getLTerrain(tokens[3]));
+						break;
+					case "addFlowers":
+						addFlowers(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+						break;
+					case "addRug":
+						addRug(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+						break;
+					case "addObj":
+						addGameWorldObject(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]), tokens[3]);
+						break;
+					case "addTree":
+						addGameWorldObject(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]), "BIG_TREE");
+						break;
+					case "addDoor":
+						addDoor(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+						break;
+					case "teleport":
+						teleport(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]),
+								terrainDb.getLTerrain(tokens[3]), tokens[4],
+								Integer.parseInt(tokens[5]), Integer.parseInt(tokens[6]),
+								DIRECTION.valueOf(tokens[7]),
+								tokens[8].equals("WHITE") ? Color.WHITE : Color.BLACK);
+						break;
+					case "unwalkable":
+						world.getMap().getTile(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]))
+								.setWalkable(false);
+						break;
+					case "addNPC":
+						addNPC(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]), tokens[3],
+								DIRECTION.valueOf(tokens[4]));
+						break;
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("Error reading world file: " + filename);
+			e.printStackTrace();
+			Gdx.app.exit();
+		} finally {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				// Ignore close errors
+			}
+		}
+	}
+
+	/**
+	 * Reads a world compiled by WorldCompiler. Sections are read at their absolute offsets,
+	 * so tiles and teleports can be placed before the objects that sit on them.
+	 */
+	private void loadCompiled(ByteBuffer buffer, String path) {
+		if (buffer.getInt() != WorldFormat.MAGIC || buffer.getShort() != WorldFormat.VERSION) {
+			throw new GdxRuntimeException("Not a compiled world of this version: " + path);
+		}
+
+		String[] strings = new String[buffer.getShort()];
+		for (int i = 0; i < strings.length; i++) {
+			byte[] bytes = new byte[buffer.getShort()];
+			buffer.get(bytes);
+			strings[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		world = new World(strings[buffer.getShort()], buffer.getInt(), buffer.getInt(), buffer.getInt(),
+				buffer.getInt());
+		TileMap map = world.getMap();
+		int width = map.getWidth();
+		int count = width * map.getHeight();
+
+		LTerrain[] terrain = new LTerrain[buffer.getShort()];
+		for (int i = 0; i < terrain.length; i++) {
+			terrain[i] = terrainDb.getLTerrain(strings[buffer.getShort()]);
+		}
+
+		int tiles = buffer.position();
+		int blocked = tiles + count * 2;
+		int objects = blocked + (count + 7) / 8;
+		int teleports = objects + 4 + buffer.getInt(objects) * 7;
+		int npcs = teleports + 4 + buffer.getInt(teleports) * 12;
+
+		for (int i = 0; i < count; i++) {
+			short t = buffer.getShort(tiles + i * 2);
+			if (t >= 0) {
+				map.setTile(new Tile(terrain[t]), i % width, i / width);
+			}
+		}
+
+		buffer.position(teleports);
+		for (int n = buffer.getInt(); n > 0; n--) {
+			int x = buffer.getShort();
+			int y = buffer.getShort();
+			String target = strings[buffer.getShort()];
+			int targetX = buffer.getShort();
+			int targetY = buffer.getShort();
+			DIRECTION facing = DIRECTION.values()[buffer.get()];
+			Color color = buffer.get() == WorldFormat.COLOR_WHITE ? Color.WHITE : Color.BLACK;
+			LTerrain t = terrain[buffer.getShort(tiles + (y * width + x) * 2)];
+			teleport(x, y, t, target, targetX, targetY, facing, color);
+		}
+
+		for (int i = 0; i < count; i++) {
+			if ((buffer.get(blocked + (i >> 3)) & (1 << (i & 7))) != 0) {
+				map.getTile(i % width, i / width).setWalkable(false);
+			}
+		}
+
+		buffer.position(objects);
+		for (int n = buffer.getInt(); n > 0; n--) {
+			byte kind = buffer.get();
+			int x = buffer.getShort();
+			int y = buffer.getShort();
+			short type = buffer.getShort();
+			switch (kind) {
+				case WorldFormat.OBJECT_FLOWERS:
+					addFlowers(x, y);
+					break;
+				case WorldFormat.OBJECT_RUG:
+					addRug(x, y);
+					break;
+				case WorldFormat.OBJECT_TYPE:
+					addGameWorldObject(x, y, strings[type]);
+					break;
+				case WorldFormat.OBJECT_DOOR:
+					addDoor(x, y);
+					break;
+			}
+		}
+
+		buffer.position(npcs);
+		for (int n = buffer.getInt(); n > 0; n--) {
+			int x = buffer.getShort();
+			int y = buffer.getShort();
+			String npcId = strings[buffer.getShort()];
+			addNPC(x, y, npcId, DIRECTION.values()[buffer.get()]);
+		}
+	}
+
+	/* memory maps the file where the backend allows it, reads it into memory otherwise */
+	private static ByteBuffer map(FileHandle file) {
+		try {
+			return file.map();
+		} catch (GdxRuntimeException e) {
+			return ByteBuffer.wrap(file.readBytes());
+		}
+	}
+
+	World createWorld(String name, int width, int height, int safeX, int safeY) {
+		world = new World(name, width, height, safeX, safeY);
+		return world;
+	}
+
+	LTerrain getTerrain(String name) {
+		return terrainDb.getLTerrain(name);
+	}
+
+	void fillTerrain(LTerrain t) {
+		for (int x = 0; x < world.getMap().getWidth(); x++) {
+			for (int y = 0; y < world.getMap().getHeight(); y++) {
+				world.getMap().setTile(new Tile(t), x, y);
+			}
+		}
+	}
+
+	void addFlowers(int x, int y) {
+		GridPoint2[] gridArray = new GridPoint2[1];
+		gridArray[0] = new GridPoint2(0, 0);
+		WorldObject flowers = new WorldObject(x, y, true, flowerAnimation, 1f, 1f, gridArray);
+		world.addObject(flowers);
+	}
+
+	void addRug(int x, int y) {
+		TextureRegion rugRegion = atlas.findRegion("rug");
+		GridPoint2[] gridArray = new GridPoint2[3 * 2];
+		gridArray[0] = new GridPoint2(0, 0);
+		gridArray[1] = new GridPoint2(0, 1);
+		gridArray[2] = new GridPoint2(0, 2);
+		gridArray[3] = new GridPoint2(1, 0);
+		gridArray[4] = new GridPoint2(1, 1);
+		gridArray[5] = new GridPoint2(1, 2);
+		WorldObject rug = new WorldObject(x, y, true, rugRegion, 3f, 2f, gridArray);
+		world.addObject(rug);
+	}
+
+	/**
+	 * Adds a non-walkable game object to the World.
+	 * 
+	 * @param x
+	 * @param y
+	 * @param type	Name of the object in LWorldObjects.xml
+	 */
+	void addGameWorldObject(int x, int y, String type) {
+		LWorldObject obj = objDb.getLWorldObject(type);
+
+		TextureRegion objRegion = atlas.findRegion(obj.getImageName());
+
+		WorldObject worldObj = new WorldObject(x, y, false, objRegion, obj.getSizeX(), obj.getSizeY(), obj.getTiles());
+		world.addObject(worldObj);
+	}
+
+	void teleport(int x, int y, LTerrain t, String stargetWorld, int targetX, int targetY,
+			DIRECTION targetDir, Color transitionColor) {
+		// Pass tile coordinates (x, y) so TeleportTile can calculate movement direction
+		TeleportTile tile = new TeleportTile(t, x, y, stargetWorld, targetX, targetY, targetDir, transitionColor);
+
+		// Add conditions based on destination (replaces hard-coded checks)
+		if (stargetWorld.equals("oldale_town")) {
+			tile.addCondition(new com.github.adisann.pokemon.model.portal.PartyNotFaintedCondition(
+					"Your Pokemon is fainted. You cannot enter Oldale."));
+		}
+
+		// NOTE: Removed auto-heal for test_map_indoor - now handled by Mom NPC
+		// interaction
+
+		world.getMap().setTile(tile, x, y);
+		world.addNeighbour(stargetWorld);
+	}
+
+	void addDoor(int x, int y) {
+		Door door = new Door(x, y, doorOpen, doorClose);
+		world.addObject(door);
+	}
+
+	/**
+	 * Add an NPC actor to the world.
+	 * Format: addNPC x y npcId facing
+	 * 
+	 * @param x      X coordinate
+	 * @param y      Y coordinate
+	 * @param npcId  NPC identifier (e.g., "may")
+	 * @param facing Direction NPC faces (NORTH, SOUTH, EAST, WEST)
+	 */
+	void addNPC(int x, int y, String npcId, DIRECTION facing) {
+		NPCData data = npcDb.getNPC(npcId);
+
+		NPCActor npc = new NPCActor(world, x, y, getNPCAnimations(data));
+		npc.setId(npcId);
+		npc.refaceWithoutAnimation(facing);
+
+		// Configure NPC from its entry, NPCs without one are plain bystanders
+		if (data != null) {
+			npc.setDisplayName(data.displayName);
+			npc.setDialogueBeforeBattle(data.dialogueBefore);
+			npc.setDialogueAfterBattle(data.dialogueAfter);
+			npc.setHealer(data.isHealer);
+			if (data.isTrainer && !data.team.isEmpty()) {
+				npc.setTrainer(createTrainer(data));
+			}
+		}
+
+		world.addActor(npc);
+
+		// Set NPC on tile to block walking through
+		world.getMap().getTile(x, y).setActor(npc);
+	}
+
+	/**
+	 * The animations of an NPC, shared with every NPC using the same sprite.
+	 * NPCs with a sprite of their own stand still, others look like Brendan.
+	 */
+	private AnimationSet getNPCAnimations(NPCData data) {
+		String spriteId = data != null && data.sprite != null ? data.sprite : DEFAULT_NPC_SPRITE;
+		AnimationSet animations = sprites.getAnimations(spriteId);
+		if (animations != null) {
+			return animations;
+		}
+		if (spriteId.equals(DEFAULT_NPC_SPRITE)) {
+			animations = new AnimationSet(
+					new Animation<TextureRegion>(0.4f / 2f, atlas.findRegions("brendan_walk_north"), PlayMode.LOOP_PINGPONG),
+					new Animation<TextureRegion>(0.4f / 2f, atlas.findRegions("brendan_walk_south"), PlayMode.LOOP_PINGPONG),
+					new Animation<TextureRegion>(0.4f / 2f, atlas.findRegions("brendan_walk_east"), PlayMode.LOOP_PINGPONG),
+					new Animation<TextureRegion>(0.4f / 2f, atlas.findRegions("brendan_walk_west"), PlayMode.LOOP_PINGPONG),
+					atlas.findRegion("brendan_stand_north"),
+					atlas.findRegion("brendan_stand_south"),
+					atlas.findRegion("brendan_stand_east"),
+					atlas.findRegion("brendan_stand_west"));
+		} else {
+			TextureRegion region = getSprite(spriteId);
+			Animation<TextureRegion> still = new Animation<TextureRegion>(1f, region);
+			animations = new AnimationSet(still, still, still, still, region, region, region, region);
+		}
+		return sprites.shareAnimations(spriteId, animations);
+	}
+
+	/**
+	 * A fresh team for a trainer NPC, battles change its Pokemon.
+	 * The Pokemon are created without moves, they are loaded at battle start.
+	 */
+	private Trainer createTrainer(NPCData data) {
+		Trainer trainer = null;
+		for (TeamMember member : data.team) {
+			Pokemon pokemon = new Pokemon(SpeciesDatabase.getSpecies(member.species), member.level);
+			if (trainer == null) {
+				trainer = new Trainer(pokemon);
+			} else {
+				trainer.addPokemon(pokemon);
+			}
+		}
+		trainer.setSpriteName(data.battleSprite);
+		return trainer;
+	}
+
+	/**
+	 * A loose sprite the world depends on as a Pixmap, packed into the SpriteRegistry.
+	 * The region gets its texture when the world is finished on the GL thread.
+	 */
+	private TextureRegion getSprite(String filename) {
+		return sprites.getRegion(filename, asman.get(filename, Pixmap.class));
+	}
+}
@@ -1,372 +1,129 @@
 package com.github.adisann.pokemon.worldloader;
 
-import java.io.BufferedReader;
-import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetLoaderParameters;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
 import com.badlogic.gdx.files.FileHandle;
-import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.Animation.PlayMode;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.GridPoint2;
 import com.badlogic.gdx.utils.Array;
-import com.github.adisann.pokemon.model.DIRECTION;
-import com.github.adisann.pokemon.model.TeleportTile;
-import com.github.adisann.pokemon.model.Tile;
-import com.github.adisann.pokemon.model.world.Door;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import com.github.adisann.pokemon.data.NPCDatabase;
 import com.github.adisann.pokemon.model.world.World;
-import com.github.adisann.pokemon.model.world.WorldObject;
-import com.github.adisann.pokemon.model.actor.NPCActor;
-import com.github.adisann.pokemon.model.Pokemon;
-import com.github.adisann.pokemon.battle.Trainer;
-import com.github.adisann.pokemon.util.AnimationSet;
+import com.github.adisann.pokemon.util.SpriteRegistry;
 
 /**
  * Small loader to load World.class into AssetManager.
+ * Reads the text world format and Tiled maps (.tmx), see TmxWorldReader.
+ *
+ * Apart from the shared SpriteRegistry, the loader keeps no state of its own between calls.
+ * Each world is built into its own WorldLoadContext, so worlds can be built in parallel. The AssetManager only loads one
+ * asset at a time, so worlds that are known to be needed soon can be handed to #prepare(),
+ * which builds them on a pool of worker threads before the AssetManager gets to them.
+ * Building a world does not touch GL, the textures it uses are dependencies. Loose NPC
+ * sprites are loaded as pixels and packed into the SpriteRegistry, whose pages are uploaded
+ * in loadSync.
  */
 public class WorldLoader extends AsynchronousAssetLoader<World, WorldLoader.WorldParameter> {
 
-	private World world;
+	private AsyncExecutor workers = new AsyncExecutor(Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+			"WorldLoader");
 
-	private Animation<TextureRegion> flowerAnimation;
-	private Animation<TextureRegion> doorOpen;
-	private Animation<TextureRegion> doorClose;
+	/* worlds built ahead of time by the workers */
+	private ConcurrentHashMap<String, AsyncResult<World>> prepared = new ConcurrentHashMap<String, AsyncResult<World>>();
 
-	public WorldLoader(FileHandleResolver resolver) {
-		super(resolver);
-	}
-
-	@Override
-	public void loadAsync(AssetManager asman, String filename, FileHandle file, WorldParameter parameter) {
-		TextureAtlas atlas = asman.get("graphics_packed/tiles/tilepack.atlas", TextureAtlas.class);
+	/* worlds built in loadAsync, waiting for loadSync */
+	private ConcurrentHashMap<String, World> built = new ConcurrentHashMap<String, World>();
 
-		flowerAnimation = new Animation<TextureRegion>(0.8f, atlas.findRegions("flowers"), PlayMode.LOOP_PINGPONG);
-		doorOpen = new Animation<TextureRegion>(0.8f / 4f, atlas.findRegions("woodenDoor"), PlayMode.NORMAL);
-		doorClose = new Animation<TextureRegion>(0.5f / 4f, atlas.findRegions("woodenDoor"), PlayMode.REVERSED);
+	private SpriteRegistry sprites;
 
-		BufferedReader reader = new BufferedReader(file.reader());
-		int currentLine = 0;
-		try {
-			while (reader.ready()) {
-				String line = reader.readLine();
-				currentLine++;
-
-				// header of file
-				if (currentLine == 1) {
-					String[] tokens = line.split("\\s+");
-					world = new World(tokens[0], Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]),
-							Integer.parseInt(tokens[3]), Integer.parseInt(tokens[4]));
-					continue;
-				}
-
-				if (line.isEmpty() || line.startsWith("//")) {
-					continue;
-				}
-
-				// functions
-				String[] tokens = line.split("\\s+");
-				switch (tokens[0]) {
-					case "fillTerrain":
-						fillTerrain(asman, tokens[1]);
-						break;
-					case "setTerrain":
-						setTerrain(asman, tokens[1], tokens[2], tokens[3]);
-						break;
-					case "addFlowers":
-						addFlowers(tokens[1], tokens[2]);
-						break;
-					case "addRug":
-						addRug(asman, tokens[1], tokens[2]);
-						break;
-					case "addObj":
-						addGameWorldObject(asman, tokens[1], tokens[2], tokens[3]);
-						break;
-					case "addTree":
-						addGameWorldObject(asman, tokens[1], tokens[2], "BIG_TREE");
-						break;
-					case "addDoor":
-						addDoor(tokens[1], tokens[2]);
-						break;
-					case "teleport":
-						teleport(asman, tokens[1], tokens[2], tokens[3], tokens[4], tokens[5], tokens[6], tokens[7],
-								tokens[8]);
-						break;
-					case "unwalkable":
-						unwalkable(tokens[1], tokens[2]);
-						break;
-					case "addNPC":
-						addNPC(asman, tokens[1], tokens[2], tokens[3], tokens[4]);
-						break;
-				}
-			}
-		} catch (IOException e) {
-			System.err.println("Error reading world file: " + filename);
-			e.printStackTrace();
-			Gdx.app.exit();
-		} finally {
-			try {
-				reader.close();
-			} catch (IOException e) {
-				// Ignore close errors
-			}
-		}
-	}
-
-	private void fillTerrain(AssetManager asman, String terrain) {
-		LTerrainDb terrainDb = asman.get("LTerrain.xml", LTerrainDb.class);
-		LTerrain t = terrainDb.getLTerrain(terrain);
-
-		for (int x = 0; x < world.getMap().getWidth(); x++) {
-			for (int y = 0; y < world.getMap().getHeight(); y++) {
-				world.getMap().setTile(new Tile(t), x, y);
-			}
-		}
-	}
-
-	private void setTerrain(AssetManager asman, String x, String y, String terrain) {
-		LTerrainDb terrainDb = asman.get("LTerrain.xml", LTerrainDb.class);
-		LTerrain t = terrainDb.getLTerrain(terrain);
-
-		int ix = Integer.parseInt(x);
-		int iy = Integer.parseInt(y);
-		world.getMap().getTile(ix, iy).setTerrain(t);
-	}
-
-	private void addFlowers(String sx, String sy) {
-		int x = Integer.parseInt(sx);
-		int y = Integer.parseInt(sy);
-
-		GridPoint2[] gridArray = new GridPoint2[1];
-		gridArray[0] = new GridPoint2(0, 0);
-		WorldObject flowers = new WorldObject(x, y, true, flowerAnimation, 1f, 1f, gridArray);
-		world.addObject(flowers);
-	}
-
-	private void addRug(AssetManager assetManager, String sx, String sy) {
-		int x = Integer.parseInt(sx);
-		int y = Integer.parseInt(sy);
-
-		TextureAtlas atlas = assetManager.get("graphics_packed/tiles/tilepack.atlas", TextureAtlas.class);
-		TextureRegion rugRegion = atlas.findRegion("rug");
-		GridPoint2[] gridArray = new GridPoint2[3 * 2];
-		gridArray[0] = new GridPoint2(0, 0);
-		gridArray[1] = new GridPoint2(0, 1);
-		gridArray[2] = new GridPoint2(0, 2);
-		gridArray[3] = new GridPoint2(1, 0);
-		gridArray[4] = new GridPoint2(1, 1);
-		gridArray[5] = new GridPoint2(1, 2);
-		WorldObject rug = new WorldObject(x, y, true, rugRegion, 3f, 2f, gridArray);
-		world.addObject(rug);
+	public WorldLoader(FileHandleResolver resolver, SpriteRegistry sprites) {
+		super(resolver);
+		this.sprites = sprites;
 	}
 
 	/**
-	 * Adds a non-walkable game object to the World.
-	 * 
-	 * @param assetManager
-	 * @param sx
-	 * @param sy
-	 * @param stype
+	 * Starts building a world on a worker thread, if its dependencies are already loaded.
+	 * The AssetManager picks up the result when it loads the world. Call it right after
+	 * queueing the world with AssetManager#load().
 	 */
-	private void addGameWorldObject(AssetManager assetManager, String sx, String sy, String stype) {
-		int x = Integer.parseInt(sx);
-		int y = Integer.parseInt(sy);
-
-		LWorldObjectDb objDb = assetManager.get("LWorldObjects.xml", LWorldObjectDb.class);
-		LWorldObject obj = objDb.getLWorldObject(stype);
-
-		TextureAtlas atlas = assetManager.get("graphics_packed/tiles/tilepack.atlas", TextureAtlas.class);
-		TextureRegion objRegion = atlas.findRegion(obj.getImageName());
-
-		WorldObject worldObj = new WorldObject(x, y, false, objRegion, obj.getSizeX(), obj.getSizeY(), obj.getTiles());
-		world.addObject(worldObj);
-	}
-
-	private void teleport(AssetManager asman, String sx, String sy, String sterrain, String stargetWorld,
-			String stargetX, String stargetY, String stargetDir, String stransitionColor) {
-		int x = Integer.parseInt(sx);
-		int y = Integer.parseInt(sy);
-
-		int targetX = Integer.parseInt(stargetX);
-		int targetY = Integer.parseInt(stargetY);
-
-		LTerrainDb terrainDb = asman.get("LTerrain.xml", LTerrainDb.class);
-		LTerrain t = terrainDb.getLTerrain(sterrain);
-
-		DIRECTION targetDir = DIRECTION.valueOf(stargetDir);
-
-		Color transitionColor;
-		switch (stransitionColor) {
-			case "WHITE":
-				transitionColor = Color.WHITE;
-				break;
-			case "BLACK":
-				transitionColor = Color.BLACK;
-				break;
-			default:
-				transitionColor = Color.BLACK;
-				break;
+	public void prepare(final AssetManager asman, final String filename) {
+		if (prepared.containsKey(filename)) {
+			return;
 		}
-
-		// Pass tile coordinates (x, y) so TeleportTile can calculate movement direction
-		TeleportTile tile = new TeleportTile(t, x, y, stargetWorld, targetX, targetY, targetDir, transitionColor);
-
-		// Add conditions based on destination (replaces hard-coded checks)
-		if (stargetWorld.equals("oldale_town")) {
-			tile.addCondition(new com.github.adisann.pokemon.model.portal.PartyNotFaintedCondition(
-					"Your Pokemon is fainted. You cannot enter Oldale."));
+		for (AssetDescriptor<?> dependency : dependencies()) {
+			if (!asman.isLoaded(dependency.fileName, dependency.type)) {
+				return; // the AssetManager loads it the usual way
+			}
 		}
-
-		// NOTE: Removed auto-heal for test_map_indoor - now handled by Mom NPC
-		// interaction
-
-		world.getMap().setTile(tile, x, y);
-	}
-
-	private void unwalkable(String sx, String sy) {
-		int x = Integer.parseInt(sx);
-		int y = Integer.parseInt(sy);
-		world.getMap().getTile(x, y).setWalkable(false);
-	}
-
-	private void addDoor(String sx, String sy) {
-		int x = Integer.parseInt(sx);
-		int y = Integer.parseInt(sy);
-		Door door = new Door(x, y, doorOpen, doorClose);
-		world.addObject(door);
+		final FileHandle file = resolve(filename);
+		prepared.put(filename, workers.submit(new AsyncTask<World>() {
+			@Override
+			public World call() throws Exception {
+				return new WorldLoadContext(asman, sprites).load(filename, file);
+			}
+		}));
 	}
 
 	/**
-	 * Add an NPC actor to the world.
-	 * Format: addNPC x y npcId facing
-	 * 
-	 * @param asman   Asset manager
-	 * @param sx      X coordinate
-	 * @param sy      Y coordinate
-	 * @param npcId   NPC identifier (e.g., "may")
-	 * @param sfacing Direction NPC faces (NORTH, SOUTH, EAST, WEST)
+	 * Forgets what was built ahead of time for a world. Call when a world handed to #prepare()
+	 * is unloaded before the AssetManager got to it, or its next load gets this build.
+	 * A build still running finishes on its worker, and is then dropped.
 	 */
-	private void addNPC(AssetManager asman, String sx, String sy, String npcId, String sfacing) {
-		int x = Integer.parseInt(sx);
-		int y = Integer.parseInt(sy);
-		com.github.adisann.pokemon.model.DIRECTION facing = com.github.adisann.pokemon.model.DIRECTION.valueOf(sfacing);
-
-		AnimationSet npcAnimations;
-
-		// Create NPC-specific animations
-		if (npcId.equals("may")) {
-			// Load May's overworld sprite from AssetManager (pre-loaded as dependency)
-			com.badlogic.gdx.graphics.Texture mayTexture = asman.get(
-					"graphics/trainers/train_may_overworld.png", com.badlogic.gdx.graphics.Texture.class);
-			TextureRegion mayRegion = new TextureRegion(mayTexture);
-
-			// Create single-frame animations (NPC stands still)
-			com.badlogic.gdx.graphics.g2d.Animation<TextureRegion> staticAnim = new com.badlogic.gdx.graphics.g2d.Animation<>(
-					1f, mayRegion);
-
-			npcAnimations = new AnimationSet(
-					staticAnim, staticAnim, staticAnim, staticAnim, // walk animations (all same for now)
-					mayRegion, mayRegion, mayRegion, mayRegion); // stand sprites (all directions)
-		} else if (npcId.equals("mom")) {
-			// Load Mom's sprite
-			com.badlogic.gdx.graphics.Texture momTexture = asman.get(
-					"graphics/npc/mom_hoen.png", com.badlogic.gdx.graphics.Texture.class);
-			TextureRegion momRegion = new TextureRegion(momTexture);
-
-			// Create single-frame animations (NPC stands still)
-			com.badlogic.gdx.graphics.g2d.Animation<TextureRegion> staticAnim = new com.badlogic.gdx.graphics.g2d.Animation<>(
-					1f, momRegion);
+	public void cancel(String filename) {
+		prepared.remove(filename);
+		built.remove(filename);
+	}
 
-			npcAnimations = new AnimationSet(
-					staticAnim, staticAnim, staticAnim, staticAnim,
-					momRegion, momRegion, momRegion, momRegion);
+	@Override
+	public void loadAsync(AssetManager asman, String filename, FileHandle file, WorldParameter parameter) {
+		AsyncResult<World> result = prepared.remove(filename);
+		World world;
+		if (result != null) {
+			world = result.get();
 		} else {
-			// Default: use Brendan sprites from atlas
-			TextureAtlas atlas = asman.get("graphics_packed/tiles/tilepack.atlas", TextureAtlas.class);
-			npcAnimations = new AnimationSet(
-					new com.badlogic.gdx.graphics.g2d.Animation<>(0.4f / 2f, atlas.findRegions("brendan_walk_north"),
-							com.badlogic.gdx.graphics.g2d.Animation.PlayMode.LOOP_PINGPONG),
-					new com.badlogic.gdx.graphics.g2d.Animation<>(0.4f / 2f, atlas.findRegions("brendan_walk_south"),
-							com.badlogic.gdx.graphics.g2d.Animation.PlayMode.LOOP_PINGPONG),
-					new com.badlogic.gdx.graphics.g2d.Animation<>(0.4f / 2f, atlas.findRegions("brendan_walk_east"),
-							com.badlogic.gdx.graphics.g2d.Animation.PlayMode.LOOP_PINGPONG),
-					new com.badlogic.gdx.graphics.g2d.Animation<>(0.4f / 2f, atlas.findRegions("brendan_walk_west"),
-							com.badlogic.gdx.graphics.g2d.Animation.PlayMode.LOOP_PINGPONG),
-					atlas.findRegion("brendan_stand_north"),
-					atlas.findRegion("brendan_stand_south"),
-					atlas.findRegion("brendan_stand_east"),
-					atlas.findRegion("brendan_stand_west"));
-		}
-
-		NPCActor npc = new NPCActor(world, x, y, npcAnimations);
-		npc.setId(npcId);
-		npc.refaceWithoutAnimation(facing);
-
-		// Configure NPC based on ID
-		if (npcId.equals("may")) {
-			npc.setDisplayName("May");
-			npc.setDialogueBeforeBattle("Hey there! I've been waiting for you. How about a Pokemon battle?");
-			npc.setDialogueAfterBattle("That was a great battle! You're really strong!");
-
-			// Create May's trainer with Torchic (using Charmander sprite as placeholder)
-			// Pokemon is created without moves - moves will be loaded at battle start
-			java.util.Map<com.github.adisann.pokemon.battle.STAT, Integer> torchicStats = new java.util.HashMap<>();
-			torchicStats.put(com.github.adisann.pokemon.battle.STAT.HITPOINTS, 45);
-			torchicStats.put(com.github.adisann.pokemon.battle.STAT.ATTACK, 60);
-			torchicStats.put(com.github.adisann.pokemon.battle.STAT.DEFENCE, 40);
-			torchicStats.put(com.github.adisann.pokemon.battle.STAT.SPECIAL_ATTACK, 70);
-			torchicStats.put(com.github.adisann.pokemon.battle.STAT.SPECIAL_DEFENCE, 50);
-			torchicStats.put(com.github.adisann.pokemon.battle.STAT.SPEED, 45);
-
-			java.util.List<com.github.adisann.pokemon.model.Type> torchicTypes = new java.util.ArrayList<>();
-			torchicTypes.add(com.github.adisann.pokemon.model.Type.FIRE);
-
-			com.github.adisann.pokemon.model.PokemonSpecies charmanderSpec = new com.github.adisann.pokemon.model.PokemonSpecies(
-					"Charmander", torchicStats, torchicTypes, 62, "graphics/pokemon/charmander.png");
-
-			Pokemon charmander = new Pokemon(charmanderSpec, 5);
-			Trainer mayTrainer = new Trainer(charmander);
-			mayTrainer.setSpriteName("graphics/trainers/trainer_may.png");
-			npc.setTrainer(mayTrainer);
-		} else if (npcId.equals("mom")) {
-			npc.setDisplayName("Mom");
-			npc.setHealer(true); // Mark as healer NPC
+			world = new WorldLoadContext(asman, sprites).load(filename, file);
 		}
+		built.put(filename, world);
+	}
 
-		world.addActor(npc);
-
-		// Set NPC on tile to block walking through
-		world.getMap().getTile(x, y).setActor(npc);
+	/* the AssetManager unloads a world it is in the middle of loading */
+	@Override
+	public void unloadAsync(AssetManager asman, String filename, FileHandle file, WorldParameter parameter) {
+		cancel(filename);
 	}
 
 	@Override
-	public World loadSync(AssetManager arg0, String arg1, FileHandle arg2, WorldParameter arg3) {
-		return world;
+	public World loadSync(AssetManager asman, String filename, FileHandle file, WorldParameter parameter) {
+		sprites.update();
+		return built.remove(filename);
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
+	@SuppressWarnings("rawtypes")
 	public Array<AssetDescriptor> getDependencies(String filename, FileHandle file, WorldParameter parameter) {
 		Array<AssetDescriptor> ad = new Array<AssetDescriptor>();
-		ad.add(new AssetDescriptor("graphics_packed/tiles/tilepack.atlas", TextureAtlas.class));
-		ad.add(new AssetDescriptor("LWorldObjects.xml", LWorldObjectDb.class));
-		ad.add(new AssetDescriptor("LTerrain.xml", LTerrainDb.class));
-		// NPC sprite dependencies
-		ad.add(new AssetDescriptor("graphics/trainers/train_may_overworld.png",
-				com.badlogic.gdx.graphics.Texture.class));
-		ad.add(new AssetDescriptor("graphics/trainers/trainer_may.png",
-				com.badlogic.gdx.graphics.Texture.class));
-		ad.add(new AssetDescriptor("graphics/npc/mom_hoen.png",
-				com.badlogic.gdx.graphics.Texture.class));
+		for (AssetDescriptor<?> dependency : dependencies()) {
+			ad.add(dependency);
+		}
 		return ad;
 	}
 
+	private static AssetDescriptor<?>[] dependencies() {
+		return new AssetDescriptor<?>[] {
+				new AssetDescriptor<TextureAtlas>("graphics_packed/tiles/tilepack.atlas", TextureAtlas.class),
+				new AssetDescriptor<LWorldObjectDb>("LWorldObjects.xml", LWorldObjectDb.class),
+				new AssetDescriptor<LTerrainDb>("LTerrain.xml", LTerrainDb.class),
+				// NPC sprites are dependencies of the database
+				new AssetDescriptor<NPCDatabase>(NPCDatabase.NPC_FILE, NPCDatabase.class),
+		};
+	}
+
 	static public class WorldParameter extends AssetLoaderParameters<World> {
 	}
-}
\ No newline at end of file
+}
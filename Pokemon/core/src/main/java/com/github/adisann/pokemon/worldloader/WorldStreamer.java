@@ -0,0 +1,394 @@
+package com.github.adisann.pokemon.worldloader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AssetLoader;
+import com.github.adisann.pokemon.battle.Trainer;
+import com.github.adisann.pokemon.model.DIRECTION;
+import com.github.adisann.pokemon.model.Tile;
+import com.github.adisann.pokemon.model.TileChunk;
+import com.github.adisann.pokemon.model.TileMap;
+import com.github.adisann.pokemon.model.actor.Actor;
+import com.github.adisann.pokemon.model.actor.ActorBehavior;
+import com.github.adisann.pokemon.model.actor.NPCActor;
+import com.github.adisann.pokemon.model.world.Door;
+import com.github.adisann.pokemon.model.world.World;
+import com.github.adisann.pokemon.model.world.WorldGraph;
+import com.github.adisann.pokemon.model.world.WorldObject;
+import com.github.adisann.pokemon.util.RandomStream;
+
+/**
+ * Loads Worlds through the AssetManager when they are needed, instead of all at startup.
+ *
+ * The world the player is in is loaded synchronously. The destinations of its teleports
+ * are queued in the background, so walking through a door rarely has to wait. Queued worlds
+ * that are no longer next door when the player moves on are dropped before they load.
+ * When more worlds than the budget are loaded, the least recently used ones are unloaded,
+ * but never the current world or the worlds its teleports lead to.
+ * Before a world is unloaded, what changed in it since it was loaded is kept, and put back
+ * when it is loaded again: where its NPCs stand and face, the state of their behaviors and
+ * trainers, its random stream, doors, and the terrain and walkability of the chunks edited.
+ *
+ * Every world loaded is added to a WorldGraph, which stays after the world is unloaded,
+ * so routes between worlds can be found without keeping them loaded. A route search loads
+ * a world the graph does not know only when it reaches a teleport into it.
+ * */
+public class WorldStreamer {
+
+	private AssetManager assetManager;
+	private int budget;
+
+	/* world name to file, world files are named after the world they contain */
+	private HashMap<String, String> files = new HashMap<String, String>();
+
+	/* loaded worlds, least recently used first */
+	private LinkedHashMap<String, World> loaded = new LinkedHashMap<String, World>(16, 0.75f, true);
+	private List<String> pending = new ArrayList<String>();
+	private HashMap<String, WorldState> evictedStates = new HashMap<String, WorldState>();
+
+	/* edit versions of the chunks of each loaded world, as they were when it arrived */
+	private HashMap<String, int[]> loadedVersions = new HashMap<String, int[]>();
+
+	private World current;
+	private WorldGraph graph = new WorldGraph();
+
+	/* what changed in a world since it was loaded */
+	private static class WorldState {
+		private RandomStream random;
+		private List<ActorState> actors = new ArrayList<ActorState>();
+		/* open or not, of the doors in the order of World#getWorldObjects() */
+		private List<Boolean> doors = new ArrayList<Boolean>();
+		private List<ChunkState> chunks = new ArrayList<ChunkState>();
+	}
+
+	private static class ActorState {
+		private String id;
+		private int x, y;
+		private DIRECTION facing;
+		private boolean visible;
+		private Trainer trainer;
+		private Object behavior;
+	}
+
+	private static class ChunkState {
+		private int cx, cy;
+		private LTerrain[] terrain;
+		private boolean[] walkable;
+	}
+
+	/**
+	 * @param budget	Max amount of worlds kept loaded, the current world and its neighbours
+	 * 					are kept even if they are more
+	 */
+	public WorldStreamer(AssetManager assetManager, int budget) {
+		this.assetManager = assetManager;
+		this.budget = Math.max(1, budget);
+	}
+
+	/**
+	 * Makes a world file known to the streamer, without loading it.
+	 *
+	 * @param file	Path of the world file, like worlds/littleroot_town.txt
+	 */
+	public void register(String file) {
+		String name = file.substring(file.lastIndexOf('/') + 1);
+		int dot = name.lastIndexOf('.');
+		if (dot > 0) {
+			name = name.substring(0, dot);
+		}
+		files.put(name, file);
+	}
+
+	public boolean hasWorld(String name) {
+		return files.containsKey(name);
+	}
+
+	/**
+	 * Returns a world, loading it right away if it is not loaded yet.
+	 *
+	 * @return	The world, or null if no world with this name is registered
+	 */
+	public World getWorld(String name) {
+		World world = loaded.get(name);
+		if (world != null) {
+			return world;
+		}
+		String file = files.get(name);
+		if (file == null) {
+			return null;
+		}
+		if (!assetManager.isLoaded(file, World.class)) {
+			if (!pending.contains(name)) {
+				assetManager.load(file, World.class);
+			}
+			assetManager.finishLoadingAsset(file);
+		}
+		pending.remove(name);
+		world = assetManager.get(file, World.class);
+		arrived(name, world);
+		return world;
+	}
+
+	/**
+	 * Sets the world the player is in. It is loaded if needed, and the worlds its
+	 * teleports lead to are queued for loading.
+	 */
+	public World setCurrent(String name) {
+		current = getWorld(name);
+		if (current != null) {
+			for (Iterator<String> it = pending.iterator(); it.hasNext();) {
+				String queued = it.next();
+				if (!current.getNeighbours().contains(queued)) {
+					it.remove();
+					cancel(queued);
+				}
+			}
+			for (String neighbour : current.getNeighbours()) {
+				prefetch(neighbour);
+			}
+			evict();
+		}
+		return current;
+	}
+
+	public World getCurrent() {
+		return current;
+	}
+
+	/**
+	 * Queues a world for loading in the background. Loading happens in #update().
+	 */
+	public void prefetch(String name) {
+		String file = files.get(name);
+		if (file == null || loaded.containsKey(name) || pending.contains(name)) {
+			return;
+		}
+		pending.add(name);
+		assetManager.load(file, World.class);
+		AssetLoader<?, ?> loader = assetManager.getLoader(World.class, file);
+		if (loader instanceof WorldLoader) {
+			// neighbours are built in parallel instead of one after another
+			((WorldLoader) loader).prepare(assetManager, file);
+		}
+	}
+
+	/* unloads a queued world before it is loaded, along with what was built for it ahead of time */
+	private void cancel(String name) {
+		String file = files.get(name);
+		if (assetManager.isLoaded(file, World.class)) {
+			arrived(name, assetManager.get(file, World.class)); // too late, keep it like any other
+			return;
+		}
+		assetManager.unload(file);
+		AssetLoader<?, ?> loader = assetManager.getLoader(World.class, file);
+		if (loader instanceof WorldLoader) {
+			((WorldLoader) loader).cancel(file);
+		}
+	}
+
+	/**
+	 * Continues background loading. Call once per frame.
+	 */
+	public void update() {
+		if (pending.isEmpty()) {
+			return;
+		}
+		assetManager.update();
+		for (Iterator<String> it = pending.iterator(); it.hasNext();) {
+			String name = it.next();
+			String file = files.get(name);
+			if (assetManager.isLoaded(file, World.class)) {
+				it.remove();
+				arrived(name, assetManager.get(file, World.class));
+			}
+		}
+		evict();
+	}
+
+	/**
+	 * Finds the shortest walk between tiles of two worlds, through their teleports. Worlds the
+	 * graph does not know yet are loaded once when the search reaches them, only those closer
+	 * than the goal. Call on the GL thread.
+	 *
+	 * @return	The legs to walk, or null if there is no way
+	 */
+	public List<WorldGraph.Leg> findRoute(String startWorld, int startX, int startY, String goalWorld, int goalX,
+			int goalY) {
+		List<WorldGraph.Leg> route = graph.findRoute(startWorld, startX, startY, goalWorld, goalX, goalY,
+				new WorldGraph.WorldSource() {
+					@Override
+					public void require(String name) {
+						getWorld(name);
+					}
+				});
+		evict();
+		return route;
+	}
+
+	public WorldGraph getWorldGraph() {
+		return graph;
+	}
+
+	private void arrived(String name, World world) {
+		graph.addWorld(world);
+		WorldState state = evictedStates.remove(name);
+		if (state != null) {
+			restore(world, state);
+		}
+		loadedVersions.put(name, editVersions(world.getMap()));
+		loaded.put(name, world);
+	}
+
+	/* unloads least recently used worlds until the budget is kept */
+	private void evict() {
+		Iterator<Map.Entry<String, World>> it = loaded.entrySet().iterator();
+		while (loaded.size() > budget && it.hasNext()) {
+			Map.Entry<String, World> entry = it.next();
+			if (entry.getValue() == current || (current != null && current.getNeighbours().contains(entry.getKey()))) {
+				continue;
+			}
+			evictedStates.put(entry.getKey(), save(entry.getValue(), loadedVersions.remove(entry.getKey())));
+			it.remove();
+			assetManager.unload(files.get(entry.getKey()));
+		}
+	}
+
+	private WorldState save(World world, int[] versions) {
+		WorldState state = new WorldState();
+		state.random = world.getRandom();
+		for (Actor a : world.getActors()) {
+			if (a instanceof NPCActor && ((NPCActor) a).getId() != null) {
+				ActorState actor = new ActorState();
+				actor.id = ((NPCActor) a).getId();
+				actor.x = a.getX();
+				actor.y = a.getY();
+				actor.facing = a.getFacing();
+				actor.visible = a.isVisible();
+				actor.trainer = ((NPCActor) a).getTrainer();
+				ActorBehavior behavior = world.getBehavior(a);
+				if (behavior != null) {
+					actor.behavior = behavior.saveState();
+				}
+				state.actors.add(actor);
+			}
+		}
+		for (WorldObject o : world.getWorldObjects()) {
+			if (o instanceof Door) {
+				Door.STATE door = ((Door) o).getState();
+				state.doors.add(door == Door.STATE.OPEN || door == Door.STATE.OPENING);
+			}
+		}
+
+		/* only the chunks edited since the world was loaded */
+		TileMap map = world.getMap();
+		for (int cx = 0; cx < map.getChunksX(); cx++) {
+			for (int cy = 0; cy < map.getChunksY(); cy++) {
+				TileChunk chunk = map.getChunk(cx, cy);
+				if (chunk.getEditVersion() == versions[cx * map.getChunksY() + cy]) {
+					continue;
+				}
+				ChunkState edited = new ChunkState();
+				edited.cx = cx;
+				edited.cy = cy;
+				edited.terrain = new LTerrain[chunk.getWidth() * chunk.getHeight()];
+				edited.walkable = new boolean[edited.terrain.length];
+				for (int lx = 0; lx < chunk.getWidth(); lx++) {
+					for (int ly = 0; ly < chunk.getHeight(); ly++) {
+						edited.terrain[ly * chunk.getWidth() + lx] = chunk.getTerrain(lx, ly);
+						edited.walkable[ly * chunk.getWidth() + lx] = chunk.isWalkable(lx, ly);
+					}
+				}
+				state.chunks.add(edited);
+			}
+		}
+		return state;
+	}
+
+	private static int[] editVersions(TileMap map) {
+		int[] versions = new int[map.getChunksX() * map.getChunksY()];
+		for (int cx = 0; cx < map.getChunksX(); cx++) {
+			for (int cy = 0; cy < map.getChunksY(); cy++) {
+				versions[cx * map.getChunksY() + cy] = map.getChunk(cx, cy).getEditVersion();
+			}
+		}
+		return versions;
+	}
+
+	private void restore(World world, WorldState state) {
+		world.setRandom(state.random);
+
+		TileMap map = world.getMap();
+		for (ChunkState edited : state.chunks) {
+			TileChunk chunk = map.getChunk(edited.cx, edited.cy);
+			for (int lx = 0; lx < chunk.getWidth(); lx++) {
+				for (int ly = 0; ly < chunk.getHeight(); ly++) {
+					Tile tile = chunk.getTile(lx, ly);
+					if (tile == null) {
+						continue;
+					}
+					int i = ly * chunk.getWidth() + lx;
+					if (tile.getTerrain() != edited.terrain[i]) {
+						tile.setTerrain(edited.terrain[i]);
+					}
+					if (tile.walkable() != edited.walkable[i]) {
+						tile.setWalkable(edited.walkable[i]);
+					}
+				}
+			}
+		}
+
+		int door = 0;
+		for (WorldObject o : world.getWorldObjects()) {
+			if (o instanceof Door && door < state.doors.size()) {
+				((Door) o).setOpen(state.doors.get(door++));
+			}
+		}
+
+		/* NPCs that moved are all taken off their tiles first, so two can trade places */
+		List<Actor> actors = new ArrayList<Actor>(world.getActors());
+		List<NPCActor> matched = new ArrayList<NPCActor>();
+		for (ActorState saved : state.actors) {
+			NPCActor npc = null;
+			for (Actor a : actors) {
+				if (a instanceof NPCActor && saved.id.equals(((NPCActor) a).getId())) {
+					npc = (NPCActor) a;
+					break;
+				}
+			}
+			matched.add(npc);
+			if (npc == null) {
+				continue;
+			}
+			actors.remove(npc);
+			if (npc.getX() != saved.x || npc.getY() != saved.y) {
+				Tile tile = map.getTile(npc.getX(), npc.getY());
+				if (tile.getActor() == npc) {
+					tile.setActor(null);
+				}
+			}
+		}
+		for (int i = 0; i < state.actors.size(); i++) {
+			ActorState saved = state.actors.get(i);
+			NPCActor npc = matched.get(i);
+			if (npc == null) {
+				continue;
+			}
+			if (!world.placeActor(npc, saved.x, saved.y)) {
+				world.placeActor(npc, npc.getX(), npc.getY()); // the tile is gone or taken, stay
+			}
+			npc.refaceWithoutAnimation(saved.facing);
+			npc.setVisible(saved.visible);
+			npc.setTrainer(saved.trainer);
+			ActorBehavior behavior = world.getBehavior(npc);
+			if (behavior != null && saved.behavior != null) {
+				behavior.restoreState(saved.behavior);
+			}
+		}
+	}
+}